@@ -0,0 +1,105 @@
+package com.rick.imagereader;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.os.Build;
+import android.os.PowerManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.rick.imagereader.core.DeviceStatus;
+import com.rick.imagereader.core.DeviceStatusProvider;
+
+/**
+ * Reads thermal status from {@link PowerManager} (API 29+; older devices always report none),
+ * battery charge from the sticky battery broadcast, and power-save mode. Change notifications
+ * arrive on the main thread.
+ */
+final class AndroidDeviceStatusProvider implements DeviceStatusProvider {
+
+    private final Context context;
+    private final PowerManager powerManager;
+    @Nullable
+    private Runnable listener;
+    @Nullable
+    private BroadcastReceiver receiver;
+    @Nullable
+    private PowerManager.OnThermalStatusChangedListener thermalListener;
+
+    AndroidDeviceStatusProvider(@NonNull Context context) {
+        this.context = context.getApplicationContext();
+        this.powerManager = (PowerManager) this.context.getSystemService(Context.POWER_SERVICE);
+    }
+
+    @NonNull
+    @Override
+    public DeviceStatus current() {
+        int thermal = DeviceStatus.THERMAL_NONE;
+        boolean powerSave = false;
+        if (powerManager != null) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                thermal = powerManager.getCurrentThermalStatus();
+            }
+            powerSave = powerManager.isPowerSaveMode();
+        }
+        int batteryPercent = DeviceStatus.BATTERY_UNKNOWN;
+        boolean charging = false;
+        Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery != null) {
+            int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+            int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+            if (level >= 0 && scale > 0) {
+                batteryPercent = level * 100 / scale;
+            }
+            charging = battery.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+        }
+        return new DeviceStatus(thermal, batteryPercent, charging, powerSave);
+    }
+
+    @Override
+    public void setListener(@Nullable Runnable listener) {
+        this.listener = listener;
+        if (listener != null && receiver == null) {
+            register();
+        } else if (listener == null && receiver != null) {
+            unregister();
+        }
+    }
+
+    private void register() {
+        receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                notifyChanged();
+            }
+        };
+        IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
+        filter.addAction(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED);
+        ContextCompat.registerReceiver(context, receiver, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
+        if (powerManager != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            thermalListener = status -> notifyChanged();
+            powerManager.addThermalStatusListener(ContextCompat.getMainExecutor(context), thermalListener);
+        }
+    }
+
+    private void unregister() {
+        context.unregisterReceiver(receiver);
+        receiver = null;
+        if (thermalListener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            powerManager.removeThermalStatusListener(thermalListener);
+            thermalListener = null;
+        }
+    }
+
+    private void notifyChanged() {
+        Runnable current = listener;
+        if (current != null) {
+            current.run();
+        }
+    }
+}
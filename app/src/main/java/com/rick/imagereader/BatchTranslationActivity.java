@@ -0,0 +1,145 @@
+package com.rick.imagereader;
+
+import android.content.ClipData;
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.rick.imagereader.databinding.ActivityBatchTranslationBinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class BatchTranslationActivity extends AppCompatActivity implements BatchTranslationJob.Listener {
+
+    private static final String EXTRA_URIS = "com.rick.imagereader.URIS";
+    private static final String EXTRA_TARGET_LANGUAGE = "com.rick.imagereader.TARGET_LANGUAGE";
+
+    private ActivityBatchTranslationBinding binding;
+    private BatchTranslationJob job;
+
+    private BatchTranslationJob.Stage[] stages;
+    private BatchTranslationJob.ItemResult[] results;
+
+    public static Intent newIntent(Context context, List<Uri> uris, String targetLanguage) {
+        Intent intent = new Intent(context, BatchTranslationActivity.class);
+        intent.putParcelableArrayListExtra(EXTRA_URIS, new ArrayList<>(uris));
+        intent.putExtra(EXTRA_TARGET_LANGUAGE, targetLanguage);
+        // Carry the read grants from the picker over to this activity.
+        ClipData clipData = ClipData.newRawUri("images", uris.get(0));
+        for (int i = 1; i < uris.size(); i++) {
+            clipData.addItem(new ClipData.Item(uris.get(i)));
+        }
+        intent.setClipData(clipData);
+        intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        return intent;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityBatchTranslationBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        setSupportActionBar(binding.batchToolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        List<Uri> uris = getIntent().getParcelableArrayListExtra(EXTRA_URIS);
+        String targetLanguage = getIntent().getStringExtra(EXTRA_TARGET_LANGUAGE);
+        if (uris == null || uris.isEmpty() || targetLanguage == null) {
+            finish();
+            return;
+        }
+
+        stages = new BatchTranslationJob.Stage[uris.size()];
+        results = new BatchTranslationJob.ItemResult[uris.size()];
+        binding.batchProgressIndicator.setMax(uris.size());
+        binding.cancelBatchButton.setOnClickListener(v -> {
+            job.cancel();
+            binding.cancelBatchButton.setEnabled(false);
+            binding.batchStatusTextView.setText("Cancelling...");
+        });
+
+        job = new BatchTranslationJob(this, uris, targetLanguage, this);
+        job.start();
+    }
+
+    @Override
+    public void onItemStageChanged(int index, @NonNull BatchTranslationJob.Stage stage) {
+        stages[index] = stage;
+        renderResults();
+    }
+
+    @Override
+    public void onItemFinished(@NonNull BatchTranslationJob.ItemResult result) {
+        results[result.index] = result;
+        renderResults();
+    }
+
+    @Override
+    public void onProgress(int finished, int total) {
+        if (binding == null) {
+            return;
+        }
+        binding.batchProgressIndicator.setProgressCompat(finished, true);
+        if (!job.isCancelled()) {
+            binding.batchStatusTextView.setText(finished + " of " + total + " images translated");
+        }
+    }
+
+    @Override
+    public void onJobFinished(boolean cancelled) {
+        if (binding == null) {
+            return;
+        }
+        binding.cancelBatchButton.setEnabled(false);
+        binding.batchStatusTextView.setText(cancelled ? "Batch cancelled. Reopen it to resume." : "Batch finished.");
+    }
+
+    private void renderResults() {
+        if (binding == null) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < results.length; i++) {
+            BatchTranslationJob.ItemResult result = results[i];
+            text.append("Image ").append(i + 1);
+            if (result == null) {
+                BatchTranslationJob.Stage stage = stages[i];
+                text.append(": ").append(stage == null ? "waiting" : stage.name().toLowerCase(Locale.ROOT)).append("\n\n");
+            } else if (result.error != null) {
+                text.append(": failed (").append(result.error).append(")\n\n");
+            } else {
+                if (result.sourceLanguage != null) {
+                    text.append(" (").append(new Locale(result.sourceLanguage).getDisplayLanguage()).append(")");
+                }
+                text.append(":\n").append(result.translatedText.isEmpty() ? "No text found." : result.translatedText)
+                        .append("\n\n");
+            }
+        }
+        binding.batchResultsTextView.setText(text);
+    }
+
+    @Override
+    public boolean onSupportNavigateUp() {
+        finish();
+        return true;
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Unfinished items stay out of results.jsonl, so reopening the batch picks them up again.
+        if (job != null) {
+            job.cancel();
+        }
+        binding = null;
+    }
+}
@@ -0,0 +1,321 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.nl.languageid.LanguageIdentifier;
+import com.rick.imagereader.core.AdaptiveBudget;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Translates many images as a pipelined job: decode, OCR, language ID and translation each have
+ * their own concurrency limit, so different items can occupy different stages at once. Finished
+ * items are appended to a JSON-lines file as they complete, and a restarted job skips them.
+ */
+public final class BatchTranslationJob {
+
+    private static final String TAG = "BatchTranslationJob";
+
+    public enum Stage {DECODING, RECOGNIZING, IDENTIFYING, TRANSLATING, DONE, FAILED}
+
+    public interface Listener {
+        void onItemStageChanged(int index, @NonNull Stage stage);
+
+        void onItemFinished(@NonNull ItemResult result);
+
+        void onProgress(int finished, int total);
+
+        void onJobFinished(boolean cancelled);
+    }
+
+    public static final class ItemResult {
+        public final int index;
+        @NonNull
+        public final String uri;
+        @Nullable
+        public final String sourceLanguage;
+        @NonNull
+        public final String recognizedText;
+        @NonNull
+        public final String translatedText;
+        @Nullable
+        public final String error;
+
+        ItemResult(int index, @NonNull String uri, @Nullable String sourceLanguage, @NonNull String recognizedText,
+                   @NonNull String translatedText, @Nullable String error) {
+            this.index = index;
+            this.uri = uri;
+            this.sourceLanguage = sourceLanguage;
+            this.recognizedText = recognizedText;
+            this.translatedText = translatedText;
+            this.error = error;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("index", index);
+            json.put("uri", uri);
+            json.put("source", sourceLanguage);
+            json.put("text", recognizedText);
+            json.put("translation", translatedText);
+            json.put("error", error);
+            return json;
+        }
+
+        static ItemResult fromJson(JSONObject json) {
+            return new ItemResult(json.optInt("index"), json.optString("uri"),
+                    json.isNull("source") ? null : json.optString("source"),
+                    json.optString("text"), json.optString("translation"),
+                    json.isNull("error") ? null : json.optString("error"));
+        }
+    }
+
+    private final List<Uri> uris;
+    private final String targetLang;
+    private final File resultsFile;
+    private final Listener listener;
+
+    private final ImageDecodePipeline decodePipeline;
+    private final TranslationService translationService;
+    private final ScriptAwareRecognizer textRecognizer;
+    private final PowerAwareScheduler powerScheduler;
+    private final EngineRegistry.Handle<LanguageIdentifier> languageIdentifier =
+            EngineRegistry.getInstance().acquireLanguageIdentifier();
+
+    private final ExecutorService decodeExecutor;
+    private final ExecutorService writerExecutor = Executors.newSingleThreadExecutor();
+    private final TaskLimiter admissionLimiter;
+    private final TaskLimiter ocrLimiter;
+    private final TaskLimiter identifyLimiter;
+    private final TaskLimiter translateLimiter;
+    // OCR width at full performance; the limiters shrink from it while the device is throttled.
+    private final int ocrWidth;
+    private final AdaptiveBudget.Listener powerListener = (previous, current, status) -> applyPowerBudget();
+
+    private volatile boolean cancelled;
+    // Progress counters are only touched from Task callbacks on the main thread.
+    private int finished;
+    private int total;
+    private int pending;
+
+    public BatchTranslationJob(@NonNull Context context, @NonNull List<Uri> uris, @NonNull String targetLang,
+                               @NonNull Listener listener) {
+        this.uris = new ArrayList<>(uris);
+        this.targetLang = targetLang;
+        this.listener = listener;
+        this.decodePipeline = ImageDecodePipeline.getInstance(context);
+        this.translationService = TranslationService.getInstance(context);
+        this.textRecognizer = ScriptAwareRecognizer.getInstance(context);
+        this.powerScheduler = PowerAwareScheduler.getInstance(context);
+
+        File jobDir = new File(context.getFilesDir(), "batch/" + jobId(this.uris, targetLang));
+        jobDir.mkdirs();
+        this.resultsFile = new File(jobDir, "results.jsonl");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int decodeWidth = Math.max(1, cores / 2);
+        ocrWidth = Math.max(1, Math.min(2, cores / 2));
+        decodeExecutor = Executors.newFixedThreadPool(decodeWidth);
+        ocrLimiter = new TaskLimiter(powerScheduler.getBudget().parallelism(ocrWidth));
+        identifyLimiter = new TaskLimiter(powerScheduler.getBudget().parallelism(ocrWidth));
+        translateLimiter = new TaskLimiter(TaskLimiter.defaultParallelism());
+        // Caps how many items (and therefore decoded bitmaps) are between decode and OCR at once;
+        // an item gives its slot back as soon as OCR returns, before identification and translation.
+        admissionLimiter = new TaskLimiter(decodeWidth + ocrWidth + 1);
+    }
+
+    /** Same inputs and target map to the same directory, which is what makes a job resumable. */
+    static String jobId(List<Uri> uris, String targetLang) {
+        StringBuilder material = new StringBuilder();
+        for (Uri uri : uris) {
+            material.append(uri).append('\n');
+        }
+        return TranslationCache.key(material.toString(), "batch", targetLang).substring(0, 16);
+    }
+
+    /** Results already on disk from an earlier, interrupted run of this job. */
+    @NonNull
+    public Map<Integer, ItemResult> loadPreviousResults() {
+        Map<Integer, ItemResult> results = new HashMap<>();
+        if (!resultsFile.isFile()) {
+            return results;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(resultsFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    ItemResult result = ItemResult.fromJson(new JSONObject(line));
+                    if (result.error == null) {
+                        results.put(result.index, result);
+                    }
+                } catch (JSONException e) {
+                    // A line cut short by process death; the item is simply redone.
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to read previous results", e);
+        }
+        return results;
+    }
+
+    public void start() {
+        Map<Integer, ItemResult> previous = loadPreviousResults();
+        total = uris.size();
+        finished = previous.size();
+        for (ItemResult result : previous.values()) {
+            listener.onItemFinished(result);
+        }
+        listener.onProgress(finished, total);
+        pending = total - finished;
+        if (pending == 0) {
+            finish();
+            return;
+        }
+        powerScheduler.addListener(powerListener);
+        for (int i = 0; i < uris.size(); i++) {
+            if (previous.containsKey(i)) {
+                continue;
+            }
+            final int index = i;
+            admissionLimiter.submit(() -> decodeAndRecognize(index))
+                    .onSuccessTask(result -> identifyAndTranslate(index, result.recognizedText.getText()))
+                    .addOnCompleteListener(task -> onItemDone(index, task));
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private Task<ScriptAwareRecognizer.Result> decodeAndRecognize(int index) {
+        checkCancelled();
+        listener.onItemStageChanged(index, Stage.DECODING);
+        return decodePipeline.decodeForOcr(uris.get(index), decodeExecutor)
+                .onSuccessTask(bitmap -> ocrLimiter.submit(() -> {
+                    checkCancelledAndRelease(bitmap);
+                    listener.onItemStageChanged(index, Stage.RECOGNIZING);
+                    return textRecognizer.recognize(bitmap)
+                            .addOnCompleteListener(task -> decodePipeline.release(bitmap));
+                }));
+    }
+
+    private Task<ItemResult> identifyAndTranslate(int index, String recognized) {
+        Uri uri = uris.get(index);
+        String[] source = {null};
+
+        Task<String> identified = recognized.isEmpty() ? Tasks.forResult("und")
+                : identifyLimiter.submit(() -> {
+                    checkCancelled();
+                    listener.onItemStageChanged(index, Stage.IDENTIFYING);
+                    return EngineRegistry.getInstance().identifyLanguage(recognized);
+                });
+        return identified
+                .onSuccessTask(languageCode -> {
+                    if (languageCode.equals("und")) {
+                        return Tasks.forResult("");
+                    }
+                    source[0] = languageCode;
+                    return translateLimiter.submit(() -> {
+                        checkCancelled();
+                        listener.onItemStageChanged(index, Stage.TRANSLATING);
+                        return translationService.translate(recognized, languageCode, targetLang, null);
+                    });
+                })
+                .onSuccessTask(translated -> Tasks.forResult(
+                        new ItemResult(index, uri.toString(), source[0], recognized, translated, null)));
+    }
+
+    private void onItemDone(int index, Task<ItemResult> task) {
+        ItemResult result;
+        if (task.isSuccessful()) {
+            result = task.getResult();
+        } else if (cancelled) {
+            finishIfIdle();
+            return;
+        } else {
+            Exception e = task.getException();
+            result = new ItemResult(index, uris.get(index).toString(), null, "", "",
+                    e != null ? String.valueOf(e.getMessage()) : "Unknown error");
+        }
+        persist(result);
+        listener.onItemStageChanged(index, result.error == null ? Stage.DONE : Stage.FAILED);
+        listener.onItemFinished(result);
+        listener.onProgress(++finished, total);
+        finishIfIdle();
+    }
+
+    private void applyPowerBudget() {
+        ocrLimiter.setMaxConcurrent(powerScheduler.getBudget().parallelism(ocrWidth));
+        identifyLimiter.setMaxConcurrent(powerScheduler.getBudget().parallelism(ocrWidth));
+        translateLimiter.setMaxConcurrent(TaskLimiter.defaultParallelism());
+    }
+
+    private void finishIfIdle() {
+        if (--pending == 0) {
+            finish();
+        }
+    }
+
+    private void persist(ItemResult result) {
+        writerExecutor.execute(() -> {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(resultsFile, true), StandardCharsets.UTF_8)) {
+                writer.write(result.toJson().toString());
+                writer.write('\n');
+            } catch (IOException | JSONException e) {
+                Log.w(TAG, "Failed to persist result " + result.index, e);
+            }
+        });
+    }
+
+    private void finish() {
+        powerScheduler.removeListener(powerListener);
+        writerExecutor.shutdown();
+        decodeExecutor.shutdown();
+        languageIdentifier.close();
+        listener.onJobFinished(cancelled);
+    }
+
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Batch cancelled");
+        }
+    }
+
+    private void checkCancelledAndRelease(Bitmap bitmap) {
+        if (cancelled) {
+            decodePipeline.release(bitmap);
+            throw new CancellationException("Batch cancelled");
+        }
+    }
+}
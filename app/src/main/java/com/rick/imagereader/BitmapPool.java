@@ -0,0 +1,85 @@
+package com.rick.imagereader;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Byte-bounded pool of mutable bitmaps that can be handed to {@code BitmapFactory.Options.inBitmap},
+ * so decoding a new image reuses the previous image's memory instead of allocating more.
+ */
+public final class BitmapPool {
+
+    private final long maxBytes;
+    // Oldest first; evicted from the front when over budget.
+    private final LinkedList<Bitmap> bitmaps = new LinkedList<>();
+    private long currentBytes;
+
+    public BitmapPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** Removes and returns the smallest pooled bitmap able to hold {@code width x height} pixels. */
+    @Nullable
+    public synchronized Bitmap get(int width, int height, @NonNull Bitmap.Config config) {
+        long needed = (long) width * height * bytesPerPixel(config);
+        Bitmap best = null;
+        for (Bitmap bitmap : bitmaps) {
+            if (bitmap.getConfig() == config && bitmap.getAllocationByteCount() >= needed
+                    && (best == null || bitmap.getAllocationByteCount() < best.getAllocationByteCount())) {
+                best = bitmap;
+            }
+        }
+        if (best != null) {
+            bitmaps.remove(best);
+            currentBytes -= best.getAllocationByteCount();
+        }
+        return best;
+    }
+
+    /** Returns a bitmap that nothing references any more. */
+    public synchronized void put(@Nullable Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        if (!bitmap.isMutable() || bitmap.getAllocationByteCount() > maxBytes) {
+            bitmap.recycle();
+            return;
+        }
+        bitmaps.add(bitmap);
+        currentBytes += bitmap.getAllocationByteCount();
+        trimTo(maxBytes);
+    }
+
+    public synchronized void trimTo(long bytes) {
+        Iterator<Bitmap> iterator = bitmaps.iterator();
+        while (currentBytes > bytes && iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            iterator.remove();
+            currentBytes -= bitmap.getAllocationByteCount();
+            bitmap.recycle();
+        }
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        switch (config) {
+            case ALPHA_8:
+                return 1;
+            case RGB_565:
+            case ARGB_4444:
+                return 2;
+            case RGBA_F16:
+                return 8;
+            default:
+                return 4;
+        }
+    }
+}
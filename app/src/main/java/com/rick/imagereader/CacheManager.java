@@ -0,0 +1,135 @@
+package com.rick.imagereader;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.rick.imagereader.core.CacheBudget;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The process-wide {@link CacheBudget}s. In-memory caches register against the heap budget,
+ * sized from the app's heap class; loaded engines register against a separate native budget,
+ * since their models live outside the Java heap and its limit does not apply to them. System
+ * memory pressure sheds both cheapest-to-rebuild first: decoded bitmaps and results that are
+ * also on disk go before recognizers, and recognizers before translation models.
+ *
+ * <p>Caches call {@link #enforceBudget()} after they grow, outside their own locks.
+ */
+public final class CacheManager implements ComponentCallbacks2 {
+
+    private static final String TAG = "CacheManager";
+
+    // Heap budget shares.
+    static final int WEIGHT_BITMAPS = 2;
+    static final int WEIGHT_RESULTS = 1;
+    // Native budget shares; translators dominate because each holds a loaded translation model.
+    static final int WEIGHT_RECOGNIZERS = 4;
+    static final int WEIGHT_TRANSLATORS = 8;
+    // Until configure() knows the device's heap class and RAM.
+    private static final long DEFAULT_HEAP_BUDGET_BYTES = 96L * 1024 * 1024;
+    private static final long DEFAULT_NATIVE_BUDGET_BYTES = 256L * 1024 * 1024;
+    // Share of physical RAM the loaded engines may hold.
+    private static final int NATIVE_RAM_DIVISOR = 8;
+
+    private static CacheManager instance;
+
+    private final CacheBudget heapBudget = new CacheBudget(DEFAULT_HEAP_BUDGET_BYTES);
+    private final CacheBudget nativeBudget = new CacheBudget(DEFAULT_NATIVE_BUDGET_BYTES);
+
+    private CacheManager() {
+    }
+
+    public static synchronized CacheManager getInstance() {
+        if (instance == null) {
+            instance = new CacheManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Sizes the heap budget to three quarters of the app's heap class, the footprint the system
+     * expects of us, and the native budget to an eighth of physical RAM.
+     */
+    public void configure(@NonNull Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (activityManager != null) {
+            heapBudget.setBudgetBytes(activityManager.getMemoryClass() * 1024L * 1024 * 3 / 4);
+            ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+            activityManager.getMemoryInfo(memoryInfo);
+            nativeBudget.setBudgetBytes(memoryInfo.totalMem / NATIVE_RAM_DIVISOR);
+        }
+    }
+
+    /** Registers a cache whose entries are on the Java heap. */
+    public void register(@NonNull String name, @NonNull CacheBudget.Cache cache, int weight,
+                         @NonNull CacheBudget.Priority priority) {
+        heapBudget.register(name, cache, weight, priority);
+    }
+
+    /** Registers a cache of engines whose memory, estimated by the cache, is native. */
+    public void registerNative(@NonNull String name, @NonNull CacheBudget.Cache cache, int weight,
+                               @NonNull CacheBudget.Priority priority) {
+        nativeBudget.register(name, cache, weight, priority);
+    }
+
+    public void enforceBudget() {
+        heapBudget.enforce();
+        nativeBudget.enforce();
+    }
+
+    public long getHeapBudgetBytes() {
+        return heapBudget.getBudgetBytes();
+    }
+
+    public long getNativeBudgetBytes() {
+        return nativeBudget.getBudgetBytes();
+    }
+
+    @NonNull
+    public List<CacheBudget.Occupancy> getHeapOccupancy() {
+        return heapBudget.occupancy();
+    }
+
+    @NonNull
+    public List<CacheBudget.Occupancy> getNativeOccupancy() {
+        return nativeBudget.occupancy();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        CacheBudget.Pressure pressure;
+        if (level >= TRIM_MEMORY_MODERATE) {
+            pressure = CacheBudget.Pressure.COMPLETE;
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            pressure = CacheBudget.Pressure.CRITICAL;
+        } else if (level == TRIM_MEMORY_RUNNING_LOW) {
+            pressure = CacheBudget.Pressure.LOW;
+        } else {
+            // TRIM_MEMORY_UI_HIDDEN only means the UI went away, often for a moment while the user
+            // switches apps; dropping the engines there would make every return a cold start.
+            pressure = CacheBudget.Pressure.MODERATE;
+        }
+        long before = heapBudget.totalBytes() + nativeBudget.totalBytes();
+        heapBudget.shed(pressure);
+        nativeBudget.shed(pressure);
+        long after = heapBudget.totalBytes() + nativeBudget.totalBytes();
+        Log.i(TAG, "Trim level " + level + ": " + before / 1024 + " KB -> " + after / 1024 + " KB");
+        PipelineMetrics.getInstance().increment("cache.trim." + pressure.name().toLowerCase(Locale.ROOT), null);
+    }
+
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+}
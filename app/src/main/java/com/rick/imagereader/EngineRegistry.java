@@ -0,0 +1,242 @@
+package com.rick.imagereader;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.mlkit.nl.languageid.LanguageIdentification;
+import com.google.mlkit.nl.languageid.LanguageIdentifier;
+import com.google.mlkit.vision.text.TextRecognition;
+import com.google.mlkit.vision.text.TextRecognizer;
+import com.google.mlkit.vision.text.TextRecognizerOptionsInterface;
+import com.google.mlkit.vision.text.chinese.ChineseTextRecognizerOptions;
+import com.google.mlkit.vision.text.devanagari.DevanagariTextRecognizerOptions;
+import com.google.mlkit.vision.text.japanese.JapaneseTextRecognizerOptions;
+import com.google.mlkit.vision.text.korean.KoreanTextRecognizerOptions;
+import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
+import com.rick.imagereader.core.CacheBudget;
+import com.rick.imagereader.core.OcrScript;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Application-wide ML Kit engines handed out as ref-counted handles. Engines stay loaded while
+ * unreferenced so the next screen starts warm, and are closed when {@link CacheManager} needs
+ * the memory back. Identical language-ID requests that overlap in time share one result.
+ *
+ * <p>There is one text recognizer per {@link OcrScript}, each created on first use. Besides
+ * Latin, at most one idle recognizer stays loaded: acquiring another script's recognizer
+ * closes the idle ones for other non-Latin scripts.
+ */
+public final class EngineRegistry implements CacheBudget.Cache {
+
+    private static final String TAG = "EngineRegistry";
+    // Rough native footprints of the loaded models; ML Kit does not report them.
+    private static final long ESTIMATED_LATIN_RECOGNIZER_BYTES = 8L * 1024 * 1024;
+    private static final long ESTIMATED_RECOGNIZER_BYTES = 24L * 1024 * 1024;
+    private static final long ESTIMATED_LANGUAGE_ID_BYTES = 2L * 1024 * 1024;
+
+    private interface Factory<T> {
+        T create();
+    }
+
+    private static final class Entry<T extends Closeable> {
+        final Factory<T> factory;
+        T engine;
+        int refCount;
+
+        Entry(Factory<T> factory) {
+            this.factory = factory;
+        }
+    }
+
+    private static EngineRegistry instance;
+
+    private final Map<OcrScript, Entry<TextRecognizer>> textRecognizers = new EnumMap<>(OcrScript.class);
+    private final Entry<LanguageIdentifier> languageIdentifier =
+            new Entry<>(LanguageIdentification::getClient);
+    private final Map<String, Task<String>> identificationsInFlight = new HashMap<>();
+
+    private EngineRegistry() {
+        for (OcrScript script : OcrScript.values()) {
+            textRecognizers.put(script, new Entry<>(() -> TextRecognition.getClient(optionsFor(script))));
+        }
+    }
+
+    private static TextRecognizerOptionsInterface optionsFor(OcrScript script) {
+        switch (script) {
+            case JAPANESE:
+                return new JapaneseTextRecognizerOptions.Builder().build();
+            case CHINESE:
+                return new ChineseTextRecognizerOptions.Builder().build();
+            case KOREAN:
+                return new KoreanTextRecognizerOptions.Builder().build();
+            case DEVANAGARI:
+                return new DevanagariTextRecognizerOptions.Builder().build();
+            case LATIN:
+            default:
+                return TextRecognizerOptions.DEFAULT_OPTIONS;
+        }
+    }
+
+    public static synchronized EngineRegistry getInstance() {
+        if (instance == null) {
+            instance = new EngineRegistry();
+            CacheManager.getInstance().registerNative("engines", instance,
+                    CacheManager.WEIGHT_RECOGNIZERS, CacheBudget.Priority.MODERATE);
+        }
+        return instance;
+    }
+
+    /** The Latin recognizer. */
+    @NonNull
+    public Handle<TextRecognizer> acquireTextRecognizer() {
+        return acquireTextRecognizer(OcrScript.LATIN);
+    }
+
+    @NonNull
+    public Handle<TextRecognizer> acquireTextRecognizer(@NonNull OcrScript script) {
+        if (script != OcrScript.LATIN) {
+            synchronized (this) {
+                for (Map.Entry<OcrScript, Entry<TextRecognizer>> other : textRecognizers.entrySet()) {
+                    if (other.getKey() != OcrScript.LATIN && other.getKey() != script) {
+                        closeIfUnused(other.getValue());
+                    }
+                }
+            }
+        }
+        return acquire(textRecognizers.get(script));
+    }
+
+    @NonNull
+    public Handle<LanguageIdentifier> acquireLanguageIdentifier() {
+        return acquire(languageIdentifier);
+    }
+
+    /** Identifies the language of {@code text}, joining an identical request that is still running. */
+    @NonNull
+    public Task<String> identifyLanguage(@NonNull String text) {
+        synchronized (identificationsInFlight) {
+            Task<String> inFlight = identificationsInFlight.get(text);
+            if (inFlight != null) {
+                return inFlight;
+            }
+            Handle<LanguageIdentifier> handle = acquireLanguageIdentifier();
+            Task<String> task = PipelineTracer.begin(PipelineTracer.STAGE_LANGUAGE_ID, null)
+                    .endWhen(handle.get().identifyLanguage(text))
+                    .addOnCompleteListener(finished -> {
+                        synchronized (identificationsInFlight) {
+                            identificationsInFlight.remove(text);
+                        }
+                        handle.close();
+                    });
+            if (!task.isComplete()) {
+                identificationsInFlight.put(text, task);
+            }
+            return task;
+        }
+    }
+
+    private <T extends Closeable> Handle<T> acquire(Entry<T> entry) {
+        Handle<T> handle;
+        boolean created = false;
+        synchronized (this) {
+            if (entry.engine == null) {
+                entry.engine = entry.factory.create();
+                created = true;
+            }
+            entry.refCount++;
+            handle = new Handle<>(entry);
+        }
+        if (created) {
+            // Outside the lock: the budget may call back into this registry or another cache.
+            CacheManager.getInstance().enforceBudget();
+        }
+        return handle;
+    }
+
+    private synchronized <T extends Closeable> void release(Entry<T> entry) {
+        entry.refCount--;
+    }
+
+    private <T extends Closeable> void closeIfUnused(Entry<T> entry) {
+        if (entry.engine != null && entry.refCount == 0) {
+            try {
+                entry.engine.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to close engine", e);
+            }
+            entry.engine = null;
+        }
+    }
+
+    @Override
+    public synchronized long sizeBytes() {
+        long bytes = languageIdentifier.engine != null ? ESTIMATED_LANGUAGE_ID_BYTES : 0;
+        for (Map.Entry<OcrScript, Entry<TextRecognizer>> recognizer : textRecognizers.entrySet()) {
+            if (recognizer.getValue().engine != null) {
+                bytes += estimatedBytes(recognizer.getKey());
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Closes unused engines until the estimate is at most {@code bytes}: other scripts'
+     * recognizers first, then the Latin one, then language ID, which nearly every flow needs.
+     */
+    @Override
+    public synchronized void trimToBytes(long bytes) {
+        for (Map.Entry<OcrScript, Entry<TextRecognizer>> recognizer : textRecognizers.entrySet()) {
+            if (sizeBytes() <= bytes) {
+                return;
+            }
+            if (recognizer.getKey() != OcrScript.LATIN) {
+                closeIfUnused(recognizer.getValue());
+            }
+        }
+        if (sizeBytes() > bytes) {
+            closeIfUnused(textRecognizers.get(OcrScript.LATIN));
+        }
+        if (sizeBytes() > bytes) {
+            closeIfUnused(languageIdentifier);
+        }
+    }
+
+    private static long estimatedBytes(OcrScript script) {
+        return script == OcrScript.LATIN ? ESTIMATED_LATIN_RECOGNIZER_BYTES : ESTIMATED_RECOGNIZER_BYTES;
+    }
+
+    /** A reference on a shared engine. Closing it lets the registry free the engine under pressure. */
+    public final class Handle<T extends Closeable> implements Closeable {
+        private final Entry<T> entry;
+        private final T engine;
+        private boolean closed;
+
+        private Handle(Entry<T> entry) {
+            this.entry = entry;
+            this.engine = entry.engine;
+        }
+
+        @NonNull
+        public T get() {
+            return engine;
+        }
+
+        @Override
+        public void close() {
+            synchronized (EngineRegistry.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                release(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.common.model.DownloadConditions;
+import com.google.mlkit.nl.translate.TranslateLanguage;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.text.TextRecognizer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads the ML engines in the background with tiny dummy inputs so the first real photo or text
+ * does not pay their cold-start cost. Each engine is warmed at most once per process.
+ */
+public final class EngineWarmup {
+
+    private static final String TAG = "EngineWarmup";
+
+    public static final String STAGE_RECOGNIZER = "recognizer";
+    public static final String STAGE_IDENTIFIER = "identifier";
+    public static final String STAGE_TRANSLATOR = "translator";
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    // Warm-up durations in milliseconds by stage, in the order they finished.
+    private static final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static boolean recognizerWarm;
+    private static boolean identifierWarm;
+    private static String warmTranslatorPair;
+
+    private EngineWarmup() {
+    }
+
+    /** Warms everything the app needs on launch. */
+    public static void warmAll(@NonNull Context context) {
+        warm(context.getApplicationContext(), true, true, true);
+    }
+
+    /** Warms the engines used by the given tab (0 = image, 1 = text). */
+    public static void warmForTab(@NonNull Context context, int position) {
+        warm(context.getApplicationContext(), position == 0, true, true);
+    }
+
+    @NonNull
+    public static Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    private static void warm(Context context, boolean recognizer, boolean identifier, boolean translator) {
+        executor.execute(() -> {
+            if (recognizer && !recognizerWarm) {
+                recognizerWarm = run(STAGE_RECOGNIZER, () -> warmRecognizer(context));
+            }
+            if (identifier && !identifierWarm) {
+                identifierWarm = run(STAGE_IDENTIFIER, () -> Tasks.await(
+                        EngineRegistry.getInstance().identifyLanguage("Hello world")));
+            }
+            if (translator) {
+                warmTranslator(context);
+            }
+        });
+    }
+
+    private static void warmRecognizer(Context context) throws Exception {
+        Bitmap bitmap = Bitmap.createBitmap(64, 32, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        canvas.drawColor(Color.WHITE);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setTextSize(20);
+        canvas.drawText("Hi", 8, 24, paint);
+        try (EngineRegistry.Handle<TextRecognizer> recognizer = EngineRegistry.getInstance().acquireTextRecognizer(
+                ScriptAwareRecognizer.getInstance(context).preferredScript())) {
+            Tasks.await(recognizer.get().process(InputImage.fromBitmap(bitmap, 0)));
+        } finally {
+            bitmap.recycle();
+        }
+    }
+
+    private static void warmTranslator(Context context) {
+        String source = LanguagePreferences.getSourceLanguage(context);
+        String target = LanguagePreferences.getTargetLanguage(context);
+        String pair = source + "->" + target;
+        if (source.equals(target) || pair.equals(warmTranslatorPair)) {
+            return;
+        }
+        try {
+            // Never start a model download just to warm up; only load models already on disk.
+            Set<String> downloaded = Tasks.await(new MlKitModelManager().getDownloadedLanguages());
+            if (!isAvailable(source, downloaded) || !isAvailable(target, downloaded)) {
+                return;
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not check downloaded models", e);
+            return;
+        }
+        boolean warmed = run(STAGE_TRANSLATOR, () -> {
+            try (TranslatorPool.Lease lease = TranslatorPool.getInstance().acquire(source, target)) {
+                Tasks.await(lease.downloadModelIfNeeded(new DownloadConditions.Builder().build()));
+                Tasks.await(lease.translator().translate("Hello"));
+            }
+        });
+        if (warmed) {
+            warmTranslatorPair = pair;
+        }
+    }
+
+    private static boolean isAvailable(String language, Set<String> downloaded) {
+        return language.equals(TranslateLanguage.ENGLISH) || downloaded.contains(language);
+    }
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private static boolean run(String name, Stage stage) {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            stage.run();
+        } catch (Exception e) {
+            Log.w(TAG, "Warm-up of " + name + " failed", e);
+            return false;
+        }
+        long elapsed = SystemClock.elapsedRealtime() - start;
+        timings.put(name, elapsed);
+        Log.i(TAG, "Warmed " + name + " in " + elapsed + " ms");
+        return true;
+    }
+}
@@ -0,0 +1,389 @@
+package com.rick.imagereader;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.exifinterface.media.ExifInterface;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.rick.imagereader.core.CacheBudget;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes camera and gallery images off the main thread at two bounded resolutions: one sized for
+ * OCR and a smaller one for the preview. Bitmaps are upright (EXIF applied) and drawn from
+ * {@link BitmapPool}; callers hand them back with {@link #release(Bitmap)}.
+ */
+public final class ImageDecodePipeline {
+
+    private static final String TAG = "ImageDecodePipeline";
+
+    // Long edge that keeps small print legible to the recognizer without decoding every pixel.
+    public static final int OCR_MAX_EDGE = 2048;
+    private static final long POOL_BYTES = 32L * 1024 * 1024;
+
+    private static ImageDecodePipeline instance;
+
+    private final ContentResolver contentResolver;
+    private final PowerAwareScheduler powerScheduler;
+    // A single decode thread bounds peak heap to one image in flight.
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final BitmapPool bitmapPool = new BitmapPool(POOL_BYTES);
+
+    public static final class DecodedImage {
+        @NonNull
+        public final Bitmap ocrBitmap;
+        @NonNull
+        public final Bitmap previewBitmap;
+        public final int sourceWidth;
+        public final int sourceHeight;
+
+        DecodedImage(@NonNull Bitmap ocrBitmap, @NonNull Bitmap previewBitmap, int sourceWidth, int sourceHeight) {
+            this.ocrBitmap = ocrBitmap;
+            this.previewBitmap = previewBitmap;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+        }
+    }
+
+    private static final class ImageBounds {
+        final int width;
+        final int height;
+        final int orientation;
+
+        ImageBounds(int width, int height, int orientation) {
+            this.width = width;
+            this.height = height;
+            this.orientation = orientation;
+        }
+    }
+
+    private ImageDecodePipeline(Context context) {
+        contentResolver = context.getContentResolver();
+        powerScheduler = PowerAwareScheduler.getInstance(context);
+        CacheManager.getInstance().register("bitmap_pool", new CacheBudget.Cache() {
+            @Override
+            public long sizeBytes() {
+                return bitmapPool.getCurrentBytes();
+            }
+
+            @Override
+            public void trimToBytes(long bytes) {
+                bitmapPool.trimTo(bytes);
+            }
+        }, CacheManager.WEIGHT_BITMAPS, CacheBudget.Priority.CHEAP);
+    }
+
+    public static synchronized ImageDecodePipeline getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ImageDecodePipeline(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @NonNull
+    public BitmapPool getBitmapPool() {
+        return bitmapPool;
+    }
+
+    /**
+     * The OCR long edge to decode at right now: {@link #OCR_MAX_EDGE}, or less while the device
+     * is throttled, trading recognition of the smallest print for less work per image.
+     */
+    public int ocrMaxEdge() {
+        return powerScheduler.getBudget().ocrMaxEdge(OCR_MAX_EDGE);
+    }
+
+    @NonNull
+    public Task<DecodedImage> decode(@NonNull Uri uri, int previewMaxEdge) {
+        int ocrMaxEdge = ocrMaxEdge();
+        return Tasks.call(executor, () -> decodeBlocking(uri, ocrMaxEdge, previewMaxEdge));
+    }
+
+    /** Decodes only the OCR-sized bitmap, for callers that show no preview. */
+    @NonNull
+    public Task<Bitmap> decodeForOcr(@NonNull Uri uri) {
+        return decodeForOcr(uri, executor);
+    }
+
+    /** Decodes only the OCR-sized bitmap, on a caller-provided executor (used by batch jobs). */
+    @NonNull
+    public Task<Bitmap> decodeForOcr(@NonNull Uri uri, @NonNull Executor decodeExecutor) {
+        int ocrMaxEdge = ocrMaxEdge();
+        return Tasks.call(decodeExecutor, () -> {
+            ImageBounds bounds = readBounds(uri);
+            return decodeScaled(uri, bounds.width, bounds.height, ocrMaxEdge, bounds.orientation);
+        });
+    }
+
+    /**
+     * Opens {@code uri} for decoding rectangles of it at full resolution, for images too large to
+     * downscale or when only part of one is needed.
+     */
+    @NonNull
+    public Task<RegionSource> openRegions(@NonNull Uri uri) {
+        return Tasks.call(executor, () -> {
+            ImageBounds bounds = readBounds(uri);
+            ParcelFileDescriptor descriptor = contentResolver.openFileDescriptor(uri, "r");
+            if (descriptor == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            try {
+                BitmapRegionDecoder decoder = BitmapRegionDecoder.newInstance(descriptor.getFileDescriptor(), false);
+                return new RegionSource(descriptor, decoder, bounds);
+            } catch (IOException | RuntimeException e) {
+                descriptor.close();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Decodes rectangles of one image without ever holding the whole bitmap. Rectangles are in
+     * upright (EXIF-applied) full-resolution pixels, and decoded tiles come back upright and
+     * poolable. Decodes run one at a time on the pipeline's decode thread.
+     */
+    public final class RegionSource implements Closeable {
+        /** Upright size of the full image. */
+        public final int width;
+        public final int height;
+
+        private final ParcelFileDescriptor descriptor;
+        private final BitmapRegionDecoder decoder;
+        private final int orientation;
+        @Nullable
+        private final Matrix uprightToRaw;
+        private boolean closed;
+
+        private RegionSource(ParcelFileDescriptor descriptor, BitmapRegionDecoder decoder, ImageBounds bounds) {
+            this.descriptor = descriptor;
+            this.decoder = decoder;
+            this.orientation = bounds.orientation;
+            Matrix rawToUpright = orientationMatrix(bounds.orientation, bounds.width, bounds.height);
+            if (rawToUpright == null) {
+                uprightToRaw = null;
+                width = bounds.width;
+                height = bounds.height;
+            } else {
+                RectF upright = new RectF(0, 0, bounds.width, bounds.height);
+                rawToUpright.mapRect(upright);
+                width = Math.round(upright.width());
+                height = Math.round(upright.height());
+                uprightToRaw = new Matrix();
+                rawToUpright.invert(uprightToRaw);
+            }
+        }
+
+        @NonNull
+        public Task<Bitmap> decode(@NonNull Rect region, int sampleSize) {
+            return Tasks.call(executor, () -> {
+                if (closed) {
+                    throw new IOException("Region source is closed");
+                }
+                Rect raw = region;
+                if (uprightToRaw != null) {
+                    RectF mapped = new RectF(region);
+                    uprightToRaw.mapRect(mapped);
+                    raw = new Rect();
+                    mapped.round(raw);
+                }
+                BitmapFactory.Options options = new BitmapFactory.Options();
+                options.inSampleSize = sampleSize;
+                options.inMutable = true;
+                Bitmap tile = decoder.decodeRegion(raw, options);
+                if (tile == null) {
+                    throw new IOException("Failed to decode region " + region);
+                }
+                return applyOrientation(tile, orientation);
+            });
+        }
+
+        /** Closes once every decode already queued has run. */
+        @Override
+        public void close() {
+            executor.execute(() -> {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                decoder.recycle();
+                try {
+                    descriptor.close();
+                } catch (IOException e) {
+                    Log.w(TAG, "Failed to close image", e);
+                }
+            });
+        }
+    }
+
+    public void release(Bitmap bitmap) {
+        bitmapPool.put(bitmap);
+        CacheManager.getInstance().enforceBudget();
+    }
+
+    private DecodedImage decodeBlocking(Uri uri, int ocrMaxEdge, int previewMaxEdge) throws IOException {
+        ImageBounds bounds = readBounds(uri);
+        Bitmap ocrBitmap = decodeScaled(uri, bounds.width, bounds.height, ocrMaxEdge, bounds.orientation);
+        Bitmap previewBitmap;
+        try {
+            previewBitmap = decodeScaled(uri, bounds.width, bounds.height, previewMaxEdge, bounds.orientation);
+        } catch (IOException | RuntimeException e) {
+            bitmapPool.put(ocrBitmap);
+            throw e;
+        }
+        return new DecodedImage(ocrBitmap, previewBitmap, bounds.width, bounds.height);
+    }
+
+    private ImageBounds readBounds(Uri uri) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Unsupported image format");
+        }
+
+        int orientation;
+        try (InputStream in = open(uri)) {
+            orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        }
+        return new ImageBounds(bounds.outWidth, bounds.outHeight, orientation);
+    }
+
+    private Bitmap decodeScaled(Uri uri, int width, int height, int maxEdge, int orientation) throws IOException {
+        int longEdge = Math.max(width, height);
+        int sampleSize = 1;
+        while (longEdge / (sampleSize * 2) >= maxEdge) {
+            sampleSize *= 2;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        options.inMutable = true;
+        int sampledLongEdge = longEdge / sampleSize;
+        if (sampledLongEdge > maxEdge) {
+            // Finish the downscale inside the decoder rather than with a second full-size bitmap.
+            options.inScaled = true;
+            options.inDensity = sampledLongEdge;
+            options.inTargetDensity = maxEdge;
+        }
+        int expectedWidth = scaledSize(width / sampleSize, options);
+        int expectedHeight = scaledSize(height / sampleSize, options);
+        options.inBitmap = bitmapPool.get(expectedWidth, expectedHeight, Bitmap.Config.ARGB_8888);
+
+        Bitmap decoded;
+        try (InputStream in = open(uri)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        } catch (IllegalArgumentException e) {
+            // The pooled bitmap did not fit after all; decode into fresh memory.
+            bitmapPool.put(options.inBitmap);
+            options.inBitmap = null;
+            try (InputStream in = open(uri)) {
+                decoded = BitmapFactory.decodeStream(in, null, options);
+            }
+        }
+        if (decoded == null) {
+            throw new IOException("Failed to decode image");
+        }
+        if (options.inBitmap != null && options.inBitmap != decoded) {
+            bitmapPool.put(options.inBitmap);
+        }
+        return applyOrientation(decoded, orientation);
+    }
+
+    private static int scaledSize(int size, BitmapFactory.Options options) {
+        if (!options.inScaled || options.inDensity == 0) {
+            return size;
+        }
+        return (int) (size * (float) options.inTargetDensity / options.inDensity + 0.5f);
+    }
+
+    private Bitmap applyOrientation(Bitmap bitmap, int orientation) {
+        Matrix matrix = orientationMatrix(orientation, bitmap.getWidth(), bitmap.getHeight());
+        if (matrix == null) {
+            return bitmap;
+        }
+        RectF bounds = new RectF(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        matrix.mapRect(bounds);
+        int width = Math.round(bounds.width());
+        int height = Math.round(bounds.height());
+
+        // Draw into a mutable (poolable) bitmap instead of Bitmap.createBitmap's immutable copy.
+        Bitmap oriented = bitmapPool.get(width, height, Bitmap.Config.ARGB_8888);
+        if (oriented != null) {
+            oriented.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+        } else {
+            oriented = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        new Canvas(oriented).drawBitmap(bitmap, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+        bitmapPool.put(bitmap);
+        return oriented;
+    }
+
+    /** Maps a {@code width} x {@code height} raw image onto its upright form, or null if already upright. */
+    @Nullable
+    private static Matrix orientationMatrix(int orientation, int width, int height) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(270);
+                matrix.postScale(-1, 1);
+                break;
+            default:
+                return null;
+        }
+        RectF bounds = new RectF(0, 0, width, height);
+        matrix.mapRect(bounds);
+        matrix.postTranslate(-bounds.left, -bounds.top);
+        return matrix;
+    }
+
+    private InputStream open(Uri uri) throws IOException {
+        InputStream in = contentResolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Cannot open " + uri);
+        }
+        return in;
+    }
+}
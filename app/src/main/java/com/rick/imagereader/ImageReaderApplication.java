@@ -0,0 +1,15 @@
+package com.rick.imagereader;
+
+import android.app.Application;
+
+public class ImageReaderApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        CacheManager cacheManager = CacheManager.getInstance();
+        cacheManager.configure(this);
+        registerComponentCallbacks(cacheManager);
+        PowerAwareScheduler.getInstance(this);
+    }
+}
@@ -2,7 +2,10 @@ package com.rick.imagereader;
 
 import android.Manifest;
 import android.content.Context;
+import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.Rect;
 import android.net.Uri;
 import android.os.Bundle;
 import android.view.LayoutInflater;
@@ -10,52 +13,83 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.core.content.ContextCompat;
 import androidx.core.content.FileProvider;
 import androidx.fragment.app.Fragment;
 
-import com.google.mlkit.common.model.DownloadConditions;
-import com.google.mlkit.nl.languageid.LanguageIdentification;
+import com.google.android.gms.tasks.Task;
+import com.google.android.material.chip.Chip;
 import com.google.mlkit.nl.languageid.LanguageIdentifier;
 import com.google.mlkit.nl.translate.TranslateLanguage;
-import com.google.mlkit.nl.translate.Translation;
-import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
-import com.google.mlkit.vision.common.InputImage;
-import com.google.mlkit.vision.text.Text;
-import com.google.mlkit.vision.text.TextRecognition;
 import com.google.mlkit.vision.text.TextRecognizer;
-import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
+import com.rick.imagereader.core.BlockTranslations;
+import com.rick.imagereader.core.OcrScript;
+import com.rick.imagereader.core.RecognizedText;
+import com.rick.imagereader.core.ScriptDetector;
+import com.rick.imagereader.core.TextChunker;
+import com.rick.imagereader.core.TextSegmenter;
 import com.rick.imagereader.databinding.FragmentImageTranslationBinding;
+import com.rick.imagereader.databinding.ItemTargetResultBinding;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public class ImageTranslationFragment extends Fragment {
 
+    private static final String STATE_IMAGE_URI = "image_uri";
+
     private FragmentImageTranslationBinding binding;
 
     private ActivityResultLauncher<String> getContentLauncher;
+    private ActivityResultLauncher<String> getMultipleContentsLauncher;
+    private ActivityResultLauncher<String> getPdfLauncher;
     private ActivityResultLauncher<Uri> takePictureLauncher;
     private ActivityResultLauncher<String> requestPermissionLauncher;
 
-    private TextRecognizer textRecognizer;
-    private LanguageIdentifier languageIdentifier;
+    private EngineRegistry.Handle<TextRecognizer> textRecognizer;
+    private EngineRegistry.Handle<LanguageIdentifier> languageIdentifier;
+    private ImageDecodePipeline decodePipeline;
+    private OcrCache ocrCache;
+    private TiledTextRecognizer tiledRecognizer;
+    private ScriptAwareRecognizer scriptRecognizer;
 
     private Uri tempImageUri;
+    // The image on screen, reloaded after recreation; the OCR cache makes that skip recognition.
+    private Uri currentImageUri;
+    // Whether the image on screen was just taken with the camera; see OcrCache#lookup.
+    private boolean currentImageFromCamera;
+    private Bitmap previewBitmap;
+    // Size of the full-resolution image, and the size of the OCR bitmap its boxes are shown in.
+    private int sourceWidth;
+    private int sourceHeight;
+    private int sourceLongEdge;
+    private int ocrWidth;
+    private int ocrLongEdge;
+    // Script of the current image, reused when a region of it is recognized again.
+    private OcrScript currentScript = OcrScript.LATIN;
+    private boolean pendingLiveTranslation;
+    // Each new image or target language supersedes whatever is still running for the old one.
+    private final RequestGeneration generation = new RequestGeneration();
     private String lastRecognizedText = "";
+    private List<String> lastRecognizedBlocks = Collections.emptyList();
     private String identifiedLanguageCode = "";
     private Language currentTargetLanguage;
+    // Translated alongside the current target in the same pass, shown in cards below the result.
+    private List<String> extraTargetLanguages = new ArrayList<>();
+    private List<Language> allLanguages = Collections.emptyList();
 
     @Nullable
     @Override
@@ -68,55 +102,150 @@ public class ImageTranslationFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        textRecognizer = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
-        languageIdentifier = LanguageIdentification.getClient();
+        scriptRecognizer = ScriptAwareRecognizer.getInstance(requireContext());
+        // Keeps the likely recognizer loaded while this screen is open.
+        textRecognizer = EngineRegistry.getInstance().acquireTextRecognizer(scriptRecognizer.preferredScript());
+        languageIdentifier = EngineRegistry.getInstance().acquireLanguageIdentifier();
+        decodePipeline = ImageDecodePipeline.getInstance(requireContext());
+        ocrCache = OcrCache.getInstance(requireContext());
+        tiledRecognizer = new TiledTextRecognizer(requireContext());
 
         setupLaunchers();
         setupTargetLanguageSpinner();
+        extraTargetLanguages = LanguagePreferences.getExtraTargetLanguages(requireContext());
+        renderExtraTargetChips();
 
         binding.selectImageButton.setOnClickListener(v -> getContentLauncher.launch("image/*"));
         binding.takePictureButton.setOnClickListener(v -> checkCameraPermissionAndTakePicture());
+        binding.liveTranslateButton.setOnClickListener(v -> checkCameraPermissionAndStartLiveTranslation());
+        binding.batchTranslateButton.setOnClickListener(v -> getMultipleContentsLauncher.launch("image/*"));
+        binding.pdfTranslateButton.setOnClickListener(v -> getPdfLauncher.launch("application/pdf"));
+        binding.regionButton.setOnClickListener(v -> startRegionSelection());
+        binding.extraTargetsButton.setOnClickListener(v -> showExtraTargetsDialog());
+
+        Uri restoredImage = savedInstanceState != null ? savedInstanceState.getParcelable(STATE_IMAGE_URI) : null;
+        if (restoredImage != null) {
+            loadImage(restoredImage, false);
+        }
+    }
+
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putParcelable(STATE_IMAGE_URI, currentImageUri);
     }
 
     private void setupLaunchers() {
         getContentLauncher = registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
             if (uri != null) {
-                showImage(uri);
-                processImage(uri);
+                loadImage(uri, false);
+            }
+        });
+
+        getMultipleContentsLauncher = registerForActivityResult(new ActivityResultContracts.GetMultipleContents(), uris -> {
+            if (!uris.isEmpty() && currentTargetLanguage != null) {
+                startActivity(BatchTranslationActivity.newIntent(requireContext(), uris, currentTargetLanguage.code));
+            }
+        });
+
+        getPdfLauncher = registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
+            if (uri != null && currentTargetLanguage != null) {
+                startActivity(PdfTranslationActivity.newIntent(requireContext(), uri, currentTargetLanguage.code));
             }
         });
 
         takePictureLauncher = registerForActivityResult(new ActivityResultContracts.TakePicture(), success -> {
             if (success) {
-                showImage(tempImageUri);
-                processImage(tempImageUri);
+                loadImage(tempImageUri, true);
             }
         });
 
         requestPermissionLauncher = registerForActivityResult(new ActivityResultContracts.RequestPermission(), isGranted -> {
             if (isGranted) {
-                takePicture();
+                if (pendingLiveTranslation) {
+                    startLiveTranslation();
+                } else {
+                    takePicture();
+                }
             } else {
                 showToast("Camera permission is required to take pictures.");
             }
         });
     }
 
-    private void showImage(Uri uri) {
+    private void loadImage(Uri uri, boolean fromCamera) {
+        currentImageUri = uri;
+        currentImageFromCamera = fromCamera;
+        clearResults();
+        setProcessing(true);
+        RequestGeneration.Token token = generation.next();
+        int previewMaxEdge = getResources().getDisplayMetrics().widthPixels;
+        PipelineTracer.begin(PipelineTracer.STAGE_DECODE, null)
+                .endWhen(decodePipeline.decode(uri, previewMaxEdge))
+                .addOnSuccessListener(decoded -> {
+                    if (!token.isCurrent()) {
+                        releaseDecodedImage(decoded);
+                        return;
+                    }
+                    sourceWidth = decoded.sourceWidth;
+                    sourceHeight = decoded.sourceHeight;
+                    sourceLongEdge = Math.max(sourceWidth, sourceHeight);
+                    ocrWidth = decoded.ocrBitmap.getWidth();
+                    ocrLongEdge = Math.max(ocrWidth, decoded.ocrBitmap.getHeight());
+                    showImage(decoded.previewBitmap);
+                    processImage(decoded.ocrBitmap, token);
+                })
+                .addOnFailureListener(e -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    showToast("Error preparing image: " + e.getMessage());
+                    setProcessing(false);
+                });
+    }
+
+    private void releaseDecodedImage(ImageDecodePipeline.DecodedImage decoded) {
+        decodePipeline.release(decoded.ocrBitmap);
+        decodePipeline.release(decoded.previewBitmap);
+    }
+
+    private void showImage(Bitmap preview) {
         binding.emptyStateLayout.setVisibility(View.GONE);
         binding.imageView.setVisibility(View.VISIBLE);
-        binding.imageView.setImageURI(uri);
-        clearResults();
+        binding.imageView.setImageBitmap(preview);
+        binding.regionButton.setVisibility(View.VISIBLE);
+        // The view no longer draws the old preview, so its memory can back the next decode.
+        decodePipeline.release(previewBitmap);
+        previewBitmap = preview;
     }
 
     private void checkCameraPermissionAndTakePicture() {
         if (ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.CAMERA) == PackageManager.PERMISSION_GRANTED) {
             takePicture();
         } else {
+            pendingLiveTranslation = false;
             requestPermissionLauncher.launch(Manifest.permission.CAMERA);
         }
     }
 
+    private void checkCameraPermissionAndStartLiveTranslation() {
+        if (ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.CAMERA) == PackageManager.PERMISSION_GRANTED) {
+            startLiveTranslation();
+        } else {
+            pendingLiveTranslation = true;
+            requestPermissionLauncher.launch(Manifest.permission.CAMERA);
+        }
+    }
+
+    private void startLiveTranslation() {
+        pendingLiveTranslation = false;
+        Intent intent = new Intent(requireContext(), LiveTranslationActivity.class);
+        if (currentTargetLanguage != null) {
+            intent.putExtra(LiveTranslationActivity.EXTRA_TARGET_LANGUAGE, currentTargetLanguage.code);
+        }
+        startActivity(intent);
+    }
+
     private void takePicture() {
         tempImageUri = createImageUri();
         if (tempImageUri != null) {
@@ -136,14 +265,16 @@ public class ImageTranslationFragment extends Fragment {
             languages.add(new Language(code, new Locale(code).getDisplayLanguage()));
         }
         Collections.sort(languages, (l1, l2) -> l1.displayName.compareTo(l2.displayName));
+        allLanguages = languages;
 
         ArrayAdapter<Language> adapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_dropdown_item_1line, languages);
         AutoCompleteTextView textView = (AutoCompleteTextView) binding.targetLangMenu.getEditText();
 
         if (textView != null) {
             textView.setAdapter(adapter);
+            String savedTargetLanguage = LanguagePreferences.getTargetLanguage(requireContext());
             for (Language lang : languages) {
-                if (lang.code.equals("es")) {
+                if (lang.code.equals(savedTargetLanguage)) {
                     currentTargetLanguage = lang;
                     textView.setText(lang.displayName, false);
                     break;
@@ -152,97 +283,353 @@ public class ImageTranslationFragment extends Fragment {
 
             textView.setOnItemClickListener((parent, view, position, id) -> {
                 currentTargetLanguage = (Language) parent.getItemAtPosition(position);
+                LanguagePreferences.setTargetLanguage(requireContext(), currentTargetLanguage.code);
                 retranslateText();
             });
         }
     }
 
+    private void showExtraTargetsDialog() {
+        String[] names = new String[allLanguages.size()];
+        boolean[] checked = new boolean[allLanguages.size()];
+        for (int i = 0; i < allLanguages.size(); i++) {
+            names[i] = allLanguages.get(i).displayName;
+            checked[i] = extraTargetLanguages.contains(allLanguages.get(i).code);
+        }
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Also Translate To")
+                .setMultiChoiceItems(names, checked, (dialog, which, isChecked) -> checked[which] = isChecked)
+                .setPositiveButton("OK", (dialog, which) -> {
+                    // Keep the earlier picks in their order and append new ones.
+                    List<String> picked = new ArrayList<>();
+                    for (int i = 0; i < allLanguages.size(); i++) {
+                        if (checked[i]) {
+                            picked.add(allLanguages.get(i).code);
+                        }
+                    }
+                    List<String> updated = new ArrayList<>(extraTargetLanguages);
+                    updated.retainAll(picked);
+                    for (String code : picked) {
+                        if (!updated.contains(code)) {
+                            updated.add(code);
+                        }
+                    }
+                    setExtraTargetLanguages(updated);
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void setExtraTargetLanguages(List<String> languageCodes) {
+        extraTargetLanguages = languageCodes;
+        LanguagePreferences.setExtraTargetLanguages(requireContext(), languageCodes);
+        renderExtraTargetChips();
+        retranslateText();
+    }
+
+    private void renderExtraTargetChips() {
+        binding.extraTargetsChipGroup.removeAllViews();
+        for (String code : extraTargetLanguages) {
+            Chip chip = new Chip(requireContext());
+            chip.setText(new Locale(code).getDisplayLanguage());
+            chip.setCloseIconVisible(true);
+            chip.setOnCloseIconClickListener(v -> {
+                List<String> updated = new ArrayList<>(extraTargetLanguages);
+                updated.remove(code);
+                setExtraTargetLanguages(updated);
+            });
+            binding.extraTargetsChipGroup.addView(chip);
+        }
+    }
+
     private void retranslateText() {
         if (!lastRecognizedText.isEmpty() && !identifiedLanguageCode.isEmpty() && currentTargetLanguage != null) {
-            translateText(lastRecognizedText, identifiedLanguageCode, currentTargetLanguage.code);
+            translateText(lastRecognizedText, identifiedLanguageCode, currentTargetLanguage.code, generation.next());
         }
     }
 
     private void clearResults() {
         lastRecognizedText = "";
+        lastRecognizedBlocks = Collections.emptyList();
         identifiedLanguageCode = "";
         binding.translatedTextView.setText("");
+        binding.extraResultsContainer.removeAllViews();
+        binding.extraResultsScroll.setVisibility(View.GONE);
     }
 
-    private void processImage(Uri imageUri) {
+    private void processImage(Bitmap ocrBitmap, RequestGeneration.Token token) {
         setProcessing(true);
-        try {
-            InputImage image = InputImage.fromFilePath(requireContext(), imageUri);
-            textRecognizer.process(image)
-                    .addOnSuccessListener(visionText -> {
-                        lastRecognizedText = visionText.getText();
-                        if (!lastRecognizedText.isEmpty()) {
-                            identifyLanguageAndTranslate(lastRecognizedText);
-                        } else {
-                            binding.translatedTextView.setText("No text found in image.");
-                            setProcessing(false);
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        showToast("Error recognizing text: " + e.getMessage());
-                        setProcessing(false);
-                    });
-        } catch (IOException e) {
-            showToast("Error preparing image: " + e.getMessage());
+        ocrCache.lookup(ocrBitmap, currentImageFromCamera).addOnCompleteListener(lookup -> {
+            if (!token.isCurrent()) {
+                decodePipeline.release(ocrBitmap);
+                return;
+            }
+            OcrCache.Lookup result = lookup.isSuccessful() ? lookup.getResult() : null;
+            if (result != null && result.recognizedText != null) {
+                // Same image as before: skip recognition and go straight to translation.
+                int ocrWidth = ocrBitmap.getWidth();
+                decodePipeline.release(ocrBitmap);
+                OcrScript detected = ScriptDetector.detect(result.recognizedText.getText());
+                currentScript = detected != null ? detected : scriptRecognizer.preferredScript();
+                onTextRecognized(result.recognizedText, ocrWidth, token);
+            } else if (TiledTextRecognizer.shouldTile(sourceWidth, sourceHeight)) {
+                // Too much detail would be lost in the OCR bitmap; read the original tile by tile,
+                // with the script found on the small bitmap.
+                OcrCache.Fingerprint fingerprint = result != null ? result.fingerprint : null;
+                scriptRecognizer.detectScript(ocrBitmap).addOnCompleteListener(script -> {
+                    decodePipeline.release(ocrBitmap);
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    currentScript = script.isSuccessful() ? script.getResult() : scriptRecognizer.preferredScript();
+                    recognizeTiled(null, fingerprint, token);
+                });
+            } else {
+                recognizeText(ocrBitmap, result != null ? result.fingerprint : null, token);
+            }
+        });
+    }
+
+    private void startRegionSelection() {
+        if (currentImageUri == null || previewBitmap == null) {
+            return;
+        }
+        binding.imageView.setRegionSelection(region -> {
+            // Preview pixels to full-resolution pixels; both are the same upright image.
+            float scale = sourceLongEdge / (float) Math.max(previewBitmap.getWidth(), previewBitmap.getHeight());
+            Rect sourceRegion = new Rect(Math.round(region.left * scale), Math.round(region.top * scale),
+                    Math.round(region.right * scale), Math.round(region.bottom * scale));
+            RequestGeneration.Token token = generation.next();
+            clearResults();
+            setProcessing(true);
+            recognizeTiled(sourceRegion, null, token);
+        });
+        showToast("Drag over the text to translate.");
+    }
+
+    /**
+     * Recognizes {@code region} of the current image at full resolution, or all of it when null,
+     * and shows the result in OCR bitmap coordinates like any other recognition.
+     */
+    private void recognizeTiled(@Nullable Rect region, @Nullable OcrCache.Fingerprint fingerprint,
+                                RequestGeneration.Token token) {
+        double toOcr = ocrLongEdge / (double) sourceLongEdge;
+        int width = ocrWidth;
+        tiledRecognizer.recognize(currentImageUri, region, currentScript, token)
+                .addOnSuccessListener(sourceText -> {
+                    RecognizedText recognized = sourceText.transformed(toOcr, 0, 0);
+                    if (fingerprint != null) {
+                        ocrCache.put(fingerprint, recognized);
+                    }
+                    if (token.isCurrent()) {
+                        onTextRecognized(recognized, width, token);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    showToast("Error recognizing text: " + e.getMessage());
+                    setProcessing(false);
+                });
+    }
+
+    private void recognizeText(Bitmap ocrBitmap, @Nullable OcrCache.Fingerprint fingerprint,
+                               RequestGeneration.Token token) {
+        int ocrWidth = ocrBitmap.getWidth();
+        scriptRecognizer.recognize(ocrBitmap)
+                .addOnCompleteListener(task -> decodePipeline.release(ocrBitmap))
+                .addOnSuccessListener(result -> {
+                    RecognizedText recognized = result.recognizedText;
+                    currentScript = result.script;
+                    if (fingerprint != null) {
+                        ocrCache.put(fingerprint, recognized);
+                    }
+                    if (token.isCurrent()) {
+                        onTextRecognized(recognized, ocrWidth, token);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    showToast("Error recognizing text: " + e.getMessage());
+                    setProcessing(false);
+                });
+    }
+
+    private void onTextRecognized(RecognizedText recognized, int ocrWidth, RequestGeneration.Token token) {
+        lastRecognizedText = recognized.getText();
+        List<RecognizedText.Block> blocks = recognized.blocksInReadingOrder();
+        lastRecognizedBlocks = blockTexts(blocks);
+        binding.imageView.setBlocks(blocks, ocrWidth);
+        if (!lastRecognizedText.isEmpty()) {
+            identifyLanguageAndTranslate(lastRecognizedText, token);
+        } else {
+            binding.translatedTextView.setText("No text found in image.");
             setProcessing(false);
         }
     }
 
-    private void identifyLanguageAndTranslate(String text) {
-        languageIdentifier.identifyLanguage(text)
+    // One entry per block, index-aligned with the overlay's labels.
+    private static List<String> blockTexts(List<RecognizedText.Block> blocks) {
+        List<String> texts = new ArrayList<>(blocks.size());
+        for (RecognizedText.Block block : blocks) {
+            texts.add(block.getText());
+        }
+        return texts;
+    }
+
+    private void identifyLanguageAndTranslate(String text, RequestGeneration.Token token) {
+        EngineRegistry.getInstance().identifyLanguage(text)
                 .addOnSuccessListener(languageCode -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
                     if (languageCode.equals("und")) {
                         showToast("Could not identify language from text.");
                         setProcessing(false);
                     } else {
                         identifiedLanguageCode = languageCode;
+                        LanguagePreferences.setSourceLanguage(requireContext(), languageCode);
                         if (currentTargetLanguage != null) {
-                            translateText(text, identifiedLanguageCode, currentTargetLanguage.code);
+                            translateText(text, identifiedLanguageCode, currentTargetLanguage.code, token);
                         }
                     }
                 })
                 .addOnFailureListener(e -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
                     showToast("Language identification failed: " + e.getMessage());
                     setProcessing(false);
                 });
     }
 
-    private void translateText(String text, String sourceLang, String targetLang) {
+    private void translateText(String text, String sourceLang, String targetLang, RequestGeneration.Token token) {
         setProcessing(true);
         String targetLangName = new Locale(targetLang).getDisplayLanguage();
-        binding.translatedTextView.setText("Downloading " + targetLangName + " model...");
-
-        TranslatorOptions options = new TranslatorOptions.Builder()
-                .setSourceLanguage(sourceLang)
-                .setTargetLanguage(targetLang)
-                .build();
-        Translator translator = Translation.getClient(options);
-
-        DownloadConditions conditions = new DownloadConditions.Builder().requireWifi().build();
-        translator.downloadModelIfNeeded(conditions)
-                .addOnSuccessListener(v -> translator.translate(text)
-                        .addOnSuccessListener(translatedText -> {
-                            binding.translatedTextView.setText(translatedText);
-                            setProcessing(false);
-                            translator.close();
-                        })
-                        .addOnFailureListener(e -> {
-                            showToast("Translation failed: " + e.getMessage());
-                            setProcessing(false);
-                            translator.close();
-                        }))
+        TranslationService.DownloadListener downloadListener = () -> {
+            if (token.isCurrent()) {
+                binding.translatedTextView.setText("Downloading " + targetLangName + " model...");
+            }
+        };
+
+        // Long blocks are split into bounded chunks that translate in parallel; the switch only
+        // decides whether the reader sees them arrive or waits for the whole text.
+        boolean showPartial = binding.streamBlocksSwitch.isChecked();
+        // Each block is painted over the image as soon as its own chunks are in. Labels from the
+        // previous target language stay up until their replacement arrives.
+        List<String> blocks = lastRecognizedBlocks;
+        BlockTranslations blockTranslations = new BlockTranslations(blocks, new Locale(sourceLang),
+                (blockIndex, translation) -> {
+                    if (token.isCurrent()) {
+                        binding.imageView.setBlockTranslation(blockIndex, translation);
+                    }
+                });
+        List<TextSegmenter.Segment> segments = blocks.isEmpty()
+                ? TextChunker.chunk(text, new Locale(sourceLang)) : blockTranslations.getSegments();
+        StreamingTranslator.Listener primaryListener = new StreamingTranslator.Listener() {
+            @Override
+            public void onPartialResult(@NonNull String translatedSoFar, int completed, int total) {
+                if (showPartial && token.isCurrent()) {
+                    binding.translatedTextView.setText(translatedSoFar);
+                }
+            }
+
+            @Override
+            public void onSegmentTranslated(int index, @NonNull String source, @NonNull String translated) {
+                if (!blocks.isEmpty()) {
+                    blockTranslations.onSegmentTranslated(index, translated);
+                }
+            }
+        };
+
+        // OCR and language ID already ran once; every extra target reuses the same chunks and
+        // fans out next to the one on screen.
+        List<String> targets = new ArrayList<>();
+        targets.add(targetLang);
+        for (String extra : extraTargetLanguages) {
+            if (!targets.contains(extra)) {
+                targets.add(extra);
+            }
+        }
+        Map<String, TextView> extraViews = showExtraResultCards(targets.subList(1, targets.size()));
+        Map<String, Task<String>> translations = new MultiTargetTranslator(requireContext()).translate(
+                segments, sourceLang, targets, token, new MultiTargetTranslator.Callbacks() {
+                    @NonNull
+                    @Override
+                    public StreamingTranslator.Listener listenerFor(@NonNull String target) {
+                        if (target.equals(targetLang)) {
+                            return primaryListener;
+                        }
+                        TextView view = extraViews.get(target);
+                        return (translatedSoFar, completed, total) -> {
+                            if (showPartial && token.isCurrent()) {
+                                view.setText(translatedSoFar);
+                            }
+                        };
+                    }
+
+                    @Nullable
+                    @Override
+                    public TranslationService.DownloadListener downloadListenerFor(@NonNull String target) {
+                        if (target.equals(targetLang)) {
+                            return downloadListener;
+                        }
+                        TextView view = extraViews.get(target);
+                        return () -> {
+                            if (token.isCurrent()) {
+                                view.setText("Downloading " + new Locale(target).getDisplayLanguage() + " model...");
+                            }
+                        };
+                    }
+                });
+        for (Map.Entry<String, TextView> extra : extraViews.entrySet()) {
+            TextView view = extra.getValue();
+            translations.get(extra.getKey())
+                    .addOnSuccessListener(translatedText -> {
+                        if (token.isCurrent()) {
+                            view.setText(translatedText);
+                        }
+                    })
+                    .addOnFailureListener(e -> {
+                        if (token.isCurrent()) {
+                            view.setText("Translation failed: " + e.getMessage());
+                        }
+                    });
+        }
+        translations.get(targetLang)
+                .addOnSuccessListener(translatedText -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    binding.translatedTextView.setText(translatedText);
+                    setProcessing(false);
+                })
                 .addOnFailureListener(e -> {
-                    showToast("Model download failed: " + e.getMessage());
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    showToast("Translation failed: " + e.getMessage());
                     setProcessing(false);
-                    translator.close();
                 });
     }
 
+    private Map<String, TextView> showExtraResultCards(List<String> targets) {
+        binding.extraResultsContainer.removeAllViews();
+        binding.extraResultsScroll.setVisibility(targets.isEmpty() ? View.GONE : View.VISIBLE);
+        Map<String, TextView> views = new HashMap<>();
+        for (String target : targets) {
+            ItemTargetResultBinding card = ItemTargetResultBinding.inflate(getLayoutInflater(),
+                    binding.extraResultsContainer, true);
+            card.targetLanguageTextView.setText(new Locale(target).getDisplayLanguage());
+            card.targetResultTextView.setText("Translating...");
+            views.put(target, card.targetResultTextView);
+        }
+        return views;
+    }
+
     private void setProcessing(boolean isProcessing) {
         // This should be handled by the parent activity now
         MainActivity activity = (MainActivity) getActivity();
@@ -258,6 +645,12 @@ public class ImageTranslationFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        generation.cancelAll();
+        textRecognizer.close();
+        languageIdentifier.close();
+        binding.imageView.setImageBitmap(null);
+        decodePipeline.release(previewBitmap);
+        previewBitmap = null;
         binding = null; // Important for fragment memory management
     }
 }
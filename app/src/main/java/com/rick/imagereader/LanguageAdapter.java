@@ -18,15 +18,19 @@ public class LanguageAdapter extends RecyclerView.Adapter<LanguageAdapter.Langua
     public interface OnItemClickListener {
         void onDownloadClick(Language language);
         void onDeleteClick(Language language);
+        void onPinClick(Language language, boolean pinned);
     }
 
     private final List<Language> languages;
     private final Set<String> downloadedLanguages;
+    private final Set<String> pinnedLanguages;
     private final OnItemClickListener listener;
 
-    public LanguageAdapter(List<Language> languages, Set<String> downloadedLanguages, OnItemClickListener listener) {
+    public LanguageAdapter(List<Language> languages, Set<String> downloadedLanguages, Set<String> pinnedLanguages,
+                           OnItemClickListener listener) {
         this.languages = languages;
         this.downloadedLanguages = downloadedLanguages;
+        this.pinnedLanguages = pinnedLanguages;
         this.listener = listener;
     }
 
@@ -40,7 +44,8 @@ public class LanguageAdapter extends RecyclerView.Adapter<LanguageAdapter.Langua
     @Override
     public void onBindViewHolder(@NonNull LanguageViewHolder holder, int position) {
         Language language = languages.get(position);
-        holder.bind(language, downloadedLanguages.contains(language.code), listener);
+        holder.bind(language, downloadedLanguages.contains(language.code), pinnedLanguages.contains(language.code),
+                listener);
     }
 
     @Override
@@ -51,15 +56,23 @@ public class LanguageAdapter extends RecyclerView.Adapter<LanguageAdapter.Langua
     static class LanguageViewHolder extends RecyclerView.ViewHolder {
         private final TextView languageNameTextView;
         private final ImageButton actionButton;
+        private final ImageButton pinButton;
 
         public LanguageViewHolder(@NonNull View itemView) {
             super(itemView);
             languageNameTextView = itemView.findViewById(R.id.languageNameTextView);
             actionButton = itemView.findViewById(R.id.actionButton);
+            pinButton = itemView.findViewById(R.id.pinButton);
         }
 
-        public void bind(final Language language, boolean isDownloaded, final OnItemClickListener listener) {
+        public void bind(final Language language, boolean isDownloaded, boolean isPinned,
+                         final OnItemClickListener listener) {
             languageNameTextView.setText(language.displayName);
+            // Pinned models are never removed to stay within the storage quota.
+            pinButton.setVisibility(isDownloaded ? View.VISIBLE : View.GONE);
+            pinButton.setImageResource(isPinned ? android.R.drawable.btn_star_big_on
+                    : android.R.drawable.btn_star_big_off);
+            pinButton.setOnClickListener(v -> listener.onPinClick(language, !isPinned));
             if (isDownloaded) {
                 actionButton.setImageResource(android.R.drawable.ic_menu_delete);
                 actionButton.setOnClickListener(v -> listener.onDeleteClick(language));
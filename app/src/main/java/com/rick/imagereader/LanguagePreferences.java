@@ -0,0 +1,60 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+
+import com.google.mlkit.nl.translate.TranslateLanguage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class LanguagePreferences {
+
+    public static final String DEFAULT_TARGET_LANGUAGE = "es";
+
+    private static final String PREFS_NAME = "language_prefs";
+    private static final String KEY_TARGET_LANGUAGE = "target_language";
+    private static final String KEY_SOURCE_LANGUAGE = "source_language";
+    private static final String KEY_EXTRA_TARGET_LANGUAGES = "extra_target_languages";
+
+    private LanguagePreferences() {
+    }
+
+    @NonNull
+    public static String getTargetLanguage(@NonNull Context context) {
+        return prefs(context).getString(KEY_TARGET_LANGUAGE, DEFAULT_TARGET_LANGUAGE);
+    }
+
+    public static void setTargetLanguage(@NonNull Context context, @NonNull String languageCode) {
+        prefs(context).edit().putString(KEY_TARGET_LANGUAGE, languageCode).apply();
+    }
+
+    /** The most recently identified source language, used to pre-warm that translator. */
+    @NonNull
+    public static String getSourceLanguage(@NonNull Context context) {
+        return prefs(context).getString(KEY_SOURCE_LANGUAGE, TranslateLanguage.ENGLISH);
+    }
+
+    public static void setSourceLanguage(@NonNull Context context, @NonNull String languageCode) {
+        prefs(context).edit().putString(KEY_SOURCE_LANGUAGE, languageCode).apply();
+    }
+
+    /** Languages translated alongside the target language, in the order they were picked. */
+    @NonNull
+    public static List<String> getExtraTargetLanguages(@NonNull Context context) {
+        String stored = prefs(context).getString(KEY_EXTRA_TARGET_LANGUAGES, "");
+        return stored.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(stored.split(",")));
+    }
+
+    public static void setExtraTargetLanguages(@NonNull Context context, @NonNull List<String> languageCodes) {
+        prefs(context).edit().putString(KEY_EXTRA_TARGET_LANGUAGES, TextUtils.join(",", languageCodes)).apply();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
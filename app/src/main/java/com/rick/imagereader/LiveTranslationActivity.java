@@ -0,0 +1,171 @@
+package com.rick.imagereader;
+
+import android.media.Image;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Size;
+import android.widget.Toast;
+
+import androidx.annotation.OptIn;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.camera.core.CameraSelector;
+import androidx.camera.core.ExperimentalGetImage;
+import androidx.camera.core.ImageAnalysis;
+import androidx.camera.core.ImageProxy;
+import androidx.camera.core.Preview;
+import androidx.camera.core.resolutionselector.ResolutionSelector;
+import androidx.camera.core.resolutionselector.ResolutionStrategy;
+import androidx.camera.lifecycle.ProcessCameraProvider;
+import androidx.core.content.ContextCompat;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.mlkit.nl.languageid.LanguageIdentifier;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.text.TextRecognizer;
+import com.rick.imagereader.databinding.ActivityLiveTranslationBinding;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Continuous camera translation. The analyzer keeps only the latest frame and holds it until OCR
+ * finishes, so at most one frame is in flight and stale frames are dropped rather than queued.
+ * While the device is throttled, frames arriving sooner than the power budget's frame interval
+ * after the last analyzed one are dropped too.
+ */
+public class LiveTranslationActivity extends AppCompatActivity {
+
+    public static final String EXTRA_TARGET_LANGUAGE = "com.rick.imagereader.TARGET_LANGUAGE";
+
+    private static final long TRANSLATE_DEBOUNCE_MS = 400;
+    private static final Size ANALYSIS_SIZE = new Size(1280, 720);
+
+    private ActivityLiveTranslationBinding binding;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final ExecutorService analysisExecutor = Executors.newSingleThreadExecutor();
+
+    private EngineRegistry.Handle<TextRecognizer> textRecognizer;
+    private EngineRegistry.Handle<LanguageIdentifier> languageIdentifier;
+    private String targetLanguageCode;
+    private PowerAwareScheduler powerScheduler;
+    // Only touched on analysisExecutor.
+    private long lastAnalyzedAt;
+
+    private String lastRecognizedText = "";
+    private String lastTranslatedText = "";
+    private final Runnable pendingTranslation = this::translateLatest;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityLiveTranslationBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        targetLanguageCode = getIntent().getStringExtra(EXTRA_TARGET_LANGUAGE);
+        if (targetLanguageCode == null) {
+            targetLanguageCode = LanguagePreferences.getTargetLanguage(this);
+        }
+
+        // Probing every frame would cost too much; frames use the script of recent images.
+        textRecognizer = EngineRegistry.getInstance().acquireTextRecognizer(
+                ScriptAwareRecognizer.getInstance(this).preferredScript());
+        languageIdentifier = EngineRegistry.getInstance().acquireLanguageIdentifier();
+        powerScheduler = PowerAwareScheduler.getInstance(this);
+
+        startCamera();
+    }
+
+    private void startCamera() {
+        ListenableFuture<ProcessCameraProvider> providerFuture = ProcessCameraProvider.getInstance(this);
+        providerFuture.addListener(() -> {
+            ProcessCameraProvider cameraProvider;
+            try {
+                cameraProvider = providerFuture.get();
+            } catch (Exception e) {
+                showToast("Camera unavailable: " + e.getMessage());
+                finish();
+                return;
+            }
+
+            Preview preview = new Preview.Builder().build();
+            preview.setSurfaceProvider(binding.previewView.getSurfaceProvider());
+
+            ResolutionSelector resolutionSelector = new ResolutionSelector.Builder()
+                    .setResolutionStrategy(new ResolutionStrategy(ANALYSIS_SIZE,
+                            ResolutionStrategy.FALLBACK_RULE_CLOSEST_HIGHER_THEN_LOWER))
+                    .build();
+            ImageAnalysis analysis = new ImageAnalysis.Builder()
+                    .setResolutionSelector(resolutionSelector)
+                    .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
+                    .build();
+            analysis.setAnalyzer(analysisExecutor, this::analyzeFrame);
+
+            cameraProvider.unbindAll();
+            cameraProvider.bindToLifecycle(this, CameraSelector.DEFAULT_BACK_CAMERA, preview, analysis);
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    @OptIn(markerClass = ExperimentalGetImage.class)
+    private void analyzeFrame(ImageProxy imageProxy) {
+        Image mediaImage = imageProxy.getImage();
+        long now = SystemClock.elapsedRealtime();
+        if (mediaImage == null || now - lastAnalyzedAt < powerScheduler.getBudget().frameIntervalMs()) {
+            imageProxy.close();
+            return;
+        }
+        lastAnalyzedAt = now;
+        InputImage image = InputImage.fromMediaImage(mediaImage, imageProxy.getImageInfo().getRotationDegrees());
+        // Closing the proxy only after OCR is what lets CameraX drop frames while we are busy.
+        textRecognizer.get().process(image)
+                .addOnSuccessListener(visionText -> onTextRecognized(visionText.getText()))
+                .addOnCompleteListener(task -> imageProxy.close());
+    }
+
+    private void onTextRecognized(String text) {
+        String normalized = TranslationCache.normalize(text);
+        if (normalized.equals(lastRecognizedText)) {
+            return;
+        }
+        lastRecognizedText = normalized;
+        handler.removeCallbacks(pendingTranslation);
+        if (!normalized.isEmpty()) {
+            handler.postDelayed(pendingTranslation, TRANSLATE_DEBOUNCE_MS);
+        }
+    }
+
+    private void translateLatest() {
+        String text = lastRecognizedText;
+        EngineRegistry.getInstance().identifyLanguage(text)
+                .onSuccessTask(languageCode -> {
+                    if (languageCode.equals("und") || languageCode.equals(targetLanguageCode)) {
+                        return Tasks.forResult(text);
+                    }
+                    return TranslationService.getInstance(this).translate(text, languageCode, targetLanguageCode, null);
+                })
+                .addOnSuccessListener(translatedText -> {
+                    // A newer frame may have changed the text while this one was translating.
+                    if (binding == null || !text.equals(lastRecognizedText) || translatedText.equals(lastTranslatedText)) {
+                        return;
+                    }
+                    lastTranslatedText = translatedText;
+                    binding.liveTranslatedTextView.setText(translatedText);
+                });
+    }
+
+    private void showToast(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacks(pendingTranslation);
+        analysisExecutor.shutdown();
+        textRecognizer.close();
+        languageIdentifier.close();
+        binding = null;
+    }
+}
@@ -1,13 +1,16 @@
 package com.rick.imagereader;
 
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 
 import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.viewpager2.widget.ViewPager2;
 
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
@@ -30,8 +33,10 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        StartupTimer startupTimer = StartupTimer.begin(StartupTimer.ENTRY_MAIN);
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
+        startupTimer.watchFirstFrame(binding.getRoot());
 
         setSupportActionBar(findViewById(R.id.toolbar));
 
@@ -51,6 +56,19 @@ public class MainActivity extends AppCompatActivity {
                     }
                 }
         ).attach();
+
+        binding.viewPager.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+                EngineWarmup.warmForTab(MainActivity.this, position);
+            }
+        });
+
+        // Picks up model downloads that were still queued when the process last died.
+        ModelDownloadScheduler.getInstance(this);
+
+        // Let the first frame draw before loading models in the background.
+        binding.getRoot().post(() -> EngineWarmup.warmAll(this));
     }
 
     public void setProcessing(boolean isProcessing) {
@@ -68,6 +86,9 @@ public class MainActivity extends AppCompatActivity {
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.main_menu, menu);
+        // The metrics screen is for tuning on test devices only.
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        menu.findItem(R.id.action_metrics).setVisible(debuggable);
         return true;
     }
 
@@ -76,7 +97,34 @@ public class MainActivity extends AppCompatActivity {
         if (item.getItemId() == R.id.action_manage_models) {
             startActivity(new Intent(this, ManageModelsActivity.class));
             return true;
+        } else if (item.getItemId() == R.id.action_metrics) {
+            startActivity(new Intent(this, MetricsActivity.class));
+            return true;
+        } else if (item.getItemId() == R.id.action_translation_memory) {
+            showTranslationMemoryDialog();
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
+
+    private void showTranslationMemoryDialog() {
+        TranslationMemoryStore memory = TranslationMemoryStore.getInstance(this);
+        String[] labels = {"Exact repeats only", "Strict (95% similar)", "Balanced (85% similar)", "Loose (75% similar)"};
+        float[] values = {TranslationMemoryStore.THRESHOLD_OFF, 0.95f, TranslationMemoryStore.DEFAULT_THRESHOLD, 0.75f};
+        int checked = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == memory.getSimilarityThreshold()) {
+                checked = i;
+            }
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Reuse Past Translations")
+                .setSingleChoiceItems(labels, checked, (dialog, which) -> {
+                    dialog.dismiss();
+                    memory.setSimilarityThreshold(values[which]);
+                })
+                .setNeutralButton("Forget All", (dialog, which) -> memory.clear())
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
 }
\ No newline at end of file
@@ -1,33 +1,34 @@
 package com.rick.imagereader;
 
 import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.DividerItemDecoration;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
-import com.google.mlkit.common.model.DownloadConditions;
-import com.google.mlkit.common.model.RemoteModelManager;
 import com.google.mlkit.nl.translate.TranslateLanguage;
-import com.google.mlkit.nl.translate.TranslateRemoteModel;
-import com.google.mlkit.nl.translate.Translation;
-import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
 import com.rick.imagereader.databinding.ActivityManageModelsBinding;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
-public class ManageModelsActivity extends AppCompatActivity implements LanguageAdapter.OnItemClickListener {
+public class ManageModelsActivity extends AppCompatActivity
+        implements LanguageAdapter.OnItemClickListener, ModelDownloadScheduler.Listener {
 
     private ActivityManageModelsBinding binding;
     private LanguageAdapter adapter;
+    private ModelManager modelManager;
+    private ModelDownloadScheduler downloadScheduler;
+    private ModelStorageManager storageManager;
+    private Set<String> downloadedLangCodes = Collections.emptySet();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -46,65 +47,124 @@ public class ManageModelsActivity extends AppCompatActivity implements LanguageA
                 layoutManager.getOrientation());
         binding.recyclerView.addItemDecoration(dividerItemDecoration);
 
+        modelManager = new MlKitModelManager();
+        downloadScheduler = ModelDownloadScheduler.getInstance(this);
+        storageManager = ModelStorageManager.getInstance(this);
         loadLanguages();
 
         binding.downloadAllButton.setOnClickListener(v -> showDownloadAllConfirmation());
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        downloadScheduler.addListener(this);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        downloadScheduler.removeListener(this);
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.manage_models_menu, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == R.id.action_storage_quota) {
+            showStorageQuotaDialog();
+            return true;
+        } else if (item.getItemId() == R.id.action_model_quota) {
+            showModelQuotaDialog();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private void showStorageQuotaDialog() {
+        String[] labels = {"Unlimited", "500 MB", "1 GB", "2 GB"};
+        long[] values = {ModelStorageManager.UNLIMITED_BYTES, 500L << 20, 1L << 30, 2L << 30};
+        int checked = indexOf(values, storageManager.getMaxBytes());
+        new AlertDialog.Builder(this)
+                .setTitle("Storage Limit")
+                .setSingleChoiceItems(labels, checked, (dialog, which) -> {
+                    dialog.dismiss();
+                    storageManager.setQuota(values[which], storageManager.getMaxModels());
+                    applyQuota();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showModelQuotaDialog() {
+        String[] labels = {"Unlimited", "3 models", "5 models", "10 models", "20 models"};
+        long[] values = {ModelStorageManager.UNLIMITED_MODELS, 3, 5, 10, 20};
+        int checked = indexOf(values, storageManager.getMaxModels());
+        new AlertDialog.Builder(this)
+                .setTitle("Model Limit")
+                .setSingleChoiceItems(labels, checked, (dialog, which) -> {
+                    dialog.dismiss();
+                    storageManager.setQuota(storageManager.getMaxBytes(), (int) values[which]);
+                    applyQuota();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private static int indexOf(long[] values, long value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void applyQuota() {
+        storageManager.enforceQuota()
+                .addOnSuccessListener(evicted -> {
+                    if (!evicted.isEmpty()) {
+                        showToast("Removed " + evicted.size() + " least recently used model(s).");
+                    }
+                    loadLanguages(); // Refresh the list
+                })
+                .addOnFailureListener(e -> showToast("Could not apply limit: " + e.getMessage()));
+    }
+
     private void showDownloadAllConfirmation() {
+        String message = "This will download all 59 language models. This can be a very large download (over 2.5 GB) and will use a lot of data and storage.";
+        int budget = storageManager.getModelBudget();
+        if (budget < TranslateLanguage.getAllLanguages().size()) {
+            message += " Your limit keeps " + budget + " models, so the least recently used ones will be removed as new ones arrive.";
+        }
         new AlertDialog.Builder(this)
                 .setTitle("Download All Models")
-                .setMessage("This will download all 59 language models. This can be a very large download (over 2.5 GB) and will use a lot of data and storage. Do you want to proceed?")
+                .setMessage(message + " Do you want to proceed?")
                 .setPositiveButton("Yes", (dialog, which) -> downloadAllModels())
                 .setNegativeButton("No", null)
                 .show();
     }
 
     private void downloadAllModels() {
-        showToast("Starting download for all models...");
-        binding.downloadAllButton.setEnabled(false); // Disable button during process
-
-        List<String> allLanguageCodes = TranslateLanguage.getAllLanguages();
-        final int[] downloadsCompleted = {0};
-        final int totalDownloads = allLanguageCodes.size();
-
-        DownloadConditions conditions = new DownloadConditions.Builder().requireWifi().build();
-
-        for (String code : allLanguageCodes) {
-            TranslatorOptions options = new TranslatorOptions.Builder()
-                    .setSourceLanguage(TranslateLanguage.ENGLISH)
-                    .setTargetLanguage(code)
-                    .build();
-            Translator translator = Translation.getClient(options);
-
-            translator.downloadModelIfNeeded(conditions)
-                    .addOnSuccessListener(v -> {
-                        downloadsCompleted[0]++;
-                        if (downloadsCompleted[0] == totalDownloads) {
-                            showToast("All model downloads attempted.");
-                            binding.downloadAllButton.setEnabled(true);
-                            loadLanguages(); // Refresh list after all attempts
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        downloadsCompleted[0]++;
-                        showToast("Failed to download " + new Locale(code).getDisplayLanguage() + ": " + e.getMessage());
-                        if (downloadsCompleted[0] == totalDownloads) {
-                            showToast("All model downloads attempted (some may have failed).");
-                            binding.downloadAllButton.setEnabled(true);
-                            loadLanguages(); // Refresh list after all attempts
-                        }
-                    });
+        showToast("Queued download for all models...");
+        List<String> allLanguageCodes = new ArrayList<>(TranslateLanguage.getAllLanguages());
+        allLanguageCodes.removeAll(downloadedLangCodes);
+        // The language the user is currently translating into goes first.
+        String targetLanguage = LanguagePreferences.getTargetLanguage(this);
+        if (allLanguageCodes.remove(targetLanguage)) {
+            downloadScheduler.enqueue(targetLanguage, ModelDownloadScheduler.PRIORITY_TARGET_LANGUAGE);
         }
+        downloadScheduler.enqueueAll(allLanguageCodes, ModelDownloadScheduler.PRIORITY_BACKGROUND);
     }
 
     private void loadLanguages() {
-        RemoteModelManager.getInstance().getDownloadedModels(TranslateRemoteModel.class)
-                .addOnSuccessListener(downloadedModels -> {
-                    Set<String> downloadedLangCodes = new HashSet<>();
-                    for (TranslateRemoteModel model : downloadedModels) {
-                        downloadedLangCodes.add(model.getLanguage());
-                    }
+        modelManager.getDownloadedLanguages()
+                .addOnSuccessListener(downloaded -> {
+                    downloadedLangCodes = downloaded;
 
                     List<Language> languages = new ArrayList<>();
                     List<String> allLanguageCodes = TranslateLanguage.getAllLanguages();
@@ -114,7 +174,8 @@ public class ManageModelsActivity extends AppCompatActivity implements LanguageA
                     }
                     Collections.sort(languages, (l1, l2) -> l1.displayName.compareTo(l2.displayName));
 
-                    adapter = new LanguageAdapter(languages, downloadedLangCodes, this);
+                    adapter = new LanguageAdapter(languages, downloadedLangCodes,
+                            storageManager.getPinnedLanguages(), this);
                     binding.recyclerView.setAdapter(adapter);
                 })
                 .addOnFailureListener(e -> showToast("Failed to get downloaded models: " + e.getMessage()));
@@ -123,28 +184,14 @@ public class ManageModelsActivity extends AppCompatActivity implements LanguageA
     @Override
     public void onDownloadClick(Language language) {
         showToast("Downloading " + language.displayName + " model...");
-        TranslatorOptions options = new TranslatorOptions.Builder()
-                .setSourceLanguage(TranslateLanguage.ENGLISH) // Source is arbitrary for model download
-                .setTargetLanguage(language.code)
-                .build();
-        Translator translator = Translation.getClient(options);
-
-        DownloadConditions conditions = new DownloadConditions.Builder().requireWifi().build();
-        translator.downloadModelIfNeeded(conditions)
-                .addOnSuccessListener(v -> {
-                    showToast(language.displayName + " model downloaded.");
-                    loadLanguages(); // Refresh the list
-                })
-                .addOnFailureListener(e -> showToast("Model download failed: " + e.getMessage()));
+        downloadScheduler.enqueue(language.code, ModelDownloadScheduler.PRIORITY_USER_REQUEST);
     }
 
     @Override
     public void onDeleteClick(Language language) {
         showToast("Deleting " + language.displayName + " model...");
 
-        TranslateRemoteModel modelToDelete = new TranslateRemoteModel.Builder(language.code).build();
-
-        RemoteModelManager.getInstance().deleteDownloadedModel(modelToDelete)
+        modelManager.delete(language.code)
                 .addOnSuccessListener(v -> {
                     showToast(language.displayName + " model deleted.");
                     loadLanguages(); // Refresh the list
@@ -152,6 +199,44 @@ public class ManageModelsActivity extends AppCompatActivity implements LanguageA
                 .addOnFailureListener(e -> showToast("Model deletion failed: " + e.getMessage()));
     }
 
+    @Override
+    public void onPinClick(Language language, boolean pinned) {
+        storageManager.setPinned(language.code, pinned);
+        showToast(pinned ? language.displayName + " will always be kept."
+                : language.displayName + " can be removed to save space.");
+        loadLanguages(); // Refresh the list
+    }
+
+    @Override
+    public void onProgress(@NonNull ModelDownloadScheduler.Progress progress) {
+        if (progress.isIdle()) {
+            binding.downloadAllButton.setEnabled(true);
+            binding.downloadAllButton.setText("Download All Models");
+            if (progress.total > 1) {
+                showToast(progress.failed == 0
+                        ? "All model downloads finished."
+                        : "Model downloads finished (" + progress.failed + " failed).");
+            }
+        } else if (progress.paused && progress.running == 0) {
+            binding.downloadAllButton.setEnabled(false);
+            binding.downloadAllButton.setText("Paused until the device cools down or charges");
+        } else {
+            binding.downloadAllButton.setEnabled(false);
+            binding.downloadAllButton.setText("Downloading " + (progress.completed + progress.failed + 1)
+                    + " of " + progress.total + "...");
+        }
+    }
+
+    @Override
+    public void onModelDownloaded(@NonNull String languageCode) {
+        loadLanguages(); // Refresh the list
+    }
+
+    @Override
+    public void onModelFailed(@NonNull String languageCode, @NonNull Exception error) {
+        showToast("Failed to download " + new Locale(languageCode).getDisplayLanguage() + ": " + error.getMessage());
+    }
+
     private void showToast(String message) {
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
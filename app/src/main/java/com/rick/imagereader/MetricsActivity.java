@@ -0,0 +1,113 @@
+package com.rick.imagereader;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.util.Log;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.rick.imagereader.core.AdaptiveBudget;
+import com.rick.imagereader.core.CacheBudget;
+import com.rick.imagereader.databinding.ActivityMetricsBinding;
+
+import org.json.JSONException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/** Debug-only dashboard of per-stage latency percentiles and pipeline counters. */
+public class MetricsActivity extends AppCompatActivity {
+
+    private static final String TAG = "MetricsActivity";
+
+    private ActivityMetricsBinding binding;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityMetricsBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        setSupportActionBar(binding.metricsToolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        binding.resetMetricsButton.setOnClickListener(v -> {
+            PipelineMetrics.getInstance().reset();
+            render();
+        });
+        binding.exportMetricsButton.setOnClickListener(v -> exportJson());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        render();
+    }
+
+    private void render() {
+        PipelineMetrics metrics = PipelineMetrics.getInstance();
+        StringBuilder text = new StringBuilder();
+        text.append("Latency (ms)\n");
+        for (PipelineMetrics.StageSummary summary : metrics.getStageSummaries()) {
+            text.append(String.format(Locale.US, "%-14s %-8s n=%-5d p50=%-8.1f p95=%-8.1f p99=%-8.1f max=%.1f%n",
+                    summary.stage, summary.pair, summary.count,
+                    summary.p50Ms, summary.p95Ms, summary.p99Ms, summary.maxMs));
+        }
+        text.append("\nCounters\n");
+        for (Map.Entry<String, Long> entry : metrics.getCounters().entrySet()) {
+            text.append(entry.getKey()).append(" = ").append(entry.getValue()).append('\n');
+        }
+        CacheManager cacheManager = CacheManager.getInstance();
+        appendOccupancy(text, "Heap caches", cacheManager.getHeapOccupancy(), cacheManager.getHeapBudgetBytes());
+        appendOccupancy(text, "Native engines", cacheManager.getNativeOccupancy(), cacheManager.getNativeBudgetBytes());
+        AdaptiveBudget budget = PowerAwareScheduler.getInstance(this).getBudget();
+        text.append("\nPower\n");
+        text.append("level = ").append(budget.level()).append(" (").append(budget.status()).append(")\n");
+        text.append("parallelism = ").append(TaskLimiter.defaultParallelism())
+                .append(", ocr edge = ").append(ImageDecodePipeline.getInstance(this).ocrMaxEdge())
+                .append(", frame interval = ").append(budget.frameIntervalMs()).append(" ms\n");
+        text.append("\nWarm-up (ms)\n");
+        for (Map.Entry<String, Long> entry : EngineWarmup.getTimings().entrySet()) {
+            text.append(entry.getKey()).append(" = ").append(entry.getValue()).append('\n');
+        }
+        binding.metricsTextView.setText(text);
+    }
+
+    private static void appendOccupancy(StringBuilder text, String title, List<CacheBudget.Occupancy> caches,
+                                        long budgetBytes) {
+        text.append('\n').append(title).append(" (KB, share)\n");
+        long cachedBytes = 0;
+        for (CacheBudget.Occupancy cache : caches) {
+            cachedBytes += cache.bytes;
+            text.append(String.format(Locale.US, "%-14s %-9s %8d / %d%n", cache.name,
+                    cache.priority.name().toLowerCase(Locale.ROOT), cache.bytes / 1024, cache.shareBytes / 1024));
+        }
+        text.append(String.format(Locale.US, "total %d / %d%n", cachedBytes / 1024, budgetBytes / 1024));
+    }
+
+    private void exportJson() {
+        String json;
+        try {
+            json = PipelineMetrics.getInstance().toJson().toString(2);
+        } catch (JSONException e) {
+            Log.w(TAG, "Failed to export metrics", e);
+            Toast.makeText(this, "Export failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            return;
+        }
+        Intent send = new Intent(Intent.ACTION_SEND);
+        send.setType("application/json");
+        send.putExtra(Intent.EXTRA_SUBJECT, "Image Reader pipeline metrics");
+        send.putExtra(Intent.EXTRA_TEXT, json);
+        startActivity(Intent.createChooser(send, "Export metrics"));
+    }
+
+    @Override
+    public boolean onSupportNavigateUp() {
+        finish();
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+
+import com.rick.imagereader.core.LanguageIdEngine;
+
+import java.util.concurrent.CompletableFuture;
+
+/** ML Kit language identification, sharing in-flight requests through {@link EngineRegistry}. */
+public final class MlKitLanguageIdEngine implements LanguageIdEngine {
+
+    @NonNull
+    @Override
+    public CompletableFuture<String> identify(@NonNull String text) {
+        return TaskFutures.toFuture(EngineRegistry.getInstance().identifyLanguage(text));
+    }
+}
@@ -0,0 +1,47 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.mlkit.common.model.DownloadConditions;
+import com.google.mlkit.common.model.RemoteModelManager;
+import com.google.mlkit.nl.translate.TranslateRemoteModel;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public final class MlKitModelManager implements ModelManager {
+
+    private final RemoteModelManager remoteModelManager = RemoteModelManager.getInstance();
+
+    @NonNull
+    @Override
+    public Task<Void> download(@NonNull String languageCode) {
+        DownloadConditions conditions = new DownloadConditions.Builder().requireWifi().build();
+        return remoteModelManager.download(model(languageCode), conditions);
+    }
+
+    @NonNull
+    @Override
+    public Task<Void> delete(@NonNull String languageCode) {
+        return remoteModelManager.deleteDownloadedModel(model(languageCode))
+                .addOnSuccessListener(v -> TranslatorPool.getInstance().invalidateModel(languageCode));
+    }
+
+    @NonNull
+    @Override
+    public Task<Set<String>> getDownloadedLanguages() {
+        return remoteModelManager.getDownloadedModels(TranslateRemoteModel.class)
+                .continueWith(task -> {
+                    Set<String> languages = new HashSet<>();
+                    for (TranslateRemoteModel model : task.getResult()) {
+                        languages.add(model.getLanguage());
+                    }
+                    return languages;
+                });
+    }
+
+    private static TranslateRemoteModel model(String languageCode) {
+        return new TranslateRemoteModel.Builder(languageCode).build();
+    }
+}
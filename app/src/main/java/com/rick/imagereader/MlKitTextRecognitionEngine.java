@@ -0,0 +1,52 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.text.Text;
+import com.rick.imagereader.core.RecognizedText;
+import com.rick.imagereader.core.TextRecognitionEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/** ML Kit text recognition through {@link ScriptAwareRecognizer}, with the shared recognizers. */
+public final class MlKitTextRecognitionEngine implements TextRecognitionEngine<Bitmap> {
+
+    private final ScriptAwareRecognizer recognizer;
+
+    public MlKitTextRecognitionEngine(@NonNull Context context) {
+        this.recognizer = ScriptAwareRecognizer.getInstance(context);
+    }
+
+    @NonNull
+    @Override
+    public CompletableFuture<RecognizedText> recognize(@NonNull Bitmap image) {
+        return TaskFutures.toFuture(recognizer.recognize(image)
+                .onSuccessTask(result -> Tasks.forResult(result.recognizedText)));
+    }
+
+    @NonNull
+    public static RecognizedText toRecognizedText(@NonNull Text visionText) {
+        List<RecognizedText.Block> blocks = new ArrayList<>(visionText.getTextBlocks().size());
+        for (Text.TextBlock block : visionText.getTextBlocks()) {
+            List<RecognizedText.Line> lines = new ArrayList<>(block.getLines().size());
+            for (Text.Line line : block.getLines()) {
+                lines.add(new RecognizedText.Line(line.getText(), toBox(line.getBoundingBox())));
+            }
+            blocks.add(new RecognizedText.Block(toBox(block.getBoundingBox()), lines));
+        }
+        return new RecognizedText(blocks);
+    }
+
+    @Nullable
+    private static RecognizedText.Box toBox(@Nullable Rect rect) {
+        return rect == null ? null : new RecognizedText.Box(rect.left, rect.top, rect.right, rect.bottom);
+    }
+}
@@ -0,0 +1,27 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+
+import com.rick.imagereader.core.TranslationEngine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ML Kit translation through {@link TranslationService}, so core pipelines share the app's
+ * translation cache and pooled translators.
+ */
+public final class MlKitTranslationEngine implements TranslationEngine {
+
+    private final TranslationService service;
+
+    public MlKitTranslationEngine(@NonNull TranslationService service) {
+        this.service = service;
+    }
+
+    @NonNull
+    @Override
+    public CompletableFuture<String> translate(@NonNull String text, @NonNull String sourceLang,
+                                               @NonNull String targetLang) {
+        return TaskFutures.toFuture(service.translate(text, sourceLang, targetLang, null));
+    }
+}
@@ -0,0 +1,404 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.rick.imagereader.core.AdaptiveBudget;
+import com.rick.imagereader.core.DeviceStatus;
+import com.rick.imagereader.core.PerformanceLevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Downloads translation models a few at a time from a priority queue, retrying failures with
+ * exponential backoff. The queue is persisted so downloads resume after the process dies.
+ * {@link #PRIORITY_BACKGROUND} requests are held while the power budget disallows background
+ * downloads, and start again when it allows them. All state is confined to the main thread,
+ * where ML Kit delivers task callbacks.
+ *
+ * <p>Persistence, the quota, the callback thread and delays are injected, so the scheduling
+ * logic runs on the JVM with a fake {@link ModelManager}.
+ */
+public final class ModelDownloadScheduler {
+
+    private static final String TAG = "ModelDownloadScheduler";
+
+    public static final int PRIORITY_BACKGROUND = 0;
+    public static final int PRIORITY_TARGET_LANGUAGE = 10;
+    public static final int PRIORITY_USER_REQUEST = 20;
+
+    private static final int DEFAULT_MAX_PARALLEL = 2;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MS = 2_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    private static final String PREFS_NAME = "model_downloads";
+    private static final String KEY_QUEUE = "queue";
+    private static final String KEY_MAX_PARALLEL = "max_parallel";
+
+    public static final class Progress {
+        public final int total;
+        public final int completed;
+        public final int failed;
+        public final int running;
+        public final int queued;
+        /** True while queued background downloads wait for the device to cool down or charge. */
+        public final boolean paused;
+
+        Progress(int total, int completed, int failed, int running, int queued, boolean paused) {
+            this.total = total;
+            this.completed = completed;
+            this.failed = failed;
+            this.running = running;
+            this.queued = queued;
+            this.paused = paused;
+        }
+
+        public boolean isIdle() {
+            return running == 0 && queued == 0;
+        }
+    }
+
+    /** Where the queue and settings survive process death, and what happens to finished models. */
+    interface Storage {
+        @NonNull
+        String loadQueue();
+
+        void saveQueue(@NonNull String queue);
+
+        int loadMaxParallel(int defaultValue);
+
+        void saveMaxParallel(int maxParallel);
+
+        void recordDownload(@NonNull String languageCode, boolean requestedByUser);
+
+        /** Evicts over-quota models, never one in {@code keep}. */
+        void enforceQuota(@NonNull Set<String> keep);
+    }
+
+    /** Runs a task after a delay, on the same thread as the callback executor. */
+    interface Timer {
+        void postDelayed(@NonNull Runnable task, long delayMs);
+    }
+
+    public interface Listener {
+        void onProgress(@NonNull Progress progress);
+
+        void onModelDownloaded(@NonNull String languageCode);
+
+        void onModelFailed(@NonNull String languageCode, @NonNull Exception error);
+    }
+
+    private static final class Request implements Comparable<Request> {
+        final String languageCode;
+        final long sequence;
+        int priority;
+        int attempts;
+
+        Request(String languageCode, int priority, int attempts, long sequence) {
+            this.languageCode = languageCode;
+            this.priority = priority;
+            this.attempts = attempts;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Request other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static ModelDownloadScheduler instance;
+
+    private final ModelManager modelManager;
+    private final Storage storage;
+    private final Executor callbackExecutor;
+    private final Timer timer;
+    private final AdaptiveBudget budget;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private final PriorityQueue<Request> queue = new PriorityQueue<>();
+    private final Map<String, Request> queued = new HashMap<>();
+    private final Map<String, Request> running = new HashMap<>();
+    // Requests waiting out a backoff delay; still part of the persisted queue.
+    private final Map<String, Request> backingOff = new HashMap<>();
+    private final Set<String> completed = new HashSet<>();
+    private final Set<String> failed = new HashSet<>();
+    private int maxParallel;
+    private long nextSequence;
+
+    ModelDownloadScheduler(@NonNull ModelManager modelManager, @NonNull Storage storage,
+                           @NonNull Executor callbackExecutor, @NonNull Timer timer,
+                           @NonNull AdaptiveBudget budget) {
+        this.modelManager = modelManager;
+        this.storage = storage;
+        this.callbackExecutor = callbackExecutor;
+        this.timer = timer;
+        this.budget = budget;
+        this.maxParallel = storage.loadMaxParallel(DEFAULT_MAX_PARALLEL);
+        restore();
+        budget.addListener(this::onLevelChanged);
+        pump();
+    }
+
+    public static synchronized ModelDownloadScheduler getInstance(@NonNull Context context) {
+        if (instance == null) {
+            Handler handler = new Handler(Looper.getMainLooper());
+            instance = new ModelDownloadScheduler(new MlKitModelManager(),
+                    new PreferencesStorage(context, ModelStorageManager.getInstance(context)),
+                    handler::post, handler::postDelayed,
+                    PowerAwareScheduler.getInstance(context).getBudget());
+        }
+        return instance;
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+        listener.onProgress(getProgress());
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void setMaxParallelDownloads(int maxParallel) {
+        this.maxParallel = Math.max(1, maxParallel);
+        storage.saveMaxParallel(this.maxParallel);
+        pump();
+    }
+
+    public int getMaxParallelDownloads() {
+        return maxParallel;
+    }
+
+    public void enqueue(@NonNull String languageCode, int priority) {
+        if (running.containsKey(languageCode)) {
+            return;
+        }
+        Request pending = queued.get(languageCode);
+        if (pending == null) {
+            pending = backingOff.remove(languageCode);
+            if (pending != null) {
+                // An explicit request skips the remaining backoff.
+                pending.priority = Math.max(pending.priority, priority);
+                offer(pending);
+            }
+        } else if (priority > pending.priority) {
+            queue.remove(pending);
+            pending.priority = priority;
+            queue.add(pending);
+        }
+        if (pending == null) {
+            completed.remove(languageCode);
+            failed.remove(languageCode);
+            offer(new Request(languageCode, priority, 0, nextSequence++));
+        }
+        persist();
+        pump();
+        notifyProgress();
+    }
+
+    public void enqueueAll(@NonNull List<String> languageCodes, int priority) {
+        for (String code : languageCodes) {
+            if (!running.containsKey(code) && !queued.containsKey(code) && !backingOff.containsKey(code)) {
+                completed.remove(code);
+                failed.remove(code);
+                offer(new Request(code, priority, 0, nextSequence++));
+            }
+        }
+        persist();
+        pump();
+        notifyProgress();
+    }
+
+    public boolean isPending(@NonNull String languageCode) {
+        return queued.containsKey(languageCode) || running.containsKey(languageCode)
+                || backingOff.containsKey(languageCode);
+    }
+
+    @NonNull
+    public Progress getProgress() {
+        int queuedCount = queued.size() + backingOff.size();
+        int total = completed.size() + failed.size() + running.size() + queuedCount;
+        return new Progress(total, completed.size(), failed.size(), running.size(), queuedCount, isHoldingBackground());
+    }
+
+    // The queue is ordered by priority, so a background request at its head means only those remain.
+    private boolean isHoldingBackground() {
+        Request next = queue.peek();
+        return next != null && next.priority <= PRIORITY_BACKGROUND && !budget.allowsBackgroundDownloads();
+    }
+
+    private void onLevelChanged(PerformanceLevel previous, PerformanceLevel current, DeviceStatus status) {
+        pump();
+        notifyProgress();
+    }
+
+    private void offer(Request request) {
+        queue.add(request);
+        queued.put(request.languageCode, request);
+    }
+
+    private void pump() {
+        while (running.size() < maxParallel && !queue.isEmpty() && !isHoldingBackground()) {
+            Request request = queue.poll();
+            queued.remove(request.languageCode);
+            start(request);
+        }
+    }
+
+    private void start(Request request) {
+        running.put(request.languageCode, request);
+        request.attempts++;
+        modelManager.download(request.languageCode)
+                .addOnSuccessListener(callbackExecutor, v -> {
+                    running.remove(request.languageCode);
+                    completed.add(request.languageCode);
+                    storage.recordDownload(request.languageCode, request.priority >= PRIORITY_USER_REQUEST);
+                    persist();
+                    for (Listener listener : new ArrayList<>(listeners)) {
+                        listener.onModelDownloaded(request.languageCode);
+                    }
+                    onRequestSettled();
+                })
+                .addOnFailureListener(callbackExecutor, e -> {
+                    running.remove(request.languageCode);
+                    if (request.attempts < MAX_ATTEMPTS) {
+                        scheduleRetry(request);
+                    } else {
+                        Log.w(TAG, "Giving up on " + request.languageCode, e);
+                        failed.add(request.languageCode);
+                        for (Listener listener : new ArrayList<>(listeners)) {
+                            listener.onModelFailed(request.languageCode, e);
+                        }
+                    }
+                    persist();
+                    onRequestSettled();
+                });
+        notifyProgress();
+    }
+
+    private void scheduleRetry(Request request) {
+        long delay = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << (request.attempts - 1));
+        backingOff.put(request.languageCode, request);
+        timer.postDelayed(() -> {
+            if (backingOff.remove(request.languageCode) == request) {
+                offer(request);
+                pump();
+                notifyProgress();
+            }
+        }, delay);
+    }
+
+    private void onRequestSettled() {
+        pump();
+        notifyProgress();
+        if (!completed.isEmpty()) {
+            // This batch's downloads are what was just asked for; make room among the others.
+            storage.enforceQuota(new HashSet<>(completed));
+        }
+        if (running.isEmpty() && queue.isEmpty() && backingOff.isEmpty()) {
+            // The batch is over; the next one starts its counts from zero.
+            completed.clear();
+            failed.clear();
+        }
+    }
+
+    private void notifyProgress() {
+        Progress progress = getProgress();
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onProgress(progress);
+        }
+    }
+
+    // Format: "code:priority:attempts" joined by commas, highest priority first.
+    private void persist() {
+        List<Request> pending = new ArrayList<>(running.values());
+        pending.addAll(backingOff.values());
+        pending.addAll(queue);
+        Collections.sort(pending);
+        Set<String> entries = new LinkedHashSet<>();
+        for (Request request : pending) {
+            entries.add(request.languageCode + ":" + request.priority + ":" + request.attempts);
+        }
+        storage.saveQueue(String.join(",", entries));
+    }
+
+    private void restore() {
+        String stored = storage.loadQueue();
+        if (stored.isEmpty()) {
+            return;
+        }
+        for (String entry : stored.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 3) {
+                continue;
+            }
+            try {
+                int priority = Integer.parseInt(parts[1]);
+                int attempts = Integer.parseInt(parts[2]);
+                offer(new Request(parts[0], priority, Math.min(attempts, MAX_ATTEMPTS - 1), nextSequence++));
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Skipping malformed queue entry " + entry);
+            }
+        }
+    }
+
+    private static final class PreferencesStorage implements Storage {
+        private final SharedPreferences prefs;
+        private final ModelStorageManager modelStorage;
+
+        PreferencesStorage(Context context, ModelStorageManager modelStorage) {
+            this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            this.modelStorage = modelStorage;
+        }
+
+        @NonNull
+        @Override
+        public String loadQueue() {
+            return prefs.getString(KEY_QUEUE, "");
+        }
+
+        @Override
+        public void saveQueue(@NonNull String queue) {
+            prefs.edit().putString(KEY_QUEUE, queue).apply();
+        }
+
+        @Override
+        public int loadMaxParallel(int defaultValue) {
+            return prefs.getInt(KEY_MAX_PARALLEL, defaultValue);
+        }
+
+        @Override
+        public void saveMaxParallel(int maxParallel) {
+            prefs.edit().putInt(KEY_MAX_PARALLEL, maxParallel).apply();
+        }
+
+        @Override
+        public void recordDownload(@NonNull String languageCode, boolean requestedByUser) {
+            modelStorage.recordDownload(languageCode, requestedByUser);
+        }
+
+        @Override
+        public void enforceQuota(@NonNull Set<String> keep) {
+            modelStorage.enforceQuota(keep);
+        }
+    }
+}
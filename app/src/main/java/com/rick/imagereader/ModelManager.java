@@ -0,0 +1,20 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.Set;
+
+/** Downloads and deletes translation models; implemented by ML Kit in the app and by fakes in tests. */
+public interface ModelManager {
+
+    @NonNull
+    Task<Void> download(@NonNull String languageCode);
+
+    @NonNull
+    Task<Void> delete(@NonNull String languageCode);
+
+    @NonNull
+    Task<Set<String>> getDownloadedLanguages();
+}
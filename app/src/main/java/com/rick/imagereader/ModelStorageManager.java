@@ -0,0 +1,229 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.nl.translate.TranslateLanguage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps downloaded translation models within a storage quota. Every use of a model is recorded
+ * with its time and a running count; when the quota is exceeded the least recently used models
+ * are deleted. English, pinned languages, the saved target language and models backing a leased
+ * translator are never evicted, nor is anything the caller of {@link #enforceQuota(Set)} asks
+ * to keep.
+ *
+ * <p>ML Kit does not report model sizes, so the byte quota is converted to a model count using
+ * {@link #APPROX_MODEL_BYTES}.
+ */
+public final class ModelStorageManager {
+
+    private static final String TAG = "ModelStorageManager";
+
+    /** Roughly what one language model takes on disk; 59 models come to over 2.5 GB. */
+    public static final long APPROX_MODEL_BYTES = 45L * 1024 * 1024;
+    public static final long UNLIMITED_BYTES = Long.MAX_VALUE;
+    public static final int UNLIMITED_MODELS = Integer.MAX_VALUE;
+
+    private static final String PREFS_NAME = "model_storage";
+    private static final String KEY_MAX_BYTES = "max_bytes";
+    private static final String KEY_MAX_MODELS = "max_models";
+    private static final String KEY_PINNED = "pinned";
+    private static final String KEY_LAST_USED_PREFIX = "last_used_";
+    private static final String KEY_USE_COUNT_PREFIX = "use_count_";
+
+    /** Protection that depends on the rest of the app: the saved target language and leased models. */
+    interface Guard {
+        boolean isProtected(@NonNull String languageCode);
+    }
+
+    private static ModelStorageManager instance;
+
+    private final ModelManager modelManager;
+    private final SharedPreferences prefs;
+    private final Guard guard;
+    private final LongSupplier clock;
+    private Task<List<String>> enforcing;
+
+    ModelStorageManager(@NonNull ModelManager modelManager, @NonNull SharedPreferences prefs, @NonNull Guard guard,
+                        @NonNull LongSupplier clock) {
+        this.modelManager = modelManager;
+        this.prefs = prefs;
+        this.guard = guard;
+        this.clock = clock;
+    }
+
+    public static synchronized ModelStorageManager getInstance(@NonNull Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new ModelStorageManager(new MlKitModelManager(),
+                    appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE),
+                    code -> code.equals(LanguagePreferences.getTargetLanguage(appContext))
+                            || TranslatorPool.getInstance().isModelInUse(code),
+                    System::currentTimeMillis);
+        }
+        return instance;
+    }
+
+    /** Marks the models for a language pair as just used. */
+    public synchronized void recordUse(@NonNull String sourceLang, @NonNull String targetLang) {
+        stampUse(sourceLang, targetLang);
+    }
+
+    /**
+     * Stamps a fresh download. One the user asked for counts as a use, so it is not the first
+     * thing evicted for never having been used. Any other download that has never been used
+     * only gets a timestamp, so among unused models the oldest download goes first.
+     */
+    public synchronized void recordDownload(@NonNull String languageCode, boolean requestedByUser) {
+        if (requestedByUser) {
+            stampUse(languageCode);
+        } else if (getUseCount(languageCode) == 0) {
+            prefs.edit().putLong(KEY_LAST_USED_PREFIX + languageCode, clock.getAsLong()).apply();
+        }
+    }
+
+    private void stampUse(String... languageCodes) {
+        long now = clock.getAsLong();
+        SharedPreferences.Editor editor = prefs.edit();
+        for (String code : languageCodes) {
+            editor.putLong(KEY_LAST_USED_PREFIX + code, now);
+            editor.putInt(KEY_USE_COUNT_PREFIX + code, getUseCount(code) + 1);
+        }
+        editor.apply();
+    }
+
+    public synchronized long getLastUsed(@NonNull String languageCode) {
+        return prefs.getLong(KEY_LAST_USED_PREFIX + languageCode, 0);
+    }
+
+    public synchronized int getUseCount(@NonNull String languageCode) {
+        return prefs.getInt(KEY_USE_COUNT_PREFIX + languageCode, 0);
+    }
+
+    @NonNull
+    public synchronized Set<String> getPinnedLanguages() {
+        return new HashSet<>(prefs.getStringSet(KEY_PINNED, Collections.emptySet()));
+    }
+
+    public synchronized void setPinned(@NonNull String languageCode, boolean pinned) {
+        Set<String> pinnedLanguages = getPinnedLanguages();
+        if (pinned ? pinnedLanguages.add(languageCode) : pinnedLanguages.remove(languageCode)) {
+            prefs.edit().putStringSet(KEY_PINNED, pinnedLanguages).apply();
+        }
+    }
+
+    public synchronized boolean isPinned(@NonNull String languageCode) {
+        return getPinnedLanguages().contains(languageCode);
+    }
+
+    public synchronized long getMaxBytes() {
+        return prefs.getLong(KEY_MAX_BYTES, UNLIMITED_BYTES);
+    }
+
+    public synchronized int getMaxModels() {
+        return prefs.getInt(KEY_MAX_MODELS, UNLIMITED_MODELS);
+    }
+
+    /** Sets both limits; whichever allows fewer models applies. Call {@link #enforceQuota()} after. */
+    public synchronized void setQuota(long maxBytes, int maxModels) {
+        prefs.edit()
+                .putLong(KEY_MAX_BYTES, Math.max(APPROX_MODEL_BYTES, maxBytes))
+                .putInt(KEY_MAX_MODELS, Math.max(1, maxModels))
+                .apply();
+    }
+
+    /** The number of models the current quota allows. */
+    public synchronized int getModelBudget() {
+        long byBytes = getMaxBytes() / APPROX_MODEL_BYTES;
+        return (int) Math.min(getMaxModels(), Math.min(Integer.MAX_VALUE, byBytes));
+    }
+
+    public boolean isEvictable(@NonNull String languageCode) {
+        return !TranslateLanguage.ENGLISH.equals(languageCode)
+                && !isPinned(languageCode)
+                && !guard.isProtected(languageCode);
+    }
+
+    @NonNull
+    public Task<List<String>> enforceQuota() {
+        return enforceQuota(Collections.emptySet());
+    }
+
+    /**
+     * Deletes least recently used models until the downloaded set fits the quota, or until only
+     * protected models and {@code keep} are left. Resolves to the languages that were deleted.
+     * Calls made while a pass is running share that pass, unless they have languages to keep:
+     * the running pass may not know about them, so another pass follows it.
+     */
+    @NonNull
+    public synchronized Task<List<String>> enforceQuota(@NonNull Set<String> keep) {
+        if (enforcing != null && !enforcing.isComplete()) {
+            if (keep.isEmpty()) {
+                return enforcing;
+            }
+            enforcing = enforcing.continueWithTask(previous -> runPass(keep));
+            return enforcing;
+        }
+        enforcing = runPass(keep);
+        return enforcing;
+    }
+
+    private Task<List<String>> runPass(Set<String> keep) {
+        return modelManager.getDownloadedLanguages().onSuccessTask(downloaded -> {
+            List<String> victims = selectVictims(downloaded, keep);
+            if (victims.isEmpty()) {
+                return Tasks.forResult(victims);
+            }
+            List<Task<Void>> deletions = new ArrayList<>();
+            for (String code : victims) {
+                deletions.add(modelManager.delete(code)
+                        .addOnFailureListener(e -> Log.w(TAG, "Could not evict " + code, e)));
+            }
+            return Tasks.whenAllComplete(deletions).continueWith(done -> {
+                List<String> evicted = new ArrayList<>();
+                for (int i = 0; i < victims.size(); i++) {
+                    if (deletions.get(i).isSuccessful()) {
+                        evicted.add(victims.get(i));
+                        PipelineMetrics.getInstance().increment("model_storage.evicted", null);
+                    }
+                }
+                return evicted;
+            });
+        });
+    }
+
+    private synchronized List<String> selectVictims(Set<String> downloaded, Set<String> keep) {
+        int excess = downloaded.size() - getModelBudget();
+        if (excess <= 0) {
+            return new ArrayList<>();
+        }
+        List<String> candidates = new ArrayList<>();
+        for (String code : downloaded) {
+            if (!keep.contains(code) && isEvictable(code)) {
+                candidates.add(code);
+            }
+        }
+        // Never-used models go first, then the least recently used.
+        Collections.sort(candidates, (a, b) -> {
+            boolean aUsed = getUseCount(a) > 0;
+            boolean bUsed = getUseCount(b) > 0;
+            if (aUsed != bUsed) {
+                return aUsed ? 1 : -1;
+            }
+            return Long.compare(getLastUsed(a), getLastUsed(b));
+        });
+        return new ArrayList<>(candidates.subList(0, Math.min(excess, candidates.size())));
+    }
+}
@@ -0,0 +1,98 @@
+package com.rick.imagereader;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.rick.imagereader.core.TextSegmenter;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates one chunked source text into several target languages in a single pass. The chunks
+ * are shared by every target; each target runs as its own {@link StreamingTranslator} on pooled
+ * translators. At most {@link #fanOutWidth(Context)} targets are in flight, and the chunk
+ * parallelism is split between them so the total stays within the device's cores.
+ */
+public final class MultiTargetTranslator {
+
+    public interface Callbacks {
+        @NonNull
+        StreamingTranslator.Listener listenerFor(@NonNull String targetLang);
+
+        @Nullable
+        default TranslationService.DownloadListener downloadListenerFor(@NonNull String targetLang) {
+            return null;
+        }
+    }
+
+    private final TranslationService service;
+    private final int width;
+
+    public MultiTargetTranslator(@NonNull Context context) {
+        this.service = TranslationService.getInstance(context);
+        this.width = fanOutWidth(context);
+    }
+
+    /**
+     * How many targets may translate at once: bounded by cores and by how many loaded translators
+     * fit the native engine budget, since each target holds one.
+     */
+    public static int fanOutWidth(@NonNull Context context) {
+        ActivityManager activityManager = context.getSystemService(ActivityManager.class);
+        if (activityManager == null || activityManager.isLowRamDevice()) {
+            return 1;
+        }
+        long byMemory = CacheManager.getInstance().getNativeBudgetBytes() / TranslatorPool.ESTIMATED_CLIENT_BYTES;
+        return (int) Math.max(1, Math.min(TaskLimiter.defaultParallelism(), byMemory));
+    }
+
+    /**
+     * Starts translating {@code segments} into every target and returns one task per target, in
+     * the given order. Earlier targets start first, so put the one on screen at the front. A
+     * target in the source language gets the source text back without loading a translator.
+     */
+    @NonNull
+    public Map<String, Task<String>> translate(@NonNull List<TextSegmenter.Segment> segments,
+                                               @NonNull String sourceLang, @NonNull List<String> targetLangs,
+                                               @Nullable RequestGeneration.Token token,
+                                               @NonNull Callbacks callbacks) {
+        int translatedTargets = 0;
+        for (String targetLang : new LinkedHashSet<>(targetLangs)) {
+            if (!targetLang.equals(sourceLang)) {
+                translatedTargets++;
+            }
+        }
+        int targetsInFlight = Math.max(1, Math.min(width, translatedTargets));
+        TaskLimiter targetLimiter = new TaskLimiter(targetsInFlight);
+        StreamingTranslator streamingTranslator = new StreamingTranslator(service,
+                Math.max(1, TaskLimiter.defaultParallelism() / targetsInFlight));
+        Map<String, Task<String>> results = new LinkedHashMap<>();
+        for (String targetLang : targetLangs) {
+            if (results.containsKey(targetLang)) {
+                continue;
+            }
+            if (targetLang.equals(sourceLang)) {
+                // Same-language segments are reused as-is, so this completes without a slot or translator.
+                results.put(targetLang, streamingTranslator.translate(segments, sourceLang, targetLang, null,
+                        token, null, callbacks.listenerFor(targetLang)));
+                continue;
+            }
+            results.put(targetLang, targetLimiter.submit(() -> {
+                // Targets still waiting for a slot when the request is superseded never start.
+                if (token != null) {
+                    token.throwIfStale();
+                }
+                return streamingTranslator.translate(segments, sourceLang, targetLang, null, token,
+                        callbacks.downloadListenerFor(targetLang), callbacks.listenerFor(targetLang));
+            }));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,326 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.rick.imagereader.core.CacheBudget;
+import com.rick.imagereader.core.ImageHashes;
+import com.rick.imagereader.core.RecognizedText;
+import com.rick.imagereader.core.RecognizedTextCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Persistent cache of OCR results keyed by image content. An exact hit needs the same decoded
+ * pixels. Failing that, a camera capture of the same size whose difference hash is within
+ * {@link #NEAR_DUPLICATE_BITS} bits of another capture taken moments earlier counts as the same
+ * shot; a 9x8 hash cannot tell apart two screenshots of the same app with different text, so
+ * gallery images and screenshots only ever get exact hits. Entries keep the full block, line
+ * and box structure in {@link RecognizedTextCodec} form, one file per image, bounded by bytes
+ * and evicted oldest-first.
+ */
+public final class OcrCache {
+
+    private static final String TAG = "OcrCache";
+    private static final int MEMORY_BUDGET_BYTES = 1024 * 1024;
+    // Rough heap cost of a line or block object beyond its text: header, box and list slot.
+    private static final int OBJECT_OVERHEAD_BYTES = 64;
+    private static final long DISK_BUDGET_BYTES = 4L * 1024 * 1024;
+    private static final int NEAR_DUPLICATE_BITS = 4;
+    // A retake of the same scene; older captures are more likely a different page of the same menu.
+    private static final long NEAR_DUPLICATE_WINDOW_MS = 60_000;
+    private static final int ROWS_PER_READ = 16;
+    // contentHash, perceptualHash, width, height.
+    private static final int HEADER_BYTES = 8 + 8 + 4 + 4;
+    private static final String FILE_SUFFIX = ".ocr";
+
+    public static final class Fingerprint {
+        public final long contentHash;
+        public final long perceptualHash;
+        public final int width;
+        public final int height;
+        /** Whether the image came straight from the camera, the only source near hits apply to. */
+        public final boolean cameraCapture;
+
+        Fingerprint(long contentHash, long perceptualHash, int width, int height, boolean cameraCapture) {
+            this.contentHash = contentHash;
+            this.perceptualHash = perceptualHash;
+            this.width = width;
+            this.height = height;
+            this.cameraCapture = cameraCapture;
+        }
+
+        String fileName() {
+            return String.format(Locale.US, "%016x", contentHash) + FILE_SUFFIX;
+        }
+    }
+
+    public static final class Lookup {
+        @NonNull
+        public final Fingerprint fingerprint;
+        /** The cached result, or {@code null} on a miss. */
+        @Nullable
+        public final RecognizedText recognizedText;
+
+        Lookup(@NonNull Fingerprint fingerprint, @Nullable RecognizedText recognizedText) {
+            this.fingerprint = fingerprint;
+            this.recognizedText = recognizedText;
+        }
+    }
+
+    private static OcrCache instance;
+
+    private final LruCache<Long, RecognizedText> memory = new LruCache<Long, RecognizedText>(MEMORY_BUDGET_BYTES) {
+        @Override
+        protected int sizeOf(Long key, RecognizedText value) {
+            return estimateBytes(value);
+        }
+    };
+    private final File directory;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Headers of every entry on disk, keyed by content hash; only touched on executor.
+    private Map<Long, Fingerprint> index;
+    private long diskBytes;
+    // Camera captures stored in this process and when, the only candidates for a near hit; only touched on executor.
+    private final Map<Long, Long> recentCaptures = new HashMap<>();
+
+    private OcrCache(Context context) {
+        directory = new File(context.getCacheDir(), "ocr");
+        CacheManager.getInstance().register("ocr_results", new CacheBudget.Cache() {
+            @Override
+            public long sizeBytes() {
+                return memory.size();
+            }
+
+            @Override
+            public void trimToBytes(long bytes) {
+                memory.trimToSize((int) Math.min(Integer.MAX_VALUE, bytes));
+            }
+        }, CacheManager.WEIGHT_RESULTS, CacheBudget.Priority.CHEAP);
+    }
+
+    public static synchronized OcrCache getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new OcrCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Fingerprints {@code bitmap} off the main thread and looks it up. The bitmap must stay
+     * untouched until the task completes. Pass {@code cameraCapture} only for a photo just taken
+     * with the camera; other images need an exact match.
+     */
+    @NonNull
+    public Task<Lookup> lookup(@NonNull Bitmap bitmap, boolean cameraCapture) {
+        return Tasks.call(executor, () -> {
+            Fingerprint fingerprint = fingerprint(bitmap, cameraCapture);
+            ensureIndexLoaded();
+            Fingerprint match = index.get(fingerprint.contentHash);
+            String counter = "ocr_cache.hit";
+            if (match == null && cameraCapture) {
+                match = findNearDuplicate(fingerprint);
+                counter = "ocr_cache.near_hit";
+            }
+            RecognizedText cached = match != null ? read(match) : null;
+            PipelineMetrics.getInstance().increment(cached != null ? counter : "ocr_cache.miss", null);
+            return new Lookup(fingerprint, cached);
+        });
+    }
+
+    public void put(@NonNull Fingerprint fingerprint, @NonNull RecognizedText recognizedText) {
+        memory.put(fingerprint.contentHash, recognizedText);
+        CacheManager.getInstance().enforceBudget();
+        executor.execute(() -> {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                return;
+            }
+            ensureIndexLoaded();
+            File file = new File(directory, fingerprint.fileName());
+            long previous = file.length();
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+                out.writeLong(fingerprint.contentHash);
+                out.writeLong(fingerprint.perceptualHash);
+                out.writeInt(fingerprint.width);
+                out.writeInt(fingerprint.height);
+                out.write(RecognizedTextCodec.encode(recognizedText));
+                index.put(fingerprint.contentHash, fingerprint);
+                if (fingerprint.cameraCapture) {
+                    recentCaptures.put(fingerprint.contentHash, System.currentTimeMillis());
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to persist OCR result " + file.getName(), e);
+                file.delete();
+            }
+            diskBytes += file.length() - previous;
+            trimDisk();
+        });
+    }
+
+    private static Fingerprint fingerprint(Bitmap bitmap, boolean cameraCapture) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        ImageHashes.ContentHasher hasher = new ImageHashes.ContentHasher(width, height);
+        int[] rows = new int[width * ROWS_PER_READ];
+        for (int y = 0; y < height; y += ROWS_PER_READ) {
+            int rowCount = Math.min(ROWS_PER_READ, height - y);
+            bitmap.getPixels(rows, 0, width, 0, y, width, rowCount);
+            hasher.update(rows, 0, width * rowCount);
+        }
+        Bitmap thumbnail = Bitmap.createScaledBitmap(bitmap, ImageHashes.DHASH_WIDTH, ImageHashes.DHASH_HEIGHT, true);
+        int[] pixels = new int[ImageHashes.DHASH_WIDTH * ImageHashes.DHASH_HEIGHT];
+        thumbnail.getPixels(pixels, 0, ImageHashes.DHASH_WIDTH, 0, 0, ImageHashes.DHASH_WIDTH, ImageHashes.DHASH_HEIGHT);
+        thumbnail.recycle();
+        return new Fingerprint(hasher.finish(), ImageHashes.differenceHash(pixels), width, height, cameraCapture);
+    }
+
+    @Nullable
+    private Fingerprint findNearDuplicate(Fingerprint fingerprint) {
+        Fingerprint best = null;
+        int bestDistance = NEAR_DUPLICATE_BITS + 1;
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Long, Long>> captures = recentCaptures.entrySet().iterator();
+        while (captures.hasNext()) {
+            Map.Entry<Long, Long> capture = captures.next();
+            Fingerprint candidate = index.get(capture.getKey());
+            if (candidate == null || now - capture.getValue() > NEAR_DUPLICATE_WINDOW_MS) {
+                captures.remove();
+                continue;
+            }
+            // Boxes are in OCR pixels, so only an image of the same size can reuse them.
+            if (candidate.width != fingerprint.width || candidate.height != fingerprint.height) {
+                continue;
+            }
+            int distance = ImageHashes.hammingDistance(candidate.perceptualHash, fingerprint.perceptualHash);
+            if (distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private static int estimateBytes(RecognizedText recognizedText) {
+        int bytes = OBJECT_OVERHEAD_BYTES;
+        for (RecognizedText.Block block : recognizedText.getBlocks()) {
+            bytes += OBJECT_OVERHEAD_BYTES;
+            for (RecognizedText.Line line : block.lines) {
+                bytes += OBJECT_OVERHEAD_BYTES + 2 * line.text.length();
+            }
+        }
+        return bytes;
+    }
+
+    @Nullable
+    private RecognizedText read(Fingerprint fingerprint) {
+        RecognizedText cached = memory.get(fingerprint.contentHash);
+        if (cached != null) {
+            return cached;
+        }
+        File file = new File(directory, fingerprint.fileName());
+        try {
+            byte[] data = readFully(file);
+            cached = RecognizedTextCodec.decode(data, HEADER_BYTES);
+            file.setLastModified(System.currentTimeMillis());
+            memory.put(fingerprint.contentHash, cached);
+            CacheManager.getInstance().enforceBudget();
+            return cached;
+        } catch (IOException e) {
+            Log.w(TAG, "Dropping unreadable OCR result " + file.getName(), e);
+            index.remove(fingerprint.contentHash);
+            deleteEntry(file);
+            return null;
+        }
+    }
+
+    private void ensureIndexLoaded() {
+        if (index != null) {
+            return;
+        }
+        index = new HashMap<>();
+        diskBytes = 0;
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            diskBytes += file.length();
+            try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+                // Whether an entry was a capture is not persisted; after a restart it only serves exact hits.
+                Fingerprint fingerprint = new Fingerprint(in.readLong(), in.readLong(), in.readInt(), in.readInt(), false);
+                index.put(fingerprint.contentHash, fingerprint);
+            } catch (IOException e) {
+                Log.w(TAG, "Dropping unreadable OCR result " + file.getName(), e);
+                deleteEntry(file);
+            }
+        }
+    }
+
+    private void trimDisk() {
+        if (diskBytes <= DISK_BUDGET_BYTES) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (diskBytes <= DISK_BUDGET_BYTES * 3 / 4) {
+                break;
+            }
+            String name = file.getName();
+            if (name.endsWith(FILE_SUFFIX)) {
+                try {
+                    index.remove(Long.parseUnsignedLong(name.substring(0, name.length() - FILE_SUFFIX.length()), 16));
+                } catch (NumberFormatException e) {
+                    // Not one of ours; delete it anyway.
+                }
+            }
+            deleteEntry(file);
+        }
+    }
+
+    private void deleteEntry(File file) {
+        long length = file.length();
+        if (file.delete()) {
+            diskBytes -= length;
+        }
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        byte[] data = new byte[(int) file.length()];
+        try (InputStream in = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < data.length) {
+                int read = in.read(data, offset, data.length - offset);
+                if (read < 0) {
+                    throw new IOException("Truncated OCR result");
+                }
+                offset += read;
+            }
+        }
+        return data;
+    }
+}
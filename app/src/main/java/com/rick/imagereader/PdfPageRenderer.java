@@ -0,0 +1,103 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.pdf.PdfRenderer;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Renders the pages of one PDF into OCR-sized, poolable bitmaps. {@link PdfRenderer} allows only
+ * one open page at a time, so every render runs on the renderer's own thread, and a page's bitmap
+ * is all that is held between calls.
+ */
+public final class PdfPageRenderer implements Closeable {
+
+    private static final String TAG = "PdfPageRenderer";
+    // Text rendered at about 200 dpi reads like a good camera shot; PDF units are 1/72 inch.
+    private static final float RENDER_DPI = 200f;
+    private static final float POINTS_PER_INCH = 72f;
+
+    private final ExecutorService executor;
+    private final ParcelFileDescriptor descriptor;
+    private final PdfRenderer renderer;
+    private final ImageDecodePipeline decodePipeline;
+    public final int pageCount;
+
+    private PdfPageRenderer(ExecutorService executor, ParcelFileDescriptor descriptor, PdfRenderer renderer,
+                            ImageDecodePipeline decodePipeline) {
+        this.executor = executor;
+        this.descriptor = descriptor;
+        this.renderer = renderer;
+        this.decodePipeline = decodePipeline;
+        this.pageCount = renderer.getPageCount();
+    }
+
+    @NonNull
+    public static Task<PdfPageRenderer> open(@NonNull Context context, @NonNull Uri uri) {
+        Context appContext = context.getApplicationContext();
+        ImageDecodePipeline decodePipeline = ImageDecodePipeline.getInstance(appContext);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        return Tasks.call(executor, () -> {
+            ParcelFileDescriptor descriptor = appContext.getContentResolver().openFileDescriptor(uri, "r");
+            if (descriptor == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            try {
+                return new PdfPageRenderer(executor, descriptor, new PdfRenderer(descriptor), decodePipeline);
+            } catch (IOException | RuntimeException e) {
+                descriptor.close();
+                throw e;
+            }
+        }).addOnFailureListener(e -> executor.shutdown());
+    }
+
+    /** Renders page {@code index} with its long edge at most {@link ImageDecodePipeline#ocrMaxEdge()}. */
+    @NonNull
+    public Task<Bitmap> render(int index) {
+        return Tasks.call(executor, () -> {
+            try (PdfRenderer.Page page = renderer.openPage(index)) {
+                float scale = Math.min(RENDER_DPI / POINTS_PER_INCH,
+                        decodePipeline.ocrMaxEdge() / (float) Math.max(page.getWidth(), page.getHeight()));
+                int width = Math.max(1, Math.round(page.getWidth() * scale));
+                int height = Math.max(1, Math.round(page.getHeight() * scale));
+                Bitmap bitmap = decodePipeline.getBitmapPool().get(width, height, Bitmap.Config.ARGB_8888);
+                if (bitmap != null) {
+                    bitmap.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+                } else {
+                    bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                }
+                // Pages are transparent where nothing is drawn; OCR wants dark text on white.
+                bitmap.eraseColor(Color.WHITE);
+                page.render(bitmap, null, null, PdfRenderer.Page.RENDER_MODE_FOR_DISPLAY);
+                return bitmap;
+            }
+        });
+    }
+
+    /** Closes the document once renders already queued have finished. */
+    @Override
+    public void close() {
+        executor.execute(() -> {
+            renderer.close();
+            try {
+                descriptor.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to close document", e);
+            }
+        });
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,190 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.rick.imagereader.databinding.ActivityPdfTranslationBinding;
+
+import java.util.Locale;
+
+public class PdfTranslationActivity extends AppCompatActivity implements PdfTranslationJob.Listener {
+
+    private static final String EXTRA_TARGET_LANGUAGE = "com.rick.imagereader.TARGET_LANGUAGE";
+
+    private ActivityPdfTranslationBinding binding;
+    private PdfTranslationJob job;
+    private final PageAdapter adapter = new PageAdapter();
+
+    public static Intent newIntent(Context context, Uri uri, String targetLanguage) {
+        Intent intent = new Intent(context, PdfTranslationActivity.class);
+        intent.setData(uri);
+        intent.putExtra(EXTRA_TARGET_LANGUAGE, targetLanguage);
+        intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        return intent;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityPdfTranslationBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        setSupportActionBar(binding.pdfToolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        Uri uri = getIntent().getData();
+        String targetLanguage = getIntent().getStringExtra(EXTRA_TARGET_LANGUAGE);
+        if (uri == null || targetLanguage == null) {
+            finish();
+            return;
+        }
+
+        binding.pdfPagesRecyclerView.setAdapter(adapter);
+        binding.pdfStatusTextView.setText("Opening document...");
+        binding.cancelPdfButton.setOnClickListener(v -> {
+            job.cancel();
+            binding.cancelPdfButton.setEnabled(false);
+            binding.pdfStatusTextView.setText("Cancelling...");
+        });
+
+        job = new PdfTranslationJob(this, uri, targetLanguage, this);
+        job.start();
+    }
+
+    @Override
+    public void onDocumentOpened(int pageCount) {
+        if (binding == null) {
+            return;
+        }
+        binding.pdfProgressIndicator.setMax(Math.max(1, pageCount));
+        adapter.setPageCount(pageCount);
+    }
+
+    @Override
+    public void onPageStageChanged(int index, @NonNull PdfTranslationJob.Stage stage) {
+        adapter.setStage(index, stage);
+    }
+
+    @Override
+    public void onPageFinished(@NonNull PdfTranslationJob.PageResult result) {
+        adapter.setResult(result);
+    }
+
+    @Override
+    public void onProgress(int finished, int total) {
+        if (binding == null) {
+            return;
+        }
+        binding.pdfProgressIndicator.setProgressCompat(finished, true);
+        if (!job.isCancelled()) {
+            binding.pdfStatusTextView.setText(finished + " of " + total + " pages translated");
+        }
+    }
+
+    @Override
+    public void onJobFinished(boolean cancelled, @Nullable String error) {
+        if (binding == null) {
+            return;
+        }
+        binding.cancelPdfButton.setEnabled(false);
+        if (error != null) {
+            binding.pdfStatusTextView.setText(error);
+        } else {
+            binding.pdfStatusTextView.setText(cancelled ? "Translation cancelled." : "Document finished.");
+        }
+    }
+
+    @Override
+    public boolean onSupportNavigateUp() {
+        finish();
+        return true;
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (job != null) {
+            job.cancel();
+        }
+        binding = null;
+    }
+
+    // One row per page, filled in as pages finish; only the text of finished pages is kept.
+    private static final class PageAdapter extends RecyclerView.Adapter<PageAdapter.PageViewHolder> {
+
+        private PdfTranslationJob.Stage[] stages = new PdfTranslationJob.Stage[0];
+        private PdfTranslationJob.PageResult[] results = new PdfTranslationJob.PageResult[0];
+
+        void setPageCount(int pageCount) {
+            stages = new PdfTranslationJob.Stage[pageCount];
+            results = new PdfTranslationJob.PageResult[pageCount];
+            notifyDataSetChanged();
+        }
+
+        void setStage(int index, PdfTranslationJob.Stage stage) {
+            stages[index] = stage;
+            notifyItemChanged(index);
+        }
+
+        void setResult(PdfTranslationJob.PageResult result) {
+            results[result.index] = result;
+            notifyItemChanged(result.index);
+        }
+
+        @NonNull
+        @Override
+        public PageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_pdf_page, parent, false);
+            return new PageViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull PageViewHolder holder, int position) {
+            PdfTranslationJob.PageResult result = results[position];
+            String title = "Page " + (position + 1);
+            if (result == null) {
+                PdfTranslationJob.Stage stage = stages[position];
+                holder.titleTextView.setText(title);
+                holder.pageTextView.setText(stage == null ? "waiting" : stage.name().toLowerCase(Locale.ROOT));
+            } else if (result.error != null) {
+                holder.titleTextView.setText(title);
+                holder.pageTextView.setText("Failed (" + result.error + ")");
+            } else {
+                if (result.sourceLanguage != null) {
+                    title += " (" + new Locale(result.sourceLanguage).getDisplayLanguage() + ")";
+                }
+                holder.titleTextView.setText(title);
+                holder.pageTextView.setText(result.translatedText.isEmpty() ? "No text found." : result.translatedText);
+            }
+        }
+
+        @Override
+        public int getItemCount() {
+            return results.length;
+        }
+
+        static final class PageViewHolder extends RecyclerView.ViewHolder {
+            final TextView titleTextView;
+            final TextView pageTextView;
+
+            PageViewHolder(@NonNull View itemView) {
+                super(itemView);
+                titleTextView = itemView.findViewById(R.id.pageTitleTextView);
+                pageTextView = itemView.findViewById(R.id.pageTextView);
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.rick.imagereader.core.AdaptiveBudget;
+import com.rick.imagereader.core.RecognizedText;
+import com.rick.imagereader.core.TextChunker;
+import com.rick.imagereader.core.TextSegmenter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Translates a PDF page by page. Pages go through render, OCR, language ID and translation as a
+ * pipeline, so page N+1 renders while page N is recognized, and results stream out per page in
+ * roughly page order. At most {@link #MAX_RESIDENT_PAGES} page bitmaps and
+ * {@link #MAX_PAGES_IN_FLIGHT} pages exist at once, whatever the length of the document; fewer
+ * pages are resident at once while the device is throttled. Like the image screen, each page is
+ * chunked by block and its chunks are translated in parallel, one page at a time.
+ */
+public final class PdfTranslationJob {
+
+    // One page rendering while the previous one is recognized.
+    private static final int MAX_RESIDENT_PAGES = 2;
+    private static final int MAX_PAGES_IN_FLIGHT = 6;
+
+    public enum Stage {RENDERING, RECOGNIZING, IDENTIFYING, TRANSLATING, DONE, FAILED}
+
+    public interface Listener {
+        void onDocumentOpened(int pageCount);
+
+        void onPageStageChanged(int index, @NonNull Stage stage);
+
+        void onPageFinished(@NonNull PageResult result);
+
+        void onProgress(int finished, int total);
+
+        /** {@code error} is set when the document itself could not be opened. */
+        void onJobFinished(boolean cancelled, @Nullable String error);
+    }
+
+    public static final class PageResult {
+        public final int index;
+        @Nullable
+        public final String sourceLanguage;
+        @NonNull
+        public final String recognizedText;
+        @NonNull
+        public final String translatedText;
+        @Nullable
+        public final String error;
+
+        PageResult(int index, @Nullable String sourceLanguage, @NonNull String recognizedText,
+                   @NonNull String translatedText, @Nullable String error) {
+            this.index = index;
+            this.sourceLanguage = sourceLanguage;
+            this.recognizedText = recognizedText;
+            this.translatedText = translatedText;
+            this.error = error;
+        }
+    }
+
+    private final Context context;
+    private final Uri uri;
+    private final String targetLang;
+    private final Listener listener;
+
+    private final ImageDecodePipeline decodePipeline;
+    private final TranslationService translationService;
+    private final ScriptAwareRecognizer textRecognizer;
+    private final PowerAwareScheduler powerScheduler;
+
+    private final TaskLimiter pageLimiter = new TaskLimiter(MAX_PAGES_IN_FLIGHT);
+    private final TaskLimiter bitmapLimiter;
+    private final TaskLimiter identifyLimiter = new TaskLimiter(1);
+    // Parallelism comes from the chunks of one page; several pages at once would multiply it.
+    private final TaskLimiter translateLimiter = new TaskLimiter(1);
+    // Cancelling supersedes the token, which stops chunks the streaming translator has not started.
+    private final RequestGeneration generation = new RequestGeneration();
+    private final RequestGeneration.Token token = generation.next();
+    private final AdaptiveBudget.Listener powerListener = (previous, current, status) -> applyPowerBudget();
+
+    private volatile boolean cancelled;
+    @Nullable
+    private PdfPageRenderer renderer;
+    // Progress counters are only touched from Task callbacks on the main thread.
+    private int finished;
+    private int total;
+    private int pending;
+
+    public PdfTranslationJob(@NonNull Context context, @NonNull Uri uri, @NonNull String targetLang,
+                             @NonNull Listener listener) {
+        this.context = context.getApplicationContext();
+        this.uri = uri;
+        this.targetLang = targetLang;
+        this.listener = listener;
+        this.decodePipeline = ImageDecodePipeline.getInstance(context);
+        this.translationService = TranslationService.getInstance(context);
+        this.textRecognizer = ScriptAwareRecognizer.getInstance(context);
+        this.powerScheduler = PowerAwareScheduler.getInstance(context);
+        this.bitmapLimiter = new TaskLimiter(powerScheduler.getBudget().parallelism(MAX_RESIDENT_PAGES));
+    }
+
+    public void start() {
+        powerScheduler.addListener(powerListener);
+        PdfPageRenderer.open(context, uri)
+                .addOnSuccessListener(opened -> {
+                    renderer = opened;
+                    total = opened.pageCount;
+                    pending = total;
+                    listener.onDocumentOpened(total);
+                    listener.onProgress(0, total);
+                    if (cancelled || total == 0) {
+                        finish(null);
+                        return;
+                    }
+                    for (int i = 0; i < total; i++) {
+                        final int index = i;
+                        // Queued in page order, so the first page is out as soon as it can be.
+                        pageLimiter.submit(() -> processPage(opened, index))
+                                .addOnCompleteListener(task -> onPageDone(index, task));
+                    }
+                })
+                .addOnFailureListener(e -> finish("Cannot open document: " + e.getMessage()));
+    }
+
+    public void cancel() {
+        cancelled = true;
+        generation.cancelAll();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private Task<PageResult> processPage(PdfPageRenderer pages, int index) {
+        String[] recognized = {""};
+        List<String> blocks = new ArrayList<>();
+        String[] source = {null};
+
+        checkCancelled();
+        return bitmapLimiter.<String>submit(() -> {
+                    checkCancelled();
+                    listener.onPageStageChanged(index, Stage.RENDERING);
+                    return PipelineTracer.begin(PipelineTracer.STAGE_PDF_RENDER, null)
+                            .endWhen(pages.render(index))
+                            .onSuccessTask(bitmap -> {
+                                checkCancelledAndRelease(bitmap);
+                                listener.onPageStageChanged(index, Stage.RECOGNIZING);
+                                return textRecognizer.recognize(bitmap)
+                                        .addOnCompleteListener(task -> decodePipeline.release(bitmap))
+                                        .onSuccessTask(result -> {
+                                            for (RecognizedText.Block block : result.recognizedText.blocksInReadingOrder()) {
+                                                blocks.add(block.getText());
+                                            }
+                                            return Tasks.forResult(result.recognizedText.getText());
+                                        });
+                            });
+                })
+                .onSuccessTask(text -> {
+                    recognized[0] = text;
+                    if (text.isEmpty()) {
+                        return Tasks.forResult("und");
+                    }
+                    return identifyLimiter.submit(() -> {
+                        checkCancelled();
+                        listener.onPageStageChanged(index, Stage.IDENTIFYING);
+                        return EngineRegistry.getInstance().identifyLanguage(text);
+                    });
+                })
+                .onSuccessTask(languageCode -> {
+                    if (languageCode.equals("und")) {
+                        return Tasks.forResult("");
+                    }
+                    source[0] = languageCode;
+                    return translateLimiter.submit(() -> {
+                        checkCancelled();
+                        listener.onPageStageChanged(index, Stage.TRANSLATING);
+                        List<TextSegmenter.Segment> chunks = TextChunker.chunkBlocks(blocks, new Locale(languageCode));
+                        return new StreamingTranslator(translationService, TaskLimiter.defaultParallelism())
+                                .translate(chunks, languageCode, targetLang, null, token, null,
+                                        // Pages are reported whole, once every chunk is in.
+                                        (translatedSoFar, completed, total) -> {
+                                        });
+                    });
+                })
+                .onSuccessTask(translated -> Tasks.forResult(
+                        new PageResult(index, source[0], recognized[0], translated, null)));
+    }
+
+    private void onPageDone(int index, Task<PageResult> task) {
+        if (task.isSuccessful()) {
+            PageResult result = task.getResult();
+            listener.onPageStageChanged(index, Stage.DONE);
+            listener.onPageFinished(result);
+        } else if (!cancelled) {
+            Exception e = task.getException();
+            listener.onPageStageChanged(index, Stage.FAILED);
+            listener.onPageFinished(new PageResult(index, null, "", "",
+                    e != null ? String.valueOf(e.getMessage()) : "Unknown error"));
+        }
+        if (!cancelled) {
+            listener.onProgress(++finished, total);
+        }
+        if (--pending == 0) {
+            finish(null);
+        }
+    }
+
+    private void applyPowerBudget() {
+        // Translation picks up the budget per page, when it sizes that page's streaming translator.
+        bitmapLimiter.setMaxConcurrent(powerScheduler.getBudget().parallelism(MAX_RESIDENT_PAGES));
+    }
+
+    private void finish(@Nullable String error) {
+        powerScheduler.removeListener(powerListener);
+        if (renderer != null) {
+            renderer.close();
+        }
+        listener.onJobFinished(cancelled, error);
+    }
+
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("PDF translation cancelled");
+        }
+    }
+
+    private void checkCancelledAndRelease(Bitmap bitmap) {
+        if (cancelled) {
+            decodePipeline.release(bitmap);
+            throw new CancellationException("PDF translation cancelled");
+        }
+    }
+}
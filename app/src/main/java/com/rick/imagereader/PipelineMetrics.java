@@ -0,0 +1,135 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.rick.imagereader.core.LatencyHistogram;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Process-wide latency histograms and counters for the translation pipeline, kept per stage and
+ * per language pair. Every sample also lands in the stage's {@link #ALL_PAIRS} series.
+ */
+public final class PipelineMetrics {
+
+    public static final String ALL_PAIRS = "all";
+
+    public static final class StageSummary {
+        public final String stage;
+        public final String pair;
+        public final long count;
+        public final double meanMs;
+        public final double p50Ms;
+        public final double p95Ms;
+        public final double p99Ms;
+        public final double maxMs;
+
+        StageSummary(String stage, String pair, LatencyHistogram histogram) {
+            this.stage = stage;
+            this.pair = pair;
+            this.count = histogram.getTotalCount();
+            this.meanMs = histogram.getMean() / 1000.0;
+            this.p50Ms = histogram.getValueAtPercentile(50) / 1000.0;
+            this.p95Ms = histogram.getValueAtPercentile(95) / 1000.0;
+            this.p99Ms = histogram.getValueAtPercentile(99) / 1000.0;
+            this.maxMs = histogram.getMaxValue() / 1000.0;
+        }
+    }
+
+    private static PipelineMetrics instance;
+
+    // Keyed "stage|pair"; sorted so the dashboard lists stages together.
+    private final Map<String, LatencyHistogram> histograms = new TreeMap<>();
+    private final Map<String, Long> counters = new TreeMap<>();
+
+    private PipelineMetrics() {
+    }
+
+    public static synchronized PipelineMetrics getInstance() {
+        if (instance == null) {
+            instance = new PipelineMetrics();
+        }
+        return instance;
+    }
+
+    public void recordLatency(@NonNull String stage, @Nullable String pair, long micros) {
+        histogram(stage, ALL_PAIRS).recordValue(micros);
+        if (pair != null) {
+            histogram(stage, pair).recordValue(micros);
+        }
+    }
+
+    public synchronized void increment(@NonNull String counter, @Nullable String pair) {
+        String key = pair != null ? counter + "|" + pair : counter;
+        Long current = counters.get(key);
+        counters.put(key, current != null ? current + 1 : 1);
+    }
+
+    private synchronized LatencyHistogram histogram(String stage, String pair) {
+        String key = stage + "|" + pair;
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            histograms.put(key, histogram);
+        }
+        return histogram;
+    }
+
+    @NonNull
+    public synchronized List<StageSummary> getStageSummaries() {
+        List<StageSummary> summaries = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            String[] parts = entry.getKey().split("\\|", 2);
+            summaries.add(new StageSummary(parts[0], parts[1], entry.getValue()));
+        }
+        return summaries;
+    }
+
+    @NonNull
+    public synchronized Map<String, Long> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    public synchronized void reset() {
+        histograms.clear();
+        counters.clear();
+    }
+
+    @NonNull
+    public JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        JSONArray stages = new JSONArray();
+        for (StageSummary summary : getStageSummaries()) {
+            JSONObject stage = new JSONObject();
+            stage.put("stage", summary.stage);
+            stage.put("pair", summary.pair);
+            stage.put("count", summary.count);
+            stage.put("meanMs", summary.meanMs);
+            stage.put("p50Ms", summary.p50Ms);
+            stage.put("p95Ms", summary.p95Ms);
+            stage.put("p99Ms", summary.p99Ms);
+            stage.put("maxMs", summary.maxMs);
+            stages.put(stage);
+        }
+        json.put("stages", stages);
+        JSONObject counterJson = new JSONObject();
+        for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+            counterJson.put(entry.getKey(), entry.getValue());
+        }
+        json.put("counters", counterJson);
+        JSONObject warmup = new JSONObject();
+        for (Map.Entry<String, Long> entry : EngineWarmup.getTimings().entrySet()) {
+            warmup.put(entry.getKey(), entry.getValue());
+        }
+        json.put("warmupMs", warmup);
+        return json;
+    }
+}
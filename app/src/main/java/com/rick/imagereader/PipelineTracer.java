@@ -0,0 +1,84 @@
+package com.rick.imagereader;
+
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times pipeline stages into {@link PipelineMetrics} and marks them as async sections in system
+ * traces (API 29+), so they line up with ML Kit's own threads in Perfetto.
+ */
+public final class PipelineTracer {
+
+    public static final String STAGE_DECODE = "decode";
+    public static final String STAGE_OCR = "ocr";
+    public static final String STAGE_LANGUAGE_ID = "language_id";
+    public static final String STAGE_MODEL_DOWNLOAD = "model_download";
+    public static final String STAGE_TRANSLATE = "translate";
+    public static final String STAGE_PDF_RENDER = "pdf_render";
+    public static final String STAGE_OCR_PROBE = "ocr_probe";
+
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+
+    private PipelineTracer() {
+    }
+
+    @NonNull
+    public static String pair(@NonNull String sourceLang, @NonNull String targetLang) {
+        return sourceLang + "->" + targetLang;
+    }
+
+    @NonNull
+    public static Span begin(@NonNull String stage, @Nullable String pair) {
+        return new Span(stage, pair);
+    }
+
+    public static final class Span {
+        private final String stage;
+        private final String pair;
+        private final String sectionName;
+        private final int cookie = nextCookie.incrementAndGet();
+        private final long startNanos = SystemClock.elapsedRealtimeNanos();
+        private boolean ended;
+
+        private Span(String stage, String pair) {
+            this.stage = stage;
+            this.pair = pair;
+            this.sectionName = pair != null ? stage + " " + pair : stage;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.beginAsyncSection(sectionName, cookie);
+            }
+        }
+
+        /** Ends the span when {@code task} completes and returns the task for chaining. */
+        @NonNull
+        public <T> Task<T> endWhen(@NonNull Task<T> task) {
+            task.addOnCompleteListener(finished -> end(finished.isSuccessful()));
+            return task;
+        }
+
+        public synchronized void end(boolean success) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.endAsyncSection(sectionName, cookie);
+            }
+            // Failures (including superseded requests) would skew the latency picture; count them instead.
+            if (success) {
+                long micros = (SystemClock.elapsedRealtimeNanos() - startNanos) / 1000;
+                PipelineMetrics.getInstance().recordLatency(stage, pair, micros);
+            } else {
+                PipelineMetrics.getInstance().increment(stage + ".failed", pair);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.rick.imagereader.core.AdaptiveBudget;
+import com.rick.imagereader.core.DeviceStatus;
+import com.rick.imagereader.core.PerformanceLevel;
+
+import java.util.Locale;
+
+/**
+ * The app-wide {@link AdaptiveBudget}, fed by the platform's thermal, battery and power-save
+ * signals. Level changes are delivered on the main thread; a recovery that is waiting out its
+ * hysteresis is re-checked when it falls due, since no broadcast may arrive to trigger it.
+ */
+public final class PowerAwareScheduler implements AdaptiveBudget.Listener {
+
+    private static final String TAG = "PowerAwareScheduler";
+
+    private static PowerAwareScheduler instance;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final AdaptiveBudget budget;
+    private final Runnable recheck = this::recheck;
+
+    private PowerAwareScheduler(Context context) {
+        AndroidDeviceStatusProvider provider = new AndroidDeviceStatusProvider(context);
+        budget = new AdaptiveBudget(provider, SystemClock::elapsedRealtime);
+        budget.addListener(this);
+        provider.setListener(recheck);
+        scheduleRecheck();
+    }
+
+    public static synchronized PowerAwareScheduler getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new PowerAwareScheduler(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** The instance if the application has created it, for code that has no Context at hand. */
+    @Nullable
+    static synchronized PowerAwareScheduler peekInstance() {
+        return instance;
+    }
+
+    @NonNull
+    public AdaptiveBudget getBudget() {
+        return budget;
+    }
+
+    @NonNull
+    public PerformanceLevel getLevel() {
+        return budget.level();
+    }
+
+    /** Listeners are called on the main thread. */
+    public void addListener(@NonNull AdaptiveBudget.Listener listener) {
+        budget.addListener(listener);
+    }
+
+    public void removeListener(@NonNull AdaptiveBudget.Listener listener) {
+        budget.removeListener(listener);
+    }
+
+    @Override
+    public void onLevelChanged(@NonNull PerformanceLevel previous, @NonNull PerformanceLevel current,
+                               @NonNull DeviceStatus status) {
+        Log.i(TAG, previous + " -> " + current + " (" + status + ")");
+        PipelineMetrics.getInstance().increment("power.level." + current.name().toLowerCase(Locale.ROOT), null);
+    }
+
+    // Runs on every status broadcast too, since any of them may start or cancel a recovery.
+    private void recheck() {
+        budget.refresh();
+        scheduleRecheck();
+    }
+
+    private void scheduleRecheck() {
+        handler.removeCallbacks(recheck);
+        long delay = budget.millisUntilRecovery();
+        if (delay >= 0) {
+            handler.postDelayed(recheck, delay);
+        }
+    }
+}
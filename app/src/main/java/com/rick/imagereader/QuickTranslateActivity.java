@@ -0,0 +1,214 @@
+package com.rick.imagereader;
+
+import android.content.ClipData;
+import android.content.ClipboardManager;
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Bundle;
+import android.text.method.ScrollingMovementMethod;
+import android.view.View;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.google.android.material.bottomsheet.BottomSheetDialog;
+import com.rick.imagereader.core.LanguageIdEngine;
+import com.rick.imagereader.core.RecognizedText;
+import com.rick.imagereader.core.TextChunker;
+import com.rick.imagereader.core.TranslationPipeline;
+import com.rick.imagereader.databinding.SheetQuickTranslateBinding;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entry point for the text selection menu ({@code ACTION_PROCESS_TEXT}) and the share sheet
+ * ({@code ACTION_SEND} with text or an image). Skips the tabbed UI entirely: the pipeline starts
+ * in {@code onCreate} on the shared engines and the result appears in a bottom sheet.
+ */
+public class QuickTranslateActivity extends AppCompatActivity {
+
+    private SheetQuickTranslateBinding binding;
+    private BottomSheetDialog sheet;
+    private StartupTimer startupTimer;
+    private TranslationPipeline<Bitmap> pipeline;
+    private String targetLang;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        startupTimer = StartupTimer.begin(StartupTimer.ENTRY_SHARE);
+
+        binding = SheetQuickTranslateBinding.inflate(getLayoutInflater());
+        binding.quickTranslatedTextView.setMovementMethod(new ScrollingMovementMethod());
+        binding.quickCopyButton.setOnClickListener(v -> copyTranslation());
+        binding.quickOpenAppButton.setOnClickListener(v -> {
+            startActivity(new Intent(this, MainActivity.class));
+            sheet.dismiss();
+        });
+
+        sheet = new BottomSheetDialog(this);
+        sheet.setContentView(binding.getRoot());
+        sheet.setOnDismissListener(dialog -> finish());
+        sheet.show();
+        startupTimer.watchFirstFrame(binding.getRoot());
+
+        targetLang = LanguagePreferences.getTargetLanguage(this);
+        pipeline = new TranslationPipeline<>(new MlKitTextRecognitionEngine(this), new MlKitLanguageIdEngine(),
+                new MlKitTranslationEngine(TranslationService.getInstance(this)),
+                TaskLimiter.defaultParallelism(), TextChunker.DEFAULT_MAX_CHUNK_CHARS);
+
+        // A recreated activity would only repeat the work; the process-wide cache makes it cheap.
+        handleIntent(getIntent());
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (sheet != null) {
+            sheet.setOnDismissListener(null);
+            sheet.dismiss();
+        }
+    }
+
+    private void handleIntent(Intent intent) {
+        String action = intent.getAction();
+        if (Intent.ACTION_PROCESS_TEXT.equals(action)) {
+            CharSequence text = intent.getCharSequenceExtra(Intent.EXTRA_PROCESS_TEXT);
+            boolean readOnly = intent.getBooleanExtra(Intent.EXTRA_PROCESS_TEXT_READONLY, false);
+            binding.quickReplaceButton.setVisibility(readOnly ? View.GONE : View.VISIBLE);
+            binding.quickReplaceButton.setOnClickListener(v -> replaceSelection());
+            translateText(text != null ? text.toString() : "");
+        } else if (Intent.ACTION_SEND.equals(action)) {
+            String type = intent.getType();
+            if (type != null && type.startsWith("image/")) {
+                translateImage(intent.getParcelableExtra(Intent.EXTRA_STREAM));
+            } else {
+                CharSequence text = intent.getCharSequenceExtra(Intent.EXTRA_TEXT);
+                translateText(text != null ? text.toString() : "");
+            }
+        } else {
+            showMessage("Nothing to translate.");
+        }
+    }
+
+    private void translateText(String text) {
+        if (text.trim().isEmpty()) {
+            showMessage("Nothing to translate.");
+            return;
+        }
+        binding.quickSourceTextView.setText(text);
+        new MlKitLanguageIdEngine().identify(text)
+                .thenCompose(sourceLang -> {
+                    runOnUiThread(() -> showLanguages(sourceLang));
+                    if (LanguageIdEngine.UNDETERMINED.equals(sourceLang)) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return pipeline.translate(text, sourceLang, targetLang, partialListener());
+                })
+                .whenComplete((translated, error) -> runOnUiThread(() -> {
+                    if (error != null) {
+                        showMessage("Translation failed: " + error.getMessage());
+                    } else if (translated == null) {
+                        showMessage("Could not identify the language.");
+                    } else {
+                        showTranslation(translated);
+                    }
+                }));
+    }
+
+    private void translateImage(@Nullable Uri uri) {
+        if (uri == null) {
+            showMessage("Nothing to translate.");
+            return;
+        }
+        binding.quickSourceTextView.setText("Reading text from image...");
+        ImageDecodePipeline decodePipeline = ImageDecodePipeline.getInstance(this);
+        PipelineTracer.Span decodeSpan = PipelineTracer.begin(PipelineTracer.STAGE_DECODE, null);
+        TaskFutures.toFuture(decodeSpan.endWhen(decodePipeline.decodeForOcr(uri)))
+                .thenCompose(bitmap -> pipeline.process(bitmap, targetLang, new TranslationPipeline.Listener() {
+                    @Override
+                    public void onRecognized(@NonNull RecognizedText text) {
+                        runOnUiThread(() -> binding.quickSourceTextView.setText(text.getText()));
+                    }
+
+                    @Override
+                    public void onLanguageIdentified(@NonNull String languageCode) {
+                        runOnUiThread(() -> showLanguages(languageCode));
+                    }
+
+                    @Override
+                    public void onPartialTranslation(@NonNull String translatedSoFar, int completed, int total) {
+                        partialListener().onPartialTranslation(translatedSoFar, completed, total);
+                    }
+                }).whenComplete((result, error) -> {
+                    // Return the pixels on every outcome; a failed recognition never reports onRecognized.
+                    decodePipeline.release(bitmap);
+                }))
+                .whenComplete((result, error) -> runOnUiThread(() -> {
+                    if (error != null) {
+                        showMessage("Translation failed: " + error.getMessage());
+                    } else if (result.recognizedText.getText().isEmpty()) {
+                        showMessage("No text found in the image.");
+                    } else if (LanguageIdEngine.UNDETERMINED.equals(result.sourceLanguage)) {
+                        showMessage("Could not identify the language.");
+                    } else {
+                        showTranslation(result.translatedText);
+                    }
+                }));
+    }
+
+    private TranslationPipeline.Listener partialListener() {
+        return new TranslationPipeline.Listener() {
+            @Override
+            public void onPartialTranslation(@NonNull String translatedSoFar, int completed, int total) {
+                if (completed < total) {
+                    runOnUiThread(() -> {
+                        binding.quickTranslatedTextView.setText(translatedSoFar);
+                        startupTimer.onContentShown(QuickTranslateActivity.this);
+                    });
+                }
+            }
+        };
+    }
+
+    private void showLanguages(String sourceLang) {
+        if (LanguageIdEngine.UNDETERMINED.equals(sourceLang)) {
+            binding.quickLanguageTextView.setText("Unknown language");
+            return;
+        }
+        LanguagePreferences.setSourceLanguage(this, sourceLang);
+        binding.quickLanguageTextView.setText(new Locale(sourceLang).getDisplayLanguage()
+                + " to " + new Locale(targetLang).getDisplayLanguage());
+    }
+
+    private void showTranslation(String translated) {
+        binding.quickProgressIndicator.setVisibility(View.GONE);
+        binding.quickTranslatedTextView.setText(translated);
+        binding.quickCopyButton.setEnabled(true);
+        binding.quickReplaceButton.setEnabled(true);
+        startupTimer.onContentShown(this);
+    }
+
+    private void showMessage(String message) {
+        binding.quickProgressIndicator.setVisibility(View.GONE);
+        binding.quickTranslatedTextView.setText(message);
+    }
+
+    private void copyTranslation() {
+        ClipboardManager clipboard = getSystemService(ClipboardManager.class);
+        clipboard.setPrimaryClip(ClipData.newPlainText("Translation", binding.quickTranslatedTextView.getText()));
+        Toast.makeText(this, "Translation copied.", Toast.LENGTH_SHORT).show();
+        sheet.dismiss();
+    }
+
+    // Hands the translation back to the app the text was selected in.
+    private void replaceSelection() {
+        setResult(RESULT_OK, new Intent().putExtra(Intent.EXTRA_PROCESS_TEXT,
+                binding.quickTranslatedTextView.getText().toString()));
+        sheet.dismiss();
+    }
+}
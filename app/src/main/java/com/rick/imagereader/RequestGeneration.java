@@ -0,0 +1,45 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out generation tokens for a screen's pipeline requests. Starting a new request makes
+ * every earlier token stale, and stale work stops at its next stage boundary.
+ */
+public final class RequestGeneration {
+
+    private final AtomicInteger current = new AtomicInteger();
+
+    /** Starts a new request, superseding all earlier ones. */
+    @NonNull
+    public Token next() {
+        return new Token(current.incrementAndGet());
+    }
+
+    /** Supersedes everything in flight without starting anything new. */
+    public void cancelAll() {
+        current.incrementAndGet();
+    }
+
+    public final class Token {
+        private final int generation;
+
+        private Token(int generation) {
+            this.generation = generation;
+        }
+
+        public boolean isCurrent() {
+            return current.get() == generation;
+        }
+
+        /** For use inside Task continuations, where throwing abandons the rest of the chain. */
+        public void throwIfStale() {
+            if (!isCurrent()) {
+                throw new CancellationException("Superseded by a newer request");
+            }
+        }
+    }
+}
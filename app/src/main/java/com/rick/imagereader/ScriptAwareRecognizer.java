@@ -0,0 +1,174 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.text.TextRecognizer;
+import com.rick.imagereader.core.OcrScript;
+import com.rick.imagereader.core.RecognizedText;
+import com.rick.imagereader.core.ScriptDetector;
+import com.rick.imagereader.core.ScriptHistory;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the text recognizer for the script an image is written in, so only one recognizer does a
+ * full-resolution pass. The script comes from the recent history when the last few images agree;
+ * otherwise a downsampled probe is recognized with each candidate script, most likely first,
+ * until one reads real text. When the history's guess turns out wrong, the probes run after all.
+ * Other scripts are only tried when a recognizer finds text blocks that read as noise; an image
+ * with no text blocks at all has no text in any script, and stops there.
+ */
+public final class ScriptAwareRecognizer {
+
+    private static final String TAG = "ScriptAwareRecognizer";
+    private static final String PREFS_NAME = "ocr_scripts";
+    private static final String KEY_RECENT = "recent";
+    // Enough to tell scripts apart at a seventh of the pixels of a full OCR pass.
+    private static final int PROBE_MAX_EDGE = 768;
+
+    /** A recognition result and the script it was read in. */
+    public static final class Result {
+        @NonNull
+        public final OcrScript script;
+        @NonNull
+        public final RecognizedText recognizedText;
+
+        Result(@NonNull OcrScript script, @NonNull RecognizedText recognizedText) {
+            this.script = script;
+            this.recognizedText = recognizedText;
+        }
+    }
+
+    private static ScriptAwareRecognizer instance;
+
+    private final SharedPreferences prefs;
+    private final ScriptHistory history;
+    // Scales probes off the main thread.
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private ScriptAwareRecognizer(Context context) {
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        history = ScriptHistory.decode(prefs.getString(KEY_RECENT, ""));
+    }
+
+    public static synchronized ScriptAwareRecognizer getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ScriptAwareRecognizer(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** The script the next image is most likely written in, for callers that cannot probe. */
+    @NonNull
+    public OcrScript preferredScript() {
+        return history.ranked().get(0);
+    }
+
+    /** Recognizes {@code bitmap} with the recognizer for its script. The bitmap stays the caller's. */
+    @NonNull
+    public Task<Result> recognize(@NonNull Bitmap bitmap) {
+        List<OcrScript> ranked = history.ranked();
+        OcrScript preferred = ranked.get(0);
+        if (!history.isSettledOn(preferred)) {
+            return detectScript(bitmap, ranked, preferred).onSuccessTask(script -> recognize(bitmap, script));
+        }
+        return recognize(bitmap, preferred).continueWithTask(first -> {
+            if (!first.isSuccessful() || first.getResult().recognizedText.getBlocks().isEmpty()
+                    || ScriptDetector.detect(first.getResult().recognizedText.getText()) != null) {
+                return first;
+            }
+            // Nothing readable came back, so the image is likely in another script.
+            PipelineMetrics.getInstance().increment("ocr_script.mispredicted", null);
+            return detectScript(bitmap, ranked.subList(1, ranked.size()), preferred).onSuccessTask(script ->
+                    script == preferred ? first : recognize(bitmap, script));
+        });
+    }
+
+    /**
+     * Finds the script of {@code bitmap} from a downsampled probe, without a full-resolution pass.
+     * Falls back to the most likely script when no probe reads anything.
+     */
+    @NonNull
+    public Task<OcrScript> detectScript(@NonNull Bitmap bitmap) {
+        List<OcrScript> ranked = history.ranked();
+        return detectScript(bitmap, ranked, ranked.get(0));
+    }
+
+    /** Recognizes with {@code script}'s recognizer and records the script the text turned out to be in. */
+    @NonNull
+    public Task<Result> recognize(@NonNull Bitmap bitmap, @NonNull OcrScript script) {
+        return process(PipelineTracer.STAGE_OCR, bitmap, script).onSuccessTask(recognized -> {
+            OcrScript detected = ScriptDetector.detect(recognized.getText());
+            if (detected != null) {
+                record(detected);
+            }
+            return Tasks.forResult(new Result(script, recognized));
+        });
+    }
+
+    private Task<OcrScript> detectScript(Bitmap bitmap, List<OcrScript> candidates, OcrScript fallback) {
+        return Tasks.call(executor, () -> {
+            int longEdge = Math.max(bitmap.getWidth(), bitmap.getHeight());
+            if (longEdge <= PROBE_MAX_EDGE) {
+                return bitmap;
+            }
+            float scale = PROBE_MAX_EDGE / (float) longEdge;
+            return Bitmap.createScaledBitmap(bitmap, Math.max(1, Math.round(bitmap.getWidth() * scale)),
+                    Math.max(1, Math.round(bitmap.getHeight() * scale)), true);
+        }).onSuccessTask(probe -> probe(probe, candidates, 0, fallback).addOnCompleteListener(task -> {
+            if (probe != bitmap) {
+                probe.recycle();
+            }
+        }));
+    }
+
+    // Probes candidates one after another; each needs the previous one's answer.
+    private Task<OcrScript> probe(Bitmap probe, List<OcrScript> candidates, int index, OcrScript fallback) {
+        if (index >= candidates.size()) {
+            return Tasks.forResult(fallback);
+        }
+        OcrScript candidate = candidates.get(index);
+        PipelineMetrics.getInstance().increment("ocr_script.probe", null);
+        return process(PipelineTracer.STAGE_OCR_PROBE, probe, candidate).continueWithTask(task -> {
+            if (task.isSuccessful() && task.getResult().getBlocks().isEmpty()) {
+                // No text anywhere; another script's recognizer would find none either.
+                PipelineMetrics.getInstance().increment("ocr_script.no_text", null);
+                return Tasks.forResult(fallback);
+            }
+            OcrScript detected = task.isSuccessful() ? ScriptDetector.detect(task.getResult().getText()) : null;
+            // A non-Latin recognizer that reads only Latin text has still found the script.
+            if (detected != null) {
+                return Tasks.forResult(detected);
+            }
+            if (!task.isSuccessful()) {
+                Log.w(TAG, "Probe with " + candidate + " failed", task.getException());
+            }
+            return probe(probe, candidates, index + 1, fallback);
+        });
+    }
+
+    private Task<RecognizedText> process(String stage, Bitmap bitmap, OcrScript script) {
+        EngineRegistry.Handle<TextRecognizer> recognizer = EngineRegistry.getInstance().acquireTextRecognizer(script);
+        return PipelineTracer.begin(stage, script.name().toLowerCase(Locale.ROOT))
+                .endWhen(recognizer.get().process(InputImage.fromBitmap(bitmap, 0)))
+                .addOnCompleteListener(task -> recognizer.close())
+                .onSuccessTask(text -> Tasks.forResult(MlKitTextRecognitionEngine.toRecognizedText(text)));
+    }
+
+    private void record(OcrScript script) {
+        history.record(script);
+        prefs.edit().putString(KEY_RECENT, history.encode()).apply();
+        PipelineMetrics.getInstance().increment("ocr_script." + script.name().toLowerCase(Locale.ROOT), null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.rick.imagereader;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Times how long an entry point takes to put something on screen, recorded in
+ * {@link PipelineMetrics} per entry point. A start is cold when it opens the process's first
+ * activity; cold times run from process start, warm times from the activity's creation.
+ */
+public final class StartupTimer {
+
+    public static final String ENTRY_MAIN = "main";
+    public static final String ENTRY_SHARE = "share";
+
+    public static final String STAGE_FIRST_FRAME = "startup_first_frame";
+    public static final String STAGE_CONTENT = "startup_content";
+
+    private static boolean activityStarted;
+
+    private final String series;
+    private final long startMs;
+    private boolean contentRecorded;
+
+    private StartupTimer(String series, long startMs) {
+        this.series = series;
+        this.startMs = startMs;
+    }
+
+    /** Call first thing in the entry activity's {@code onCreate}. */
+    @NonNull
+    public static StartupTimer begin(@NonNull String entry) {
+        boolean cold;
+        synchronized (StartupTimer.class) {
+            cold = !activityStarted;
+            activityStarted = true;
+        }
+        long start = cold ? Process.getStartElapsedRealtime() : SystemClock.elapsedRealtime();
+        return new StartupTimer(entry + (cold ? " cold" : " warm"), start);
+    }
+
+    /** Records {@link #STAGE_FIRST_FRAME} once {@code view} draws for the first time. */
+    public void watchFirstFrame(@NonNull View view) {
+        view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                // Runs just after the frame being drawn now has been handed off.
+                view.post(() -> record(STAGE_FIRST_FRAME));
+                return true;
+            }
+        });
+    }
+
+    /** Records {@link #STAGE_CONTENT} the first time the entry point shows its result. */
+    public void onContentShown(@NonNull Activity activity) {
+        if (contentRecorded) {
+            return;
+        }
+        contentRecorded = true;
+        record(STAGE_CONTENT);
+        activity.reportFullyDrawn();
+    }
+
+    private void record(String stage) {
+        long micros = (SystemClock.elapsedRealtime() - startMs) * 1000;
+        PipelineMetrics.getInstance().recordLatency(stage, series, micros);
+    }
+}
@@ -0,0 +1,90 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.rick.imagereader.core.ConcurrencyLimiter;
+import com.rick.imagereader.core.TextSegmenter;
+import com.rick.imagereader.core.TranslationEngine;
+import com.rick.imagereader.core.TranslationPipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Translates independent segments concurrently and reports the translated text in input order
+ * as soon as each leading run of segments has finished.
+ */
+public final class StreamingTranslator {
+
+    public interface Listener {
+        void onPartialResult(@NonNull String translatedSoFar, int completed, int total);
+
+        /** Called for every segment as it finishes, in completion order, including reused ones. */
+        default void onSegmentTranslated(int index, @NonNull String source, @NonNull String translated) {
+        }
+    }
+
+    private final TranslationService service;
+    private final int parallelism;
+
+    public StreamingTranslator(@NonNull TranslationService service, int parallelism) {
+        this.service = service;
+        this.parallelism = parallelism;
+    }
+
+    @NonNull
+    public Task<String> translate(@NonNull List<String> segments, @NonNull String separator,
+                                  @NonNull String sourceLang, @NonNull String targetLang,
+                                  @Nullable RequestGeneration.Token token,
+                                  @Nullable TranslationService.DownloadListener downloadListener,
+                                  @NonNull Listener listener) {
+        List<TextSegmenter.Segment> parts = new ArrayList<>(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            parts.add(new TextSegmenter.Segment(segments.get(i), i < segments.size() - 1 ? separator : ""));
+        }
+        return translate(parts, sourceLang, targetLang, null, token, downloadListener, listener);
+    }
+
+    /**
+     * Translates {@code segments} and joins them with their own trailing whitespace. Segments found
+     * in {@code knownTranslations} are reused as-is without touching the translator. The chunk
+     * scheduling and reassembly is the core {@link TranslationPipeline#translateSegments}; this
+     * method only adapts the service, the request token and the listener to it.
+     */
+    @NonNull
+    public Task<String> translate(@NonNull List<TextSegmenter.Segment> segments,
+                                  @NonNull String sourceLang, @NonNull String targetLang,
+                                  @Nullable Map<String, String> knownTranslations,
+                                  @Nullable RequestGeneration.Token token,
+                                  @Nullable TranslationService.DownloadListener downloadListener,
+                                  @NonNull Listener listener) {
+        // Only the first translated segment can trigger a download notice; the rest share its task.
+        AtomicBoolean first = new AtomicBoolean(true);
+        TranslationEngine engine = (segment, source, target) -> {
+            // Segments still queued when the request is superseded are never started.
+            if (token != null) {
+                token.throwIfStale();
+            }
+            TranslationService.DownloadListener notify = first.getAndSet(false) ? downloadListener : null;
+            return TaskFutures.toFuture(service.translate(segment, source, target, notify));
+        };
+        // Service tasks complete on the main thread, so every callback below arrives there too.
+        TranslationPipeline.Listener progress = new TranslationPipeline.Listener() {
+            @Override
+            public void onPartialTranslation(@NonNull String translatedSoFar, int completed, int total) {
+                listener.onPartialResult(translatedSoFar, completed, total);
+            }
+
+            @Override
+            public void onSegmentTranslated(int index, @NonNull String source, @NonNull String translated) {
+                listener.onSegmentTranslated(index, source, translated);
+            }
+        };
+        return TaskFutures.toTask(TranslationPipeline.translateSegments(segments, sourceLang, targetLang,
+                knownTranslations, new ConcurrencyLimiter(parallelism), engine, progress));
+    }
+}
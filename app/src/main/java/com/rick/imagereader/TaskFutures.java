@@ -0,0 +1,49 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/** Bridges Play services {@link Task}s and the {@link CompletableFuture}s used by the core module. */
+final class TaskFutures {
+
+    private TaskFutures() {
+    }
+
+    @NonNull
+    static <T> CompletableFuture<T> toFuture(@NonNull Task<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        task.addOnCompleteListener(finished -> {
+            if (finished.isSuccessful()) {
+                future.complete(finished.getResult());
+            } else if (finished.isCanceled()) {
+                future.completeExceptionally(new CancellationException("Task cancelled"));
+            } else {
+                Exception e = finished.getException();
+                future.completeExceptionally(e != null ? e : new IllegalStateException("Task failed"));
+            }
+        });
+        return future;
+    }
+
+    /** Completes on whichever thread completes {@code future}; failures keep their original cause. */
+    @NonNull
+    static <T> Task<T> toTask(@NonNull CompletableFuture<T> future) {
+        TaskCompletionSource<T> result = new TaskCompletionSource<>();
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.setResult(value);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                result.setException(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+            }
+        });
+        return result.getTask();
+    }
+}
@@ -0,0 +1,70 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.rick.imagereader.core.ConcurrencyLimiter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Starts asynchronous {@link Task}s with at most {@code maxConcurrent} of them in flight;
+ * the rest wait in FIFO order. The limit can change while tasks run; lowering it lets running
+ * tasks finish and holds back new ones until the count drops below it. Scheduling is the core
+ * {@link ConcurrencyLimiter}; this class only bridges Tasks to it.
+ */
+public final class TaskLimiter {
+
+    public interface TaskFactory<T> {
+        @NonNull
+        Task<T> start() throws Exception;
+    }
+
+    private final ConcurrencyLimiter limiter;
+
+    public TaskLimiter(int maxConcurrent) {
+        limiter = new ConcurrencyLimiter(maxConcurrent);
+    }
+
+    /**
+     * A limit suited to ML Kit work on this device, leaving one core for the UI, and lowered
+     * while the device is hot, low on battery or saving power.
+     */
+    public static int defaultParallelism() {
+        int cores = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        PowerAwareScheduler scheduler = PowerAwareScheduler.peekInstance();
+        return scheduler != null ? scheduler.getBudget().parallelism(cores) : cores;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        limiter.setMaxConcurrent(maxConcurrent);
+    }
+
+    @NonNull
+    public <T> Task<T> submit(@NonNull TaskFactory<T> factory) {
+        TaskCompletionSource<T> result = new TaskCompletionSource<>();
+        limiter.<T>submit(() -> {
+            CompletableFuture<T> done = new CompletableFuture<>();
+            factory.start().addOnCompleteListener(finished -> {
+                if (finished.isSuccessful()) {
+                    done.complete(finished.getResult());
+                } else {
+                    Exception e = finished.getException();
+                    done.completeExceptionally(e != null ? e : new IllegalStateException("Task cancelled"));
+                }
+            });
+            return done;
+        }).whenComplete((value, error) -> {
+            if (error == null) {
+                result.setResult(value);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                result.setException(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+            }
+        });
+        return result.getTask();
+    }
+}
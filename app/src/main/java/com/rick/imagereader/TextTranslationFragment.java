@@ -1,6 +1,10 @@
 package com.rick.imagereader;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,26 +16,41 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
-import com.google.mlkit.common.model.DownloadConditions;
-import com.google.mlkit.nl.languageid.LanguageIdentification;
 import com.google.mlkit.nl.languageid.LanguageIdentifier;
 import com.google.mlkit.nl.translate.TranslateLanguage;
-import com.google.mlkit.nl.translate.Translation;
-import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
+import com.rick.imagereader.core.TextChunker;
+import com.rick.imagereader.core.TextSegmenter;
 import com.rick.imagereader.databinding.FragmentTextTranslationBinding;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class TextTranslationFragment extends Fragment {
 
+    private static final long LIVE_DEBOUNCE_MS = 350;
+    // Edits smaller than this (in characters, or as a share of the text) keep the last detected language.
+    private static final int LIVE_REIDENTIFY_MIN_CHARS = 24;
+    private static final float LIVE_REIDENTIFY_RATIO = 0.3f;
+
     private FragmentTextTranslationBinding binding;
 
     private Language currentTargetLanguage;
-    private LanguageIdentifier languageIdentifier;
+    private EngineRegistry.Handle<LanguageIdentifier> languageIdentifier;
+    private final RequestGeneration generation = new RequestGeneration();
+
+    private final Handler liveHandler = new Handler(Looper.getMainLooper());
+    private final Runnable livePass = this::runLivePass;
+    // Sentence translations from earlier live passes, valid for livePair only.
+    private final Map<String, String> liveTranslations = new HashMap<>();
+    private String livePair;
+    private String liveLanguage;
+    private String liveIdentifiedText;
 
     @Nullable
     @Override
@@ -44,11 +63,35 @@ public class TextTranslationFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        languageIdentifier = LanguageIdentification.getClient();
+        languageIdentifier = EngineRegistry.getInstance().acquireLanguageIdentifier();
 
         setupTargetLanguageSpinner();
 
         binding.translateTextButton.setOnClickListener(v -> processText());
+        binding.liveTranslateSwitch.setOnCheckedChangeListener((button, checked) -> {
+            if (checked) {
+                scheduleLivePass(0);
+            } else {
+                liveHandler.removeCallbacks(livePass);
+                generation.next();
+            }
+        });
+        binding.textInputEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                if (binding.liveTranslateSwitch.isChecked()) {
+                    scheduleLivePass(LIVE_DEBOUNCE_MS);
+                }
+            }
+        });
     }
 
     private void setupTargetLanguageSpinner() {
@@ -64,8 +107,9 @@ public class TextTranslationFragment extends Fragment {
 
         if (textView != null) {
             textView.setAdapter(adapter);
+            String savedTargetLanguage = LanguagePreferences.getTargetLanguage(requireContext());
             for (Language lang : languages) {
-                if (lang.code.equals("es")) {
+                if (lang.code.equals(savedTargetLanguage)) {
                     currentTargetLanguage = lang;
                     textView.setText(lang.displayName, false);
                     break;
@@ -74,7 +118,10 @@ public class TextTranslationFragment extends Fragment {
 
             textView.setOnItemClickListener((parent, view, position, id) -> {
                 currentTargetLanguage = (Language) parent.getItemAtPosition(position);
-                // No retranslateText() needed here, as translation is triggered by button click
+                LanguagePreferences.setTargetLanguage(requireContext(), currentTargetLanguage.code);
+                if (binding.liveTranslateSwitch.isChecked()) {
+                    scheduleLivePass(0);
+                }
             });
         }
     }
@@ -87,61 +134,181 @@ public class TextTranslationFragment extends Fragment {
         }
 
         setProcessing(true);
-        identifyLanguageAndTranslate(textToTranslate);
+        identifyLanguageAndTranslate(textToTranslate, generation.next());
     }
 
-    private void identifyLanguageAndTranslate(String text) {
-        languageIdentifier.identifyLanguage(text)
+    private void identifyLanguageAndTranslate(String text, RequestGeneration.Token token) {
+        EngineRegistry.getInstance().identifyLanguage(text)
                 .addOnSuccessListener(languageCode -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
                     if (languageCode.equals("und")) {
                         showToast("Could not identify language from text.");
                         setProcessing(false);
                     } else {
+                        LanguagePreferences.setSourceLanguage(requireContext(), languageCode);
                         if (currentTargetLanguage != null) {
-                            translateText(text, languageCode, currentTargetLanguage.code);
+                            translateText(text, languageCode, currentTargetLanguage.code, token);
                         }
                     }
                 })
                 .addOnFailureListener(e -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
                     showToast("Language identification failed: " + e.getMessage());
                     setProcessing(false);
                 });
     }
 
-    private void translateText(String text, String sourceLang, String targetLang) {
+    private void translateText(String text, String sourceLang, String targetLang, RequestGeneration.Token token) {
         setProcessing(true);
         String targetLangName = new Locale(targetLang).getDisplayLanguage();
-        binding.translatedTextView.setText("Downloading " + targetLangName + " model...");
-
-        TranslatorOptions options = new TranslatorOptions.Builder()
-                .setSourceLanguage(sourceLang)
-                .setTargetLanguage(targetLang)
-                .build();
-        Translator translator = Translation.getClient(options);
-
-        DownloadConditions conditions = new DownloadConditions.Builder().requireWifi().build();
-        translator.downloadModelIfNeeded(conditions)
-                .addOnSuccessListener(v -> translator.translate(text)
-                        .addOnSuccessListener(translatedText -> {
-                            binding.translatedTextView.setText(translatedText);
-                            setProcessing(false);
-                            translator.close();
-                        })
-                        .addOnFailureListener(e -> {
-                            showToast("Translation failed: " + e.getMessage());
-                            setProcessing(false);
-                            translator.close();
-                        }))
+        List<TextSegmenter.Segment> chunks = TextChunker.chunk(text, new Locale(sourceLang));
+        new StreamingTranslator(TranslationService.getInstance(requireContext()), TaskLimiter.defaultParallelism())
+                .translate(chunks, sourceLang, targetLang, null, token, () -> {
+                    if (token.isCurrent()) {
+                        binding.translatedTextView.setText("Downloading " + targetLangName + " model...");
+                    }
+                }, (translatedSoFar, completed, total) -> {
+                    if (token.isCurrent()) {
+                        binding.translatedTextView.setText(translatedSoFar);
+                    }
+                })
+                .addOnSuccessListener(translatedText -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    binding.translatedTextView.setText(translatedText);
+                    setProcessing(false);
+                })
                 .addOnFailureListener(e -> {
-                    showToast("Model download failed: " + e.getMessage());
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    showToast("Translation failed: " + e.getMessage());
                     setProcessing(false);
-                    translator.close();
                 });
     }
 
+    private void scheduleLivePass(long delayMs) {
+        liveHandler.removeCallbacks(livePass);
+        // Stop starting sentences for the text the user is already changing.
+        generation.next();
+        liveHandler.postDelayed(livePass, delayMs);
+    }
+
+    private void runLivePass() {
+        String text = binding.textInputEditText.getText().toString().trim();
+        RequestGeneration.Token token = generation.next();
+        if (text.isEmpty() || currentTargetLanguage == null) {
+            binding.translatedTextView.setText("");
+            return;
+        }
+        if (liveLanguage != null && !changedEnoughToReidentify(liveIdentifiedText, text)) {
+            translateLive(text, liveLanguage, currentTargetLanguage.code, token);
+            return;
+        }
+        EngineRegistry.getInstance().identifyLanguage(text)
+                .addOnSuccessListener(languageCode -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    if (!languageCode.equals("und")) {
+                        liveLanguage = languageCode;
+                        liveIdentifiedText = text;
+                        LanguagePreferences.setSourceLanguage(requireContext(), languageCode);
+                    }
+                    // Short fragments often come back undetermined; keep the last language until more is typed.
+                    if (liveLanguage != null) {
+                        translateLive(text, liveLanguage, currentTargetLanguage.code, token);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    if (token.isCurrent()) {
+                        binding.translatedTextView.setText("Language identification failed: " + e.getMessage());
+                    }
+                });
+    }
+
+    private static boolean changedEnoughToReidentify(String previous, String current) {
+        int prefix = 0;
+        int max = Math.min(previous.length(), current.length());
+        while (prefix < max && previous.charAt(prefix) == current.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && previous.charAt(previous.length() - 1 - suffix) == current.charAt(current.length() - 1 - suffix)) {
+            suffix++;
+        }
+        int changed = Math.max(previous.length(), current.length()) - prefix - suffix;
+        return changed >= LIVE_REIDENTIFY_MIN_CHARS || changed >= current.length() * LIVE_REIDENTIFY_RATIO;
+    }
+
+    private void translateLive(String text, String sourceLang, String targetLang, RequestGeneration.Token token) {
+        String pair = sourceLang + "->" + targetLang;
+        if (!pair.equals(livePair)) {
+            liveTranslations.clear();
+            livePair = pair;
+        }
+        if (sourceLang.equals(targetLang)) {
+            binding.translatedTextView.setText(text);
+            return;
+        }
+        List<TextSegmenter.Segment> sentences = TextSegmenter.sentences(text, new Locale(sourceLang));
+        String targetLangName = new Locale(targetLang).getDisplayLanguage();
+        new StreamingTranslator(TranslationService.getInstance(requireContext()), TaskLimiter.defaultParallelism())
+                .translate(sentences, sourceLang, targetLang, liveTranslations, token, () -> {
+                    if (token.isCurrent()) {
+                        binding.translatedTextView.setText("Downloading " + targetLangName + " model...");
+                    }
+                }, new StreamingTranslator.Listener() {
+                    @Override
+                    public void onPartialResult(@NonNull String translatedSoFar, int completed, int total) {
+                        // Only grow the visible text mid-pass so the sentence being typed does not flicker.
+                        if (token.isCurrent() && translatedSoFar.length() >= binding.translatedTextView.length()) {
+                            binding.translatedTextView.setText(translatedSoFar);
+                        }
+                    }
+
+                    @Override
+                    public void onSegmentTranslated(int index, @NonNull String source, @NonNull String translated) {
+                        // Late results from a superseded pass are still valid for the same pair.
+                        if (pair.equals(livePair)) {
+                            liveTranslations.put(source, translated);
+                        }
+                    }
+                })
+                .addOnSuccessListener(translatedText -> {
+                    if (!token.isCurrent()) {
+                        return;
+                    }
+                    binding.translatedTextView.setText(translatedText);
+                    retainSentences(sentences);
+                })
+                .addOnFailureListener(e -> {
+                    if (token.isCurrent()) {
+                        binding.translatedTextView.setText("Translation failed: " + e.getMessage());
+                    }
+                });
+    }
+
+    // Drops translations of sentences that are no longer in the input so the map tracks the text.
+    private void retainSentences(List<TextSegmenter.Segment> sentences) {
+        Set<String> current = new HashSet<>();
+        for (TextSegmenter.Segment sentence : sentences) {
+            current.add(sentence.text);
+        }
+        liveTranslations.keySet().retainAll(current);
+    }
+
     private void setProcessing(boolean isProcessing) {
-        // For now, just disable button
         binding.translateTextButton.setEnabled(!isProcessing);
+        // Toggling live mode would supersede the running request, whose callbacks would then
+        // never re-enable the input.
+        binding.liveTranslateSwitch.setEnabled(!isProcessing);
         binding.textInputLayout.setEnabled(!isProcessing);
         binding.targetLangMenu.setEnabled(!isProcessing);
     }
@@ -153,6 +320,9 @@ public class TextTranslationFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        liveHandler.removeCallbacks(livePass);
+        generation.cancelAll();
+        languageIdentifier.close();
         binding = null;
     }
 }
\ No newline at end of file
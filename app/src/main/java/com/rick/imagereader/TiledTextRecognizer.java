@@ -0,0 +1,111 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.text.TextRecognizer;
+import com.rick.imagereader.core.OcrScript;
+import com.rick.imagereader.core.RecognizedText;
+import com.rick.imagereader.core.TileGrid;
+import com.rick.imagereader.core.TileMerger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recognizes text in images too large to downscale to {@link ImageDecodePipeline#OCR_MAX_EDGE}
+ * without losing small print, or in a user-selected region of one. The area is split into
+ * overlapping tiles that are decoded one by one through a region decoder, so the full bitmap is
+ * never resident, and recognized in parallel; blocks seen by two tiles are merged.
+ */
+public final class TiledTextRecognizer {
+
+    // Output size of one decoded tile and the overlap shared with its neighbours.
+    private static final int TILE_EDGE = 1536;
+    private static final int TILE_OVERLAP = 160;
+    // Past this long edge the area is subsampled; recognizing more tiles stops paying off.
+    private static final int MAX_SAMPLED_EDGE = 8192;
+    private static final int MAX_TILES_IN_FLIGHT = 3;
+
+    private final ImageDecodePipeline decodePipeline;
+
+    public TiledTextRecognizer(@NonNull Context context) {
+        decodePipeline = ImageDecodePipeline.getInstance(context);
+    }
+
+    /** True when downscaling the whole image for OCR would discard more than half its resolution. */
+    public static boolean shouldTile(int width, int height) {
+        return Math.max(width, height) > 2 * ImageDecodePipeline.OCR_MAX_EDGE;
+    }
+
+    /**
+     * Recognizes {@code region} of the image, or all of it when null, with {@code script}'s
+     * recognizer. The region and the boxes of the result are in upright, full-resolution image
+     * pixels. Tiles not yet started when {@code token} goes stale are skipped and the task fails.
+     */
+    @NonNull
+    public Task<RecognizedText> recognize(@NonNull Uri uri, @Nullable Rect region, @NonNull OcrScript script,
+                                          @NonNull RequestGeneration.Token token) {
+        return decodePipeline.openRegions(uri).onSuccessTask(source -> {
+            Rect area = new Rect(0, 0, source.width, source.height);
+            if (region != null && !area.intersect(region)) {
+                source.close();
+                return Tasks.forResult(RecognizedText.EMPTY);
+            }
+            int sampleSize = 1;
+            while (Math.max(area.width(), area.height()) / sampleSize > MAX_SAMPLED_EDGE) {
+                sampleSize *= 2;
+            }
+            int sample = sampleSize;
+            List<TileGrid.Tile> tiles = TileGrid.compute(area.width(), area.height(),
+                    TILE_EDGE * sample, TILE_OVERLAP * sample);
+
+            EngineRegistry.Handle<TextRecognizer> recognizer = EngineRegistry.getInstance().acquireTextRecognizer(script);
+            // Tiles decode one at a time on the decode thread while earlier ones are recognized.
+            TaskLimiter limiter = new TaskLimiter(Math.min(MAX_TILES_IN_FLIGHT, TaskLimiter.defaultParallelism()));
+            List<Task<RecognizedText>> parts = new ArrayList<>(tiles.size());
+            for (TileGrid.Tile tile : tiles) {
+                Rect rect = new Rect(area.left + tile.left, area.top + tile.top,
+                        area.left + tile.right, area.top + tile.bottom);
+                parts.add(limiter.submit(() -> {
+                    // A superseded request skips the tiles it has not started yet.
+                    token.throwIfStale();
+                    return source.decode(rect, sample).onSuccessTask(bitmap -> {
+                        if (!token.isCurrent()) {
+                            decodePipeline.release(bitmap);
+                            token.throwIfStale();
+                        }
+                        double scale = rect.width() / (double) bitmap.getWidth();
+                        return PipelineTracer.begin(PipelineTracer.STAGE_OCR, script.name().toLowerCase(Locale.ROOT))
+                                .endWhen(recognizer.get().process(InputImage.fromBitmap(bitmap, 0)))
+                                .addOnCompleteListener(task -> decodePipeline.release(bitmap))
+                                .onSuccessTask(text -> Tasks.forResult(MlKitTextRecognitionEngine.toRecognizedText(text)
+                                        .transformed(scale, rect.left, rect.top)));
+                    });
+                }));
+            }
+            // Wait for every tile, failed or not: queued tiles still use the recognizer and the source.
+            return Tasks.whenAllComplete(parts).continueWith(done -> {
+                recognizer.close();
+                source.close();
+                List<RecognizedText> results = new ArrayList<>(parts.size());
+                for (Task<RecognizedText> part : parts) {
+                    if (!part.isSuccessful()) {
+                        Exception e = part.getException();
+                        throw e != null ? e : new IllegalStateException("Tile recognition cancelled");
+                    }
+                    results.add(part.getResult());
+                }
+                return TileMerger.merge(results);
+            });
+        });
+    }
+}
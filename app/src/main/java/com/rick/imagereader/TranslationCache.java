@@ -0,0 +1,207 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.rick.imagereader.core.CacheBudget;
+import com.rick.imagereader.core.CachingTranslationEngine;
+import com.rick.imagereader.core.TextNormalizer;
+import com.rick.imagereader.core.WeightedLruCache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache of finished translations: an in-memory LRU bounded by characters, backed by
+ * one file per entry under the app cache dir, bounded by bytes and evicted oldest-first.
+ */
+public final class TranslationCache {
+
+    private static final String TAG = "TranslationCache";
+    private static final int MEMORY_BUDGET_CHARS = 256 * 1024;
+    private static final long DISK_BUDGET_BYTES = 8L * 1024 * 1024;
+
+    private static TranslationCache instance;
+
+    // The same core cache the benchmarks measure.
+    private final WeightedLruCache<String, String> memory = CachingTranslationEngine.newCache(MEMORY_BUDGET_CHARS);
+    private final File directory;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Only touched on diskExecutor; -1 until the directory has been scanned once.
+    private long diskBytes = -1;
+
+    private TranslationCache(Context context) {
+        directory = new File(context.getCacheDir(), "translations");
+        CacheManager.getInstance().register("translations", new CacheBudget.Cache() {
+            @Override
+            public long sizeBytes() {
+                return memory.getWeight() * 2;
+            }
+
+            @Override
+            public void trimToBytes(long bytes) {
+                memory.trimTo(bytes / 2);
+            }
+        }, CacheManager.WEIGHT_RESULTS, CacheBudget.Priority.CHEAP);
+    }
+
+    public static synchronized TranslationCache getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new TranslationCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Hash of the normalized text and language pair, safe to use as a file name. */
+    @NonNull
+    public static String key(@NonNull String text, @NonNull String sourceLang, @NonNull String targetLang) {
+        return TextNormalizer.cacheKey(text, sourceLang, targetLang);
+    }
+
+    static String normalize(String text) {
+        return TextNormalizer.normalize(text);
+    }
+
+    /** Memory-only lookup, cheap enough to call on the main thread. */
+    @Nullable
+    public String getFromMemory(@NonNull String key) {
+        String value = memory.get(key);
+        if (value != null) {
+            memoryHits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /** Looks in memory, then on disk. The task resolves to {@code null} on a miss. */
+    @NonNull
+    public Task<String> get(@NonNull String key) {
+        String value = getFromMemory(key);
+        if (value != null) {
+            return Tasks.forResult(value);
+        }
+        return Tasks.call(diskExecutor, () -> {
+            File file = new File(directory, key);
+            if (!file.isFile()) {
+                misses.incrementAndGet();
+                return null;
+            }
+            try {
+                String stored = new String(readFully(file), StandardCharsets.UTF_8);
+                file.setLastModified(System.currentTimeMillis());
+                memory.put(key, stored);
+                CacheManager.getInstance().enforceBudget();
+                diskHits.incrementAndGet();
+                return stored;
+            } catch (IOException e) {
+                Log.w(TAG, "Dropping unreadable cache entry " + key, e);
+                deleteEntry(file);
+                misses.incrementAndGet();
+                return null;
+            }
+        });
+    }
+
+    public void put(@NonNull String key, @NonNull String translation) {
+        memory.put(key, translation);
+        CacheManager.getInstance().enforceBudget();
+        diskExecutor.execute(() -> {
+            File file = new File(directory, key);
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                return;
+            }
+            ensureDiskSizeKnown();
+            long previous = file.length();
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(translation.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to persist cache entry " + key, e);
+                file.delete();
+            }
+            diskBytes += file.length() - previous;
+            trimDisk();
+        });
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void ensureDiskSizeKnown() {
+        if (diskBytes >= 0) {
+            return;
+        }
+        diskBytes = 0;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                diskBytes += file.length();
+            }
+        }
+    }
+
+    private void trimDisk() {
+        if (diskBytes <= DISK_BUDGET_BYTES) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (diskBytes <= DISK_BUDGET_BYTES * 3 / 4) {
+                break;
+            }
+            deleteEntry(file);
+        }
+    }
+
+    private void deleteEntry(File file) {
+        long length = file.length();
+        if (file.delete() && diskBytes >= 0) {
+            diskBytes -= length;
+        }
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        byte[] data = new byte[(int) file.length()];
+        try (InputStream in = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < data.length) {
+                int read = in.read(data, offset, data.length - offset);
+                if (read < 0) {
+                    throw new IOException("Truncated cache entry");
+                }
+                offset += read;
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,228 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.rick.imagereader.core.TranslationMemory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One {@link TranslationMemory} per language pair, loaded on first use and kept on disk as an
+ * append-only file of (source, translation) records under the app files dir. A file is
+ * rewritten from memory once it holds twice the memory's capacity, and pair files are evicted
+ * oldest-first past the disk budget.
+ */
+public final class TranslationMemoryStore {
+
+    private static final String TAG = "TranslationMemoryStore";
+    private static final String PREFS_NAME = "translation_memory";
+    private static final String KEY_THRESHOLD = "similarity_threshold";
+    /** Threshold that turns fuzzy matching off; only exact (normalized) repeats are reused. */
+    public static final float THRESHOLD_OFF = 1f;
+    public static final float DEFAULT_THRESHOLD = 0.85f;
+    private static final int ENTRIES_PER_PAIR = 2000;
+    private static final long DISK_BUDGET_BYTES = 4L * 1024 * 1024;
+    // Longer segments rarely repeat word for word and would not fit a modified-UTF-8 record.
+    private static final int MAX_SEGMENT_CHARS = 4000;
+    private static final String FILE_SUFFIX = ".tm";
+
+    private static TranslationMemoryStore instance;
+
+    private final SharedPreferences prefs;
+    private final File directory;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Everything below is only touched on executor.
+    private final Map<String, TranslationMemory> memories = new HashMap<>();
+    private final Map<String, Integer> recordsOnDisk = new HashMap<>();
+
+    private TranslationMemoryStore(Context context) {
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        directory = new File(context.getFilesDir(), "translation_memory");
+    }
+
+    public static synchronized TranslationMemoryStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new TranslationMemoryStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public float getSimilarityThreshold() {
+        return prefs.getFloat(KEY_THRESHOLD, DEFAULT_THRESHOLD);
+    }
+
+    public void setSimilarityThreshold(float threshold) {
+        prefs.edit().putFloat(KEY_THRESHOLD, Math.max(0f, Math.min(THRESHOLD_OFF, threshold))).apply();
+    }
+
+    /** Resolves to a remembered translation similar enough to {@code text}, or {@code null}. */
+    @NonNull
+    public Task<TranslationMemory.Match> find(@NonNull String text, @NonNull String sourceLang,
+                                              @NonNull String targetLang) {
+        double threshold = getSimilarityThreshold();
+        return Tasks.call(executor, () -> memoryFor(sourceLang, targetLang).find(text, threshold));
+    }
+
+    public void record(@NonNull String text, @NonNull String sourceLang, @NonNull String targetLang,
+                       @NonNull String translation) {
+        if (text.length() > MAX_SEGMENT_CHARS || translation.length() > MAX_SEGMENT_CHARS) {
+            return;
+        }
+        executor.execute(() -> {
+            String pair = pairName(sourceLang, targetLang);
+            TranslationMemory memory = memoryFor(sourceLang, targetLang);
+            memory.add(text, translation);
+            int records = recordsOnDisk.containsKey(pair) ? recordsOnDisk.get(pair) : 0;
+            if (records + 1 >= 2 * ENTRIES_PER_PAIR) {
+                rewrite(pair, memory);
+            } else if (append(pair, text, translation)) {
+                recordsOnDisk.put(pair, records + 1);
+            }
+            trimDisk(pair);
+        });
+    }
+
+    /** Forgets every remembered translation. */
+    public void clear() {
+        executor.execute(() -> {
+            memories.clear();
+            recordsOnDisk.clear();
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    private static String pairName(String sourceLang, String targetLang) {
+        return sourceLang + "-" + targetLang;
+    }
+
+    private TranslationMemory memoryFor(String sourceLang, String targetLang) {
+        String pair = pairName(sourceLang, targetLang);
+        TranslationMemory memory = memories.get(pair);
+        if (memory == null) {
+            memory = new TranslationMemory(ENTRIES_PER_PAIR);
+            recordsOnDisk.put(pair, load(pair, memory));
+            memories.put(pair, memory);
+        }
+        return memory;
+    }
+
+    // Replays the pair's file oldest record first, so later translations win. Returns the record count.
+    private int load(String pair, TranslationMemory memory) {
+        File file = new File(directory, pair + FILE_SUFFIX);
+        if (!file.isFile()) {
+            return 0;
+        }
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                String source = in.readUTF();
+                memory.add(source, in.readUTF());
+                records++;
+            }
+        } catch (EOFException e) {
+            // End of file, or a record cut short by process death; everything before it is kept.
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to read translation memory " + file.getName(), e);
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return records;
+    }
+
+    private boolean append(String pair, String source, String target) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return false;
+        }
+        File file = new File(directory, pair + FILE_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file, true))) {
+            out.writeUTF(source);
+            out.writeUTF(target);
+            return true;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to append to " + file.getName(), e);
+            return false;
+        }
+    }
+
+    // Drops overwritten and evicted records by writing out only what memory still holds.
+    private void rewrite(String pair, TranslationMemory memory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        File file = new File(directory, pair + FILE_SUFFIX);
+        File temp = new File(directory, pair + FILE_SUFFIX + ".tmp");
+        int records = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            for (String[] entry : memory.entries()) {
+                out.writeUTF(entry[0]);
+                out.writeUTF(entry[1]);
+                records++;
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to compact " + file.getName(), e);
+            temp.delete();
+            return;
+        }
+        if (temp.renameTo(file)) {
+            recordsOnDisk.put(pair, records);
+        } else {
+            temp.delete();
+        }
+    }
+
+    private void trimDisk(String activePair) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long bytes = 0;
+        for (File file : files) {
+            bytes += file.length();
+        }
+        if (bytes <= DISK_BUDGET_BYTES) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (bytes <= DISK_BUDGET_BYTES * 3 / 4) {
+                break;
+            }
+            String name = file.getName();
+            String pair = name.endsWith(FILE_SUFFIX) ? name.substring(0, name.length() - FILE_SUFFIX.length()) : name;
+            // The pair being written is the one in use; compact it rather than lose it.
+            if (pair.equals(activePair)) {
+                continue;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                bytes -= length;
+                memories.remove(pair);
+                recordsOnDisk.remove(pair);
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.rick.imagereader.core.RecognizedText;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows an image with each recognized text block painted over by its translation, and supports
+ * pinch-zoom and panning. In region mode a drag selects a rectangle of the image instead.
+ *
+ * <p>Every block's label is rendered once into its own small bitmap. A new translation for one
+ * block re-renders only that label; panning and zooming only change the draw matrix, so a frame
+ * is the preview plus one cached bitmap per block with no text layout. Labels are rendered at the
+ * screen scale they are shown at, so once a zoom or pan settles the visible ones are re-rendered
+ * at the new scale, up to {@link #MAX_LABEL_PIXELS} each.
+ *
+ * <p>OCR boxes are axis-aligned, so a block on rotated text gets an upright label covering it.
+ */
+public class TranslationOverlayView extends View {
+
+    private static final float MAX_ZOOM = 5f;
+    private static final int LABEL_BACKGROUND = Color.argb(235, 250, 250, 250);
+    private static final int LABEL_TEXT = Color.rgb(20, 20, 20);
+    private static final float MIN_TEXT_PX = 6f;
+    // Bounds one label bitmap to 4 MB however far the user zooms in on a large block.
+    private static final int MAX_LABEL_PIXELS = 1024 * 1024;
+    // Scale changes smaller than this keep the current bitmap; it is still sharp enough.
+    private static final float RESCALE_TOLERANCE = 1.25f;
+    // Smaller drags are treated as accidental taps rather than a region.
+    private static final float MIN_REGION_PX = 24f;
+
+    public interface RegionListener {
+        /** {@code region} is in the pixels of the image passed to {@link #setImageBitmap}. */
+        void onRegionSelected(@NonNull RectF region);
+    }
+
+    private static final class Label {
+        // In preview pixels, which is also the space everything is drawn in.
+        final RectF bounds;
+        final int lineCount;
+        @Nullable
+        String text;
+        @Nullable
+        Bitmap bitmap;
+        // Bitmap pixels per preview pixel.
+        float renderScale;
+
+        Label(RectF bounds, int lineCount) {
+            this.bounds = bounds;
+            this.lineCount = lineCount;
+        }
+    }
+
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint regionPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Matrix baseMatrix = new Matrix();
+    private final Matrix drawMatrix = new Matrix();
+    private final Matrix inverseMatrix = new Matrix();
+    private final float[] touchPoint = new float[2];
+    private final RectF region = new RectF();
+    private final RectF imageBounds = new RectF();
+    private final List<Label> labels = new ArrayList<>();
+    private final ScaleGestureDetector scaleDetector;
+    private final GestureDetector gestureDetector;
+
+    @Nullable
+    private Bitmap image;
+    private boolean overlayVisible = true;
+    private float zoom = 1f;
+    private float panX;
+    private float panY;
+    @Nullable
+    private RegionListener regionListener;
+    private float regionStartX;
+    private float regionStartY;
+
+    public TranslationOverlayView(Context context) {
+        this(context, null);
+    }
+
+    public TranslationOverlayView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        textPaint.setColor(LABEL_TEXT);
+        regionPaint.setStyle(Paint.Style.STROKE);
+        regionPaint.setColor(Color.rgb(255, 193, 7));
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(@NonNull ScaleGestureDetector detector) {
+                zoomBy(detector.getScaleFactor(), detector.getFocusX(), detector.getFocusY());
+                return true;
+            }
+
+            @Override
+            public void onScaleEnd(@NonNull ScaleGestureDetector detector) {
+                renderVisibleLabels();
+            }
+        });
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(@Nullable MotionEvent e1, @NonNull MotionEvent e2, float dx, float dy) {
+                panBy(-dx, -dy);
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapConfirmed(@NonNull MotionEvent e) {
+                // Tap to peek at the original text under the translations.
+                overlayVisible = !overlayVisible;
+                invalidate();
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(@NonNull MotionEvent e) {
+                if (zoom > 1f) {
+                    zoom = 1f;
+                    panX = 0;
+                    panY = 0;
+                    updateDrawMatrix();
+                } else {
+                    zoomBy(2.5f, e.getX(), e.getY());
+                }
+                renderVisibleLabels();
+                return true;
+            }
+        });
+    }
+
+    public void setImageBitmap(@Nullable Bitmap bitmap) {
+        image = bitmap;
+        clearLabels();
+        region.setEmpty();
+        regionListener = null;
+        zoom = 1f;
+        panX = 0;
+        panY = 0;
+        if (bitmap != null) {
+            imageBounds.set(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        }
+        updateBaseMatrix();
+        invalidate();
+    }
+
+    /**
+     * Places one label per block. Boxes are in the coordinates of the image OCR ran on, which was
+     * {@code sourceWidth} pixels wide; they are scaled to the displayed preview.
+     */
+    public void setBlocks(@NonNull List<RecognizedText.Block> blocks, int sourceWidth) {
+        clearLabels();
+        if (image == null || sourceWidth <= 0) {
+            return;
+        }
+        float scale = image.getWidth() / (float) sourceWidth;
+        for (RecognizedText.Block block : blocks) {
+            RectF bounds = new RectF();
+            if (block.box != null) {
+                bounds.set(block.box.left * scale, block.box.top * scale,
+                        block.box.right * scale, block.box.bottom * scale);
+            }
+            labels.add(new Label(bounds, Math.max(1, block.lines.size())));
+        }
+        invalidate();
+    }
+
+    /**
+     * Makes the next drag select a region instead of panning; {@code listener} gets it once the
+     * finger lifts, after which the view returns to normal. Pass null to cancel.
+     */
+    public void setRegionSelection(@Nullable RegionListener listener) {
+        regionListener = listener;
+        region.setEmpty();
+        invalidate();
+    }
+
+    /** Replaces one block's translation and re-renders only that block's label. */
+    public void setBlockTranslation(int blockIndex, @NonNull String translation) {
+        if (blockIndex < 0 || blockIndex >= labels.size()) {
+            return;
+        }
+        Label label = labels.get(blockIndex);
+        if (translation.equals(label.text)) {
+            return;
+        }
+        label.text = translation;
+        renderLabel(label, labelScale(label));
+        invalidate();
+    }
+
+    private void clearLabels() {
+        for (Label label : labels) {
+            if (label.bitmap != null) {
+                label.bitmap.recycle();
+            }
+        }
+        labels.clear();
+    }
+
+    /** Re-renders the labels on screen whose bitmaps are noticeably off the current scale. */
+    private void renderVisibleLabels() {
+        RectF visible = new RectF(0, 0, getWidth(), getHeight());
+        inverseMatrix.mapRect(visible);
+        boolean changed = false;
+        for (Label label : labels) {
+            if (label.bitmap == null || !RectF.intersects(visible, label.bounds)) {
+                continue;
+            }
+            float scale = labelScale(label);
+            float ratio = scale / label.renderScale;
+            if (ratio > RESCALE_TOLERANCE || ratio < 1 / RESCALE_TOLERANCE) {
+                renderLabel(label, scale);
+                changed = true;
+            }
+        }
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    // Screen pixels per preview pixel, capped so the label bitmap stays within MAX_LABEL_PIXELS.
+    private float labelScale(Label label) {
+        float area = Math.max(1f, label.bounds.width() * label.bounds.height());
+        float cap = (float) Math.sqrt(MAX_LABEL_PIXELS / area);
+        return Math.max(1e-3f, Math.min(cap, drawMatrix.mapRadius(1f)));
+    }
+
+    private void renderLabel(Label label, float scale) {
+        int width = Math.round(label.bounds.width() * scale);
+        int height = Math.round(label.bounds.height() * scale);
+        if (width <= 0 || height <= 0 || label.text == null) {
+            return;
+        }
+        label.renderScale = scale;
+        if (label.bitmap == null || label.bitmap.getWidth() != width || label.bitmap.getHeight() != height) {
+            if (label.bitmap != null) {
+                label.bitmap.recycle();
+            }
+            label.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        Canvas canvas = new Canvas(label.bitmap);
+        canvas.drawColor(LABEL_BACKGROUND);
+        StaticLayout layout = fitText(label.text, width, height, label.lineCount, MIN_TEXT_PX * scale);
+        canvas.translate(0, Math.max(0, (height - layout.getHeight()) / 2f));
+        layout.draw(canvas);
+    }
+
+    // Starts from the size the source lines had and shrinks until the translation fits the box.
+    private StaticLayout fitText(String text, int width, int height, int lineCount, float minSize) {
+        float size = Math.max(minSize, height / (float) lineCount * 0.8f);
+        StaticLayout layout;
+        do {
+            textPaint.setTextSize(size);
+            layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, width)
+                    .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                    .setIncludePad(false)
+                    .build();
+            size *= 0.85f;
+        } while (layout.getHeight() > height && size >= minSize);
+        return layout;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateBaseMatrix();
+        renderVisibleLabels();
+    }
+
+    private void updateBaseMatrix() {
+        baseMatrix.reset();
+        if (image != null && getWidth() > 0 && getHeight() > 0) {
+            baseMatrix.setRectToRect(imageBounds, new RectF(0, 0, getWidth(), getHeight()), Matrix.ScaleToFit.CENTER);
+        }
+        updateDrawMatrix();
+    }
+
+    private void zoomBy(float factor, float focusX, float focusY) {
+        float newZoom = Math.max(1f, Math.min(MAX_ZOOM, zoom * factor));
+        float applied = newZoom / zoom;
+        // Keep the point under the fingers still while scaling.
+        panX = focusX - (focusX - panX) * applied;
+        panY = focusY - (focusY - panY) * applied;
+        zoom = newZoom;
+        updateDrawMatrix();
+    }
+
+    private void panBy(float dx, float dy) {
+        panX += dx;
+        panY += dy;
+        updateDrawMatrix();
+    }
+
+    private void updateDrawMatrix() {
+        // Clamp so a zoomed image cannot be dragged past its own edges.
+        float minPanX = getWidth() * (1 - zoom);
+        float minPanY = getHeight() * (1 - zoom);
+        panX = Math.min(0, Math.max(minPanX, panX));
+        panY = Math.min(0, Math.max(minPanY, panY));
+        drawMatrix.set(baseMatrix);
+        drawMatrix.postScale(zoom, zoom);
+        drawMatrix.postTranslate(panX, panY);
+        drawMatrix.invert(inverseMatrix);
+        invalidate();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (image == null) {
+            return super.onTouchEvent(event);
+        }
+        if (regionListener != null) {
+            return selectRegion(event);
+        }
+        // While zoomed or pinching, keep the enclosing scroll view from stealing the gesture.
+        if (zoom > 1f || event.getPointerCount() > 1) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= gestureDetector.onTouchEvent(event);
+        if (event.getActionMasked() == MotionEvent.ACTION_UP) {
+            // A pan may have brought labels rendered at another zoom into view.
+            renderVisibleLabels();
+        }
+        return handled || super.onTouchEvent(event);
+    }
+
+    private boolean selectRegion(MotionEvent event) {
+        getParent().requestDisallowInterceptTouchEvent(true);
+        touchPoint[0] = event.getX();
+        touchPoint[1] = event.getY();
+        inverseMatrix.mapPoints(touchPoint);
+        float x = Math.max(0, Math.min(imageBounds.right, touchPoint[0]));
+        float y = Math.max(0, Math.min(imageBounds.bottom, touchPoint[1]));
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                regionStartX = x;
+                regionStartY = y;
+                region.setEmpty();
+                break;
+            case MotionEvent.ACTION_MOVE:
+                region.set(Math.min(regionStartX, x), Math.min(regionStartY, y),
+                        Math.max(regionStartX, x), Math.max(regionStartY, y));
+                break;
+            case MotionEvent.ACTION_UP:
+                RegionListener listener = regionListener;
+                if (region.width() >= MIN_REGION_PX && region.height() >= MIN_REGION_PX && listener != null) {
+                    regionListener = null;
+                    listener.onRegionSelected(new RectF(region));
+                } else {
+                    region.setEmpty();
+                }
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                region.setEmpty();
+                break;
+            default:
+                break;
+        }
+        invalidate();
+        return true;
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (image == null) {
+            return;
+        }
+        int save = canvas.save();
+        canvas.concat(drawMatrix);
+        canvas.drawBitmap(image, 0, 0, bitmapPaint);
+        if (overlayVisible) {
+            for (int i = 0; i < labels.size(); i++) {
+                Label label = labels.get(i);
+                if (label.bitmap != null) {
+                    canvas.drawBitmap(label.bitmap, null, label.bounds, bitmapPaint);
+                }
+            }
+        }
+        if (!region.isEmpty()) {
+            // Keep the outline about two screen pixels wide at any zoom.
+            regionPaint.setStrokeWidth(2f / Math.max(1e-3f, drawMatrix.mapRadius(1f)));
+            canvas.drawRect(region, regionPaint);
+        }
+        canvas.restoreToCount(save);
+    }
+}
@@ -0,0 +1,129 @@
+package com.rick.imagereader;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.common.model.DownloadConditions;
+import com.rick.imagereader.core.TranslationMemory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single entry point for translating a piece of text: serves repeats from {@link TranslationCache},
+ * near-repeats from {@link TranslationMemoryStore}, and only falls back to a pooled translator
+ * when neither has it.
+ */
+public final class TranslationService {
+
+    public interface DownloadListener {
+        void onModelDownloadStarted();
+    }
+
+    private static TranslationService instance;
+
+    private final TranslationCache cache;
+    private final TranslationMemoryStore memory;
+    private final ModelStorageManager storage;
+    private final TranslatorPool pool = TranslatorPool.getInstance();
+    private final Map<String, Task<String>> inFlight = new HashMap<>();
+
+    private TranslationService(Context context) {
+        cache = TranslationCache.getInstance(context);
+        memory = TranslationMemoryStore.getInstance(context);
+        storage = ModelStorageManager.getInstance(context);
+    }
+
+    public static synchronized TranslationService getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new TranslationService(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @NonNull
+    public TranslationCache getCache() {
+        return cache;
+    }
+
+    @NonNull
+    public Task<String> translate(@NonNull String text, @NonNull String sourceLang, @NonNull String targetLang,
+                                  @Nullable DownloadListener downloadListener) {
+        String key = TranslationCache.key(text, sourceLang, targetLang);
+        synchronized (inFlight) {
+            // Both tabs (or a batch and a tab) asking for the same text share one translation.
+            Task<String> pending = inFlight.get(key);
+            if (pending != null) {
+                return pending;
+            }
+            Task<String> task = cache.get(key).continueWithTask(lookup -> {
+                String cached = lookup.isSuccessful() ? lookup.getResult() : null;
+                String pair = PipelineTracer.pair(sourceLang, targetLang);
+                if (cached != null) {
+                    PipelineMetrics.getInstance().increment("translation_cache.hit", pair);
+                    return Tasks.forResult(cached);
+                }
+                PipelineMetrics.getInstance().increment("translation_cache.miss", pair);
+                return translateWithMemoryOrModel(key, text, sourceLang, targetLang, downloadListener);
+            }).addOnCompleteListener(finished -> {
+                synchronized (inFlight) {
+                    inFlight.remove(key);
+                }
+            });
+            if (!task.isComplete()) {
+                inFlight.put(key, task);
+            }
+            return task;
+        }
+    }
+
+    private Task<String> translateWithMemoryOrModel(String key, String text, String sourceLang, String targetLang,
+                                                    @Nullable DownloadListener downloadListener) {
+        String pair = PipelineTracer.pair(sourceLang, targetLang);
+        return memory.find(text, sourceLang, targetLang).continueWithTask(lookup -> {
+            TranslationMemory.Match match = lookup.isSuccessful() ? lookup.getResult() : null;
+            if (match != null) {
+                PipelineMetrics.getInstance().increment("translation_memory.hit", pair);
+                // Not written to the exact cache: a fuzzy hit would outlive a change to the memory
+                // or its threshold there, and be served as this text's own translation.
+                return Tasks.forResult(match.target);
+            }
+            PipelineMetrics.getInstance().increment("translation_memory.miss", pair);
+            return translateWithModel(text, sourceLang, targetLang, downloadListener)
+                    .addOnSuccessListener(translated -> {
+                        cache.put(key, translated);
+                        memory.record(text, sourceLang, targetLang, translated);
+                    });
+        });
+    }
+
+    private Task<String> translateWithModel(String text, String sourceLang, String targetLang,
+                                            @Nullable DownloadListener downloadListener) {
+        TranslatorPool.Lease lease = pool.acquire(sourceLang, targetLang);
+        String pair = PipelineTracer.pair(sourceLang, targetLang);
+        boolean modelReady = lease.isModelReady();
+        storage.recordUse(sourceLang, targetLang);
+        if (downloadListener != null && !modelReady) {
+            downloadListener.onModelDownloadStarted();
+        }
+
+        DownloadConditions conditions = new DownloadConditions.Builder().requireWifi().build();
+        // Only time real downloads; the ready case resolves immediately and would drown them out.
+        PipelineTracer.Span downloadSpan = modelReady
+                ? null : PipelineTracer.begin(PipelineTracer.STAGE_MODEL_DOWNLOAD, pair);
+        Task<Void> download = lease.downloadModelIfNeeded(conditions);
+        if (downloadSpan != null) {
+            downloadSpan.endWhen(download);
+            // A new model may have pushed storage over quota; the lease keeps this pair's models safe.
+            download.addOnSuccessListener(v -> storage.enforceQuota());
+        }
+        return download
+                .onSuccessTask(v -> PipelineTracer.begin(PipelineTracer.STAGE_TRANSLATE, pair)
+                        .endWhen(lease.translator().translate(text)))
+                .addOnCompleteListener(task -> lease.close());
+    }
+}
@@ -0,0 +1,236 @@
+package com.rick.imagereader;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.mlkit.common.model.DownloadConditions;
+import com.google.mlkit.nl.translate.Translation;
+import com.google.mlkit.nl.translate.Translator;
+import com.google.mlkit.nl.translate.TranslatorOptions;
+import com.rick.imagereader.core.CacheBudget;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide pool of ML Kit {@link Translator} clients keyed by (source, target) pair.
+ * Clients are ref-counted so several screens can share a loaded model, kept in LRU order,
+ * and closed once they have been idle for a few minutes or when {@link CacheManager} needs
+ * the memory back.
+ */
+public final class TranslatorPool implements CacheBudget.Cache {
+
+    private static final int MAX_IDLE_CLIENTS = 4;
+    private static final long IDLE_TIMEOUT_MS = 3 * 60_000;
+    // Rough native footprint of a client with its model loaded; ML Kit does not report it.
+    static final long ESTIMATED_CLIENT_BYTES = 32L * 1024 * 1024;
+
+    private static TranslatorPool instance;
+
+    // Access-ordered, so iteration starts at the least recently used client.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable idleSweep = this::evictIdleClients;
+
+    private TranslatorPool() {
+    }
+
+    public static synchronized TranslatorPool getInstance() {
+        if (instance == null) {
+            instance = new TranslatorPool();
+            CacheManager.getInstance().registerNative("translators", instance,
+                    CacheManager.WEIGHT_TRANSLATORS, CacheBudget.Priority.EXPENSIVE);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a lease on a translator for the given pair, creating the client if needed.
+     * The caller must {@link Lease#close()} the lease once it no longer needs the translator.
+     */
+    @NonNull
+    public Lease acquire(@NonNull String sourceLang, @NonNull String targetLang) {
+        String key = sourceLang + "->" + targetLang;
+        Lease lease;
+        boolean created = false;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                TranslatorOptions options = new TranslatorOptions.Builder()
+                        .setSourceLanguage(sourceLang)
+                        .setTargetLanguage(targetLang)
+                        .build();
+                entry = new Entry(sourceLang, targetLang, Translation.getClient(options));
+                entries.put(key, entry);
+                trimToSize();
+                created = true;
+            }
+            entry.refCount++;
+            lease = new Lease(entry);
+        }
+        if (created) {
+            // Outside the lock: the budget may call back into this pool or another cache.
+            CacheManager.getInstance().enforceBudget();
+        }
+        return lease;
+    }
+
+    @Override
+    public synchronized long sizeBytes() {
+        return entries.size() * ESTIMATED_CLIENT_BYTES;
+    }
+
+    /** Closes idle clients, least recently used first; leased ones stay open whatever the target. */
+    @Override
+    public synchronized void trimToBytes(long bytes) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() * ESTIMATED_CLIENT_BYTES > bytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.refCount == 0) {
+                iterator.remove();
+                entry.translator.close();
+            }
+        }
+    }
+
+    /** Forgets cached download state for pairs using a model that was just deleted. */
+    public synchronized void invalidateModel(@NonNull String languageCode) {
+        for (Entry entry : entries.values()) {
+            if (entry.sourceLang.equals(languageCode) || entry.targetLang.equals(languageCode)) {
+                entry.modelDownload = null;
+            }
+        }
+    }
+
+    /** True while a leased translator uses the given language's model. */
+    public synchronized boolean isModelInUse(@NonNull String languageCode) {
+        for (Entry entry : entries.values()) {
+            if (entry.refCount > 0
+                    && (entry.sourceLang.equals(languageCode) || entry.targetLang.equals(languageCode))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.refCount--;
+        entry.lastReleasedAt = SystemClock.elapsedRealtime();
+        if (entry.refCount == 0) {
+            trimToSize();
+            handler.removeCallbacks(idleSweep);
+            handler.postDelayed(idleSweep, IDLE_TIMEOUT_MS);
+        }
+    }
+
+    private void trimToSize() {
+        int idle = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.refCount == 0) {
+                idle++;
+            }
+        }
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (idle > MAX_IDLE_CLIENTS && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.refCount == 0) {
+                iterator.remove();
+                entry.translator.close();
+                idle--;
+            }
+        }
+    }
+
+    private synchronized void evictIdleClients() {
+        long now = SystemClock.elapsedRealtime();
+        long nextSweepIn = -1;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.refCount > 0) {
+                continue;
+            }
+            long idleFor = now - entry.lastReleasedAt;
+            if (idleFor >= IDLE_TIMEOUT_MS) {
+                iterator.remove();
+                entry.translator.close();
+            } else {
+                long remaining = IDLE_TIMEOUT_MS - idleFor;
+                nextSweepIn = nextSweepIn < 0 ? remaining : Math.min(nextSweepIn, remaining);
+            }
+        }
+        if (nextSweepIn >= 0) {
+            handler.postDelayed(idleSweep, nextSweepIn);
+        }
+    }
+
+    private static final class Entry {
+        final String sourceLang;
+        final String targetLang;
+        final Translator translator;
+        int refCount;
+        long lastReleasedAt;
+        Task<Void> modelDownload;
+
+        Entry(String sourceLang, String targetLang, Translator translator) {
+            this.sourceLang = sourceLang;
+            this.targetLang = targetLang;
+            this.translator = translator;
+        }
+    }
+
+    /** A reference on a pooled translator. Closing it returns the client to the pool. */
+    public final class Lease implements Closeable {
+        private final Entry entry;
+        private boolean closed;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        @NonNull
+        public Translator translator() {
+            return entry.translator;
+        }
+
+        /** True once the model for this pair has been confirmed on disk by this pool. */
+        public boolean isModelReady() {
+            synchronized (TranslatorPool.this) {
+                return entry.modelDownload != null && entry.modelDownload.isSuccessful();
+            }
+        }
+
+        /**
+         * Shares a single download/verification task between all leases of the same pair,
+         * retrying on the next call if the previous attempt failed.
+         */
+        @NonNull
+        public Task<Void> downloadModelIfNeeded(@NonNull DownloadConditions conditions) {
+            synchronized (TranslatorPool.this) {
+                Task<Void> download = entry.modelDownload;
+                if (download == null || (download.isComplete() && !download.isSuccessful())) {
+                    download = entry.translator.downloadModelIfNeeded(conditions);
+                    entry.modelDownload = download;
+                }
+                return download;
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (TranslatorPool.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                release(entry);
+            }
+        }
+    }
+}
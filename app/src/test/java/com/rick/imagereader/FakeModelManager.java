@@ -0,0 +1,64 @@
+package com.rick.imagereader;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** A {@link ModelManager} whose downloads stay pending until the test completes them. */
+final class FakeModelManager implements ModelManager {
+
+    /** Every download started, in order, including retries. */
+    final List<String> downloadsStarted = new ArrayList<>();
+    private final Map<String, TaskCompletionSource<Void>> pending = new HashMap<>();
+    private final Set<String> downloaded = new HashSet<>();
+
+    @NonNull
+    @Override
+    public Task<Void> download(@NonNull String languageCode) {
+        downloadsStarted.add(languageCode);
+        TaskCompletionSource<Void> source = new TaskCompletionSource<>();
+        pending.put(languageCode, source);
+        return source.getTask();
+    }
+
+    @NonNull
+    @Override
+    public Task<Void> delete(@NonNull String languageCode) {
+        downloaded.remove(languageCode);
+        return Tasks.forResult(null);
+    }
+
+    @NonNull
+    @Override
+    public Task<Set<String>> getDownloadedLanguages() {
+        return Tasks.forResult(new HashSet<>(downloaded));
+    }
+
+    /** Models already on the device before the test starts. */
+    void install(@NonNull String... languageCodes) {
+        downloaded.addAll(Arrays.asList(languageCodes));
+    }
+
+    boolean isDownloading(@NonNull String languageCode) {
+        return pending.containsKey(languageCode);
+    }
+
+    void succeed(@NonNull String languageCode) {
+        downloaded.add(languageCode);
+        pending.remove(languageCode).setResult(null);
+    }
+
+    void fail(@NonNull String languageCode) {
+        pending.remove(languageCode).setException(new Exception("Network error"));
+    }
+}
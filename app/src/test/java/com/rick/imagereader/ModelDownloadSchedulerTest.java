@@ -0,0 +1,286 @@
+package com.rick.imagereader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.rick.imagereader.core.AdaptiveBudget;
+import com.rick.imagereader.core.DeviceStatus;
+import com.rick.imagereader.core.DeviceStatusProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ModelDownloadSchedulerTest {
+
+    private static final class MemoryStorage implements ModelDownloadScheduler.Storage {
+        String queue = "";
+        int maxParallel = -1;
+        final List<String> recorded = new ArrayList<>();
+        // When set, downloads and quota passes go to the real storage policy.
+        @Nullable
+        ModelStorageManager modelStorage;
+
+        @NonNull
+        @Override
+        public String loadQueue() {
+            return queue;
+        }
+
+        @Override
+        public void saveQueue(@NonNull String queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public int loadMaxParallel(int defaultValue) {
+            return maxParallel < 0 ? defaultValue : maxParallel;
+        }
+
+        @Override
+        public void saveMaxParallel(int maxParallel) {
+            this.maxParallel = maxParallel;
+        }
+
+        @Override
+        public void recordDownload(@NonNull String languageCode, boolean requestedByUser) {
+            recorded.add(languageCode);
+            if (modelStorage != null) {
+                modelStorage.recordDownload(languageCode, requestedByUser);
+            }
+        }
+
+        @Override
+        public void enforceQuota(@NonNull Set<String> keep) {
+            if (modelStorage != null) {
+                modelStorage.enforceQuota(keep);
+            }
+        }
+    }
+
+    // Delayed tasks run only when the test says so.
+    private static final class ManualTimer implements ModelDownloadScheduler.Timer {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        @Override
+        public void postDelayed(@NonNull Runnable task, long delayMs) {
+            tasks.add(task);
+            delays.add(delayMs);
+        }
+
+        void runAll() {
+            List<Runnable> due = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : due) {
+                task.run();
+            }
+        }
+    }
+
+    private static final class RecordingListener implements ModelDownloadScheduler.Listener {
+        ModelDownloadScheduler.Progress last;
+        final List<String> failed = new ArrayList<>();
+
+        @Override
+        public void onProgress(@NonNull ModelDownloadScheduler.Progress progress) {
+            last = progress;
+        }
+
+        @Override
+        public void onModelDownloaded(@NonNull String languageCode) {
+        }
+
+        @Override
+        public void onModelFailed(@NonNull String languageCode, @NonNull Exception error) {
+            failed.add(languageCode);
+        }
+    }
+
+    private FakeModelManager models;
+    // Storage clock; each reading is a millisecond after the last, so use order is never a tie.
+    private long now;
+    private MemoryStorage storage;
+    private ManualTimer timer;
+    private DeviceStatus status;
+    private AdaptiveBudget budget;
+
+    @Before
+    public void setUp() {
+        models = new FakeModelManager();
+        storage = new MemoryStorage();
+        timer = new ManualTimer();
+        status = DeviceStatus.NOMINAL;
+        budget = new AdaptiveBudget(new DeviceStatusProvider() {
+            @NonNull
+            @Override
+            public DeviceStatus current() {
+                return status;
+            }
+
+            @Override
+            public void setListener(@Nullable Runnable listener) {
+            }
+        }, () -> 0L);
+    }
+
+    private ModelDownloadScheduler newScheduler() {
+        return new ModelDownloadScheduler(models, storage, Runnable::run, timer, budget);
+    }
+
+    @Test
+    public void startsHigherPriorityRequestsFirst() {
+        ModelDownloadScheduler scheduler = newScheduler();
+        scheduler.setMaxParallelDownloads(1);
+        scheduler.enqueue("es", ModelDownloadScheduler.PRIORITY_BACKGROUND);
+        scheduler.enqueue("de", ModelDownloadScheduler.PRIORITY_BACKGROUND);
+        scheduler.enqueue("fr", ModelDownloadScheduler.PRIORITY_TARGET_LANGUAGE);
+        scheduler.enqueue("ja", ModelDownloadScheduler.PRIORITY_USER_REQUEST);
+
+        models.succeed("es");
+        models.succeed("ja");
+        models.succeed("fr");
+
+        assertEquals(Arrays.asList("es", "ja", "fr", "de"), models.downloadsStarted);
+    }
+
+    @Test
+    public void runsAtMostMaxParallelDownloads() {
+        ModelDownloadScheduler scheduler = newScheduler();
+        scheduler.setMaxParallelDownloads(2);
+        scheduler.enqueueAll(Arrays.asList("es", "de", "fr"), ModelDownloadScheduler.PRIORITY_BACKGROUND);
+
+        assertEquals(Arrays.asList("es", "de"), models.downloadsStarted);
+        models.succeed("de");
+        assertEquals(Arrays.asList("es", "de", "fr"), models.downloadsStarted);
+    }
+
+    @Test
+    public void retriesFailuresWithExponentialBackoff() {
+        ModelDownloadScheduler scheduler = newScheduler();
+        scheduler.enqueue("es", ModelDownloadScheduler.PRIORITY_USER_REQUEST);
+
+        models.fail("es");
+        assertFalse(models.isDownloading("es"));
+        assertTrue(scheduler.isPending("es"));
+        timer.runAll();
+        models.fail("es");
+        timer.runAll();
+        models.succeed("es");
+
+        assertEquals(Arrays.asList(2_000L, 4_000L), timer.delays);
+        assertEquals(Collections.nCopies(3, "es"), models.downloadsStarted);
+        assertEquals(Collections.singletonList("es"), storage.recorded);
+        assertFalse(scheduler.isPending("es"));
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() {
+        ModelDownloadScheduler scheduler = newScheduler();
+        RecordingListener listener = new RecordingListener();
+        scheduler.addListener(listener);
+        scheduler.enqueue("es", ModelDownloadScheduler.PRIORITY_USER_REQUEST);
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            models.fail("es");
+            timer.runAll();
+        }
+
+        assertEquals(5, models.downloadsStarted.size());
+        assertEquals(Collections.singletonList("es"), listener.failed);
+        assertTrue(timer.tasks.isEmpty());
+        assertFalse(scheduler.isPending("es"));
+    }
+
+    @Test
+    public void restoresQueueAfterRestart() {
+        ModelDownloadScheduler first = newScheduler();
+        first.setMaxParallelDownloads(1);
+        first.enqueue("es", ModelDownloadScheduler.PRIORITY_BACKGROUND);
+        first.enqueue("de", ModelDownloadScheduler.PRIORITY_BACKGROUND);
+        first.enqueue("fr", ModelDownloadScheduler.PRIORITY_USER_REQUEST);
+
+        // The process dies with "es" mid-download; a new scheduler resumes from storage.
+        models = new FakeModelManager();
+        ModelDownloadScheduler restored = newScheduler();
+
+        assertEquals(1, restored.getMaxParallelDownloads());
+        assertEquals(Collections.singletonList("fr"), models.downloadsStarted);
+        models.succeed("fr");
+        models.succeed("es");
+        assertEquals(Arrays.asList("fr", "es", "de"), models.downloadsStarted);
+    }
+
+    @Test
+    public void holdsBackgroundDownloadsWhileThrottled() {
+        status = new DeviceStatus(DeviceStatus.THERMAL_SEVERE, 80, false, false);
+        budget.refresh();
+        ModelDownloadScheduler scheduler = newScheduler();
+        RecordingListener listener = new RecordingListener();
+        scheduler.addListener(listener);
+
+        scheduler.enqueue("es", ModelDownloadScheduler.PRIORITY_BACKGROUND);
+        scheduler.enqueue("fr", ModelDownloadScheduler.PRIORITY_USER_REQUEST);
+
+        assertEquals(Collections.singletonList("fr"), models.downloadsStarted);
+        models.succeed("fr");
+        assertTrue(listener.last.paused);
+        assertEquals(Collections.singletonList("fr"), models.downloadsStarted);
+    }
+
+    @Test
+    public void keepsAUserRequestedDownloadAtQuota() {
+        ModelStorageManager modelStorage = new ModelStorageManager(models, new FakeSharedPreferences(), code -> false,
+                () -> ++now);
+        modelStorage.setQuota(ModelStorageManager.UNLIMITED_BYTES, 3);
+        models.install("en", "fr", "de");
+        modelStorage.recordUse("en", "fr");
+        modelStorage.recordUse("en", "de");
+        storage.modelStorage = modelStorage;
+        ModelDownloadScheduler scheduler = newScheduler();
+
+        // Every other model has been used; the new one has not, yet the user just asked for it.
+        scheduler.enqueue("ja", ModelDownloadScheduler.PRIORITY_USER_REQUEST);
+        models.succeed("ja");
+
+        Set<String> downloaded = models.getDownloadedLanguages().getResult();
+        assertTrue(downloaded.contains("ja"));
+        assertEquals(new HashSet<>(Arrays.asList("en", "de", "ja")), downloaded);
+
+        // A later pass with nothing to keep still ranks it as used, so it is not first to go.
+        modelStorage.setQuota(ModelStorageManager.UNLIMITED_BYTES, 2);
+        modelStorage.enforceQuota();
+        assertEquals(new HashSet<>(Arrays.asList("en", "ja")), models.getDownloadedLanguages().getResult());
+    }
+
+    @Test
+    public void keepsBackgroundDownloadsOfTheCurrentBatch() {
+        ModelStorageManager modelStorage = new ModelStorageManager(models, new FakeSharedPreferences(), code -> false,
+                () -> ++now);
+        modelStorage.setQuota(ModelStorageManager.UNLIMITED_BYTES, 2);
+        models.install("en", "fr");
+        modelStorage.recordUse("en", "fr");
+        storage.modelStorage = modelStorage;
+        ModelDownloadScheduler scheduler = newScheduler();
+        scheduler.setMaxParallelDownloads(1);
+
+        scheduler.enqueueAll(Arrays.asList("es", "it"), ModelDownloadScheduler.PRIORITY_BACKGROUND);
+        models.succeed("es");
+        models.succeed("it");
+
+        Set<String> downloaded = models.getDownloadedLanguages().getResult();
+        assertTrue(downloaded.contains("es"));
+        assertTrue(downloaded.contains("it"));
+        assertFalse(downloaded.contains("fr"));
+    }
+}
@@ -0,0 +1,24 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+// Run with: ./gradlew :benchmarks:jmh   (results in build/results/jmh/results.json)
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Allocation rate per operation alongside throughput and latency.
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    includes.addAll(providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(emptyList()))
+}
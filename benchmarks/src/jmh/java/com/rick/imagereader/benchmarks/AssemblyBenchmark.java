@@ -0,0 +1,59 @@
+package com.rick.imagereader.benchmarks;
+
+import com.rick.imagereader.core.OrderedAssembler;
+import com.rick.imagereader.core.TextChunker;
+import com.rick.imagereader.core.TextSegmenter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** In-order reassembly of chunks that finish in a shuffled order, with a listener on every prefix. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AssemblyBenchmark {
+
+    @Param({"2000", "50000"})
+    public int textLength;
+
+    private List<TextSegmenter.Segment> segments;
+    private int[] completionOrder;
+    private long prefixChars;
+
+    @Setup
+    public void setUp() {
+        segments = TextChunker.chunk(Documents.text(textLength, 5), Locale.ENGLISH, 120);
+        completionOrder = new int[segments.size()];
+        for (int i = 0; i < completionOrder.length; i++) {
+            completionOrder[i] = i;
+        }
+        Random random = new Random(7);
+        for (int i = completionOrder.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = completionOrder[i];
+            completionOrder[i] = completionOrder[j];
+            completionOrder[j] = swap;
+        }
+    }
+
+    @Benchmark
+    public String assemble() {
+        OrderedAssembler assembler = new OrderedAssembler(segments,
+                (assembledSoFar, completed, total) -> prefixChars += assembledSoFar.length());
+        for (int index : completionOrder) {
+            assembler.add(index, segments.get(index).text);
+        }
+        return assembler.getAssembled();
+    }
+}
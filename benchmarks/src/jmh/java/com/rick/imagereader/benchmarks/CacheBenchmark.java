@@ -0,0 +1,72 @@
+package com.rick.imagereader.benchmarks;
+
+import com.rick.imagereader.core.CachingTranslationEngine;
+import com.rick.imagereader.core.TextNormalizer;
+import com.rick.imagereader.core.WeightedLruCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the cache key and of lookups through the caching engine under a skewed workload. The
+ * cache is the {@link WeightedLruCache} behind the app's TranslationCache memory tier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CacheBenchmark {
+
+    private static final int DISTINCT_TEXTS = 4096;
+    private static final int HOT_TEXTS = 256;
+
+    /** Share of lookups (in percent) that go to a small hot set which fits in the cache. */
+    @Param({"50", "95"})
+    public int hotPercent;
+
+    private String[] texts;
+    private CachingTranslationEngine engine;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        texts = new String[DISTINCT_TEXTS];
+        long hotChars = 0;
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = Documents.text(80, i);
+            if (i < HOT_TEXTS) {
+                hotChars += texts[i].length();
+            }
+        }
+        // Room for the hot set plus as much again, so cold misses rarely push hot entries out.
+        WeightedLruCache<String, String> cache = CachingTranslationEngine.newCache(hotChars * 2);
+        engine = new CachingTranslationEngine(new FakeEngines.Translator(null, 1), cache);
+    }
+
+    @Benchmark
+    public String cacheKey(Cursor cursor) {
+        return TextNormalizer.cacheKey(texts[cursor.next++ & (DISTINCT_TEXTS - 1)], "en", "es");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String cachedTranslate(Cursor cursor) {
+        int step = cursor.next++ & Integer.MAX_VALUE;
+        int index = step % 100 < hotPercent
+                ? step % HOT_TEXTS
+                : HOT_TEXTS + (int) ((step * 7L) % (DISTINCT_TEXTS - HOT_TEXTS));
+        return engine.translate(texts[index], "en", "es").join();
+    }
+}
@@ -0,0 +1,43 @@
+package com.rick.imagereader.benchmarks;
+
+import com.rick.imagereader.core.TextChunker;
+import com.rick.imagereader.core.TextSegmenter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkingBenchmark {
+
+    @Param({"500", "20000"})
+    public int textLength;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = Documents.text(textLength, 1);
+    }
+
+    @Benchmark
+    public List<TextSegmenter.Segment> sentences() {
+        return TextSegmenter.sentences(text, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public List<TextSegmenter.Segment> chunk() {
+        return TextChunker.chunk(text, Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,39 @@
+package com.rick.imagereader.benchmarks;
+
+import java.util.Random;
+
+/** Seeded sample text, so every run benchmarks the same input. */
+final class Documents {
+
+    private static final String[] WORDS = {
+            "the", "menu", "station", "exit", "platform", "open", "daily", "from", "until", "closed",
+            "please", "do", "not", "enter", "without", "ticket", "price", "includes", "tax", "and",
+            "service", "fresh", "soup", "of", "the", "day", "served", "with", "bread", "warning",
+    };
+
+    private Documents() {
+    }
+
+    /** Roughly {@code length} characters of sentences, with line and paragraph breaks. */
+    static String text(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length + 64);
+        int sentencesInParagraph = 0;
+        while (text.length() < length) {
+            int words = 4 + random.nextInt(14);
+            for (int i = 0; i < words; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                if (i == 0) {
+                    word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+                }
+                text.append(word).append(i == words - 1 ? ". " : " ");
+            }
+            if (++sentencesInParagraph == 5) {
+                text.setLength(text.length() - 1);
+                text.append(random.nextBoolean() ? "\n\n" : "\n");
+                sentencesInParagraph = 0;
+            }
+        }
+        return text.toString().trim();
+    }
+}
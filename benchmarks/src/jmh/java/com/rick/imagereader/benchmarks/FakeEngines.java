@@ -0,0 +1,86 @@
+package com.rick.imagereader.benchmarks;
+
+import com.rick.imagereader.core.LanguageIdEngine;
+import com.rick.imagereader.core.RecognizedText;
+import com.rick.imagereader.core.TextRecognitionEngine;
+import com.rick.imagereader.core.TranslationEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Deterministic stand-ins for the ML engines. Each does a fixed amount of CPU work proportional
+ * to its input, so runs are comparable across machines without depending on timers or models.
+ */
+final class FakeEngines {
+
+    private FakeEngines() {
+    }
+
+    /** "Recognizes" a document string: blank lines separate blocks, line breaks separate lines. */
+    static final class Recognizer implements TextRecognitionEngine<String> {
+        private final Executor executor;
+
+        Recognizer(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public CompletableFuture<RecognizedText> recognize(String image) {
+            return CompletableFuture.supplyAsync(() -> {
+                List<RecognizedText.Block> blocks = new ArrayList<>();
+                int top = 0;
+                for (String blockText : image.split("\n\n")) {
+                    List<RecognizedText.Line> lines = new ArrayList<>();
+                    int blockTop = top;
+                    for (String line : blockText.split("\n")) {
+                        lines.add(new RecognizedText.Line(line, new RecognizedText.Box(0, top, line.length() * 8, top + 16)));
+                        top += 20;
+                    }
+                    blocks.add(new RecognizedText.Block(new RecognizedText.Box(0, blockTop, 800, top), lines));
+                    top += 20;
+                }
+                return new RecognizedText(blocks);
+            }, executor);
+        }
+    }
+
+    static final class LanguageId implements LanguageIdEngine {
+        @Override
+        public CompletableFuture<String> identify(String text) {
+            return CompletableFuture.completedFuture(text.trim().isEmpty() ? UNDETERMINED : "en");
+        }
+    }
+
+    /** Upper-cases its input after {@code workPerChar} rounds of hashing per character. */
+    static final class Translator implements TranslationEngine {
+        private final Executor executor;
+        private final int workPerChar;
+
+        Translator(Executor executor, int workPerChar) {
+            this.executor = executor;
+            this.workPerChar = workPerChar;
+        }
+
+        @Override
+        public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+            if (executor == null) {
+                return CompletableFuture.completedFuture(work(text));
+            }
+            return CompletableFuture.supplyAsync(() -> work(text), executor);
+        }
+
+        private String work(String text) {
+            int hash = 0;
+            for (int round = 0; round < workPerChar; round++) {
+                for (int i = 0; i < text.length(); i++) {
+                    hash = 31 * hash + text.charAt(i);
+                }
+            }
+            // Keeps the loop from being optimized away without changing the output.
+            return hash == 42 ? text : text.toUpperCase();
+        }
+    }
+}
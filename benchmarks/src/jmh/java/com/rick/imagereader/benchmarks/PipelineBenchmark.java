@@ -0,0 +1,61 @@
+package com.rick.imagereader.benchmarks;
+
+import com.rick.imagereader.core.CachingTranslationEngine;
+import com.rick.imagereader.core.TranslationPipeline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end pipeline runs over fake engines. SampleTime mode reports the latency distribution
+ * (p50 through p99.99), which is where scheduling and assembly regressions show first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PipelineBenchmark {
+
+    @Param({"2000", "20000"})
+    public int documentLength;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private ExecutorService ocrExecutor;
+    private ExecutorService translateExecutor;
+    private TranslationPipeline<String> pipeline;
+    private String document;
+
+    @Setup
+    public void setUp() {
+        ocrExecutor = Executors.newSingleThreadExecutor();
+        translateExecutor = Executors.newFixedThreadPool(3);
+        FakeEngines.Translator translator = new FakeEngines.Translator(translateExecutor, 64);
+        pipeline = new TranslationPipeline<>(new FakeEngines.Recognizer(ocrExecutor), new FakeEngines.LanguageId(),
+                cached ? new CachingTranslationEngine(translator, CachingTranslationEngine.newCache(1 << 20)) : translator,
+                3, 400);
+        document = Documents.text(documentLength, 11);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ocrExecutor.shutdownNow();
+        translateExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public TranslationPipeline.Result imageToTranslation() {
+        return pipeline.process(document, "es", null).join();
+    }
+}
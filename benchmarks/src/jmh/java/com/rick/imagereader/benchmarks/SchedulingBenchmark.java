@@ -0,0 +1,59 @@
+package com.rick.imagereader.benchmarks;
+
+import com.rick.imagereader.core.ConcurrencyLimiter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of bounding concurrency when many small translations are submitted at once, through
+ * the {@link ConcurrencyLimiter} that the app's TaskLimiter schedules with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SchedulingBenchmark {
+
+    private static final int OPERATIONS = 256;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private ExecutorService executor;
+    private FakeEngines.Translator translator;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        translator = new FakeEngines.Translator(executor, 4);
+        text = Documents.text(200, 3);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Object submitAll() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(parallelism);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            futures[i] = limiter.submit(() -> translator.translate(text, "en", "es"));
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+}
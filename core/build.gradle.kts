@@ -0,0 +1,15 @@
+plugins {
+    `java-library`
+}
+
+// Plain JVM code shared by the app and the benchmarks; nothing here may touch Android APIs.
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    api("androidx.annotation:annotation:1.8.0")
+
+    testImplementation("junit:junit:4.13.2")
+}
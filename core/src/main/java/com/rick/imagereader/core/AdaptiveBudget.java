@@ -0,0 +1,154 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Maps device conditions to a {@link PerformanceLevel} and the work budget that goes with it:
+ * worker parallelism, the live-camera frame interval, the OCR decode edge and whether background
+ * model downloads may run.
+ *
+ * <p>A worse level applies as soon as it is seen. A better one applies only after conditions
+ * have called for that same level for {@link #RECOVERY_MS}, so a device hovering at a threshold
+ * does not flap between budgets. The owner calls {@link #refresh()} whenever the provider reports a change,
+ * and again after {@link #millisUntilRecovery()} while a recovery is pending. Level changes go
+ * to {@link Listener}s on the thread that called {@link #refresh()}.
+ */
+public final class AdaptiveBudget {
+
+    public static final long RECOVERY_MS = 30_000;
+    static final int LOW_BATTERY_PERCENT = 20;
+    static final int CRITICAL_BATTERY_PERCENT = 5;
+
+    public interface Listener {
+        void onLevelChanged(@NonNull PerformanceLevel previous, @NonNull PerformanceLevel current,
+                            @NonNull DeviceStatus status);
+    }
+
+    private final DeviceStatusProvider provider;
+    private final LongSupplier clock;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private PerformanceLevel level = PerformanceLevel.FULL;
+    private DeviceStatus status = DeviceStatus.NOMINAL;
+    // When conditions started calling for betterTarget, a better level than the current one;
+    // -1 while they do not.
+    private long betterSince = -1;
+    private PerformanceLevel betterTarget;
+
+    public AdaptiveBudget(@NonNull DeviceStatusProvider provider, @NonNull LongSupplier clock) {
+        this.provider = provider;
+        this.clock = clock;
+        refresh();
+    }
+
+    /** The level that {@code status} calls for, ignoring hysteresis. */
+    @NonNull
+    public static PerformanceLevel levelFor(@NonNull DeviceStatus status) {
+        if (status.thermalStatus >= DeviceStatus.THERMAL_SEVERE || status.isBatteryAtOrBelow(CRITICAL_BATTERY_PERCENT)) {
+            return PerformanceLevel.MINIMAL;
+        }
+        if (status.thermalStatus >= DeviceStatus.THERMAL_LIGHT || status.powerSave
+                || status.isBatteryAtOrBelow(LOW_BATTERY_PERCENT)) {
+            return PerformanceLevel.REDUCED;
+        }
+        return PerformanceLevel.FULL;
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Reads the provider again and moves to the level it calls for, within the hysteresis rules. */
+    public void refresh() {
+        DeviceStatus current = provider.current();
+        PerformanceLevel previous;
+        PerformanceLevel next;
+        synchronized (this) {
+            status = current;
+            previous = level;
+            PerformanceLevel target = levelFor(current);
+            long now = clock.getAsLong();
+            if (target.isWorseThan(level) || target == level) {
+                betterSince = -1;
+                level = target;
+            } else if (betterSince < 0 || target != betterTarget) {
+                // A different better level must hold for the full period on its own.
+                betterSince = now;
+                betterTarget = target;
+            } else if (now - betterSince >= RECOVERY_MS) {
+                betterSince = -1;
+                level = target;
+            }
+            next = level;
+        }
+        if (next != previous) {
+            for (Listener listener : listeners) {
+                listener.onLevelChanged(previous, next, current);
+            }
+        }
+    }
+
+    /** How long until a pending recovery may apply, or -1 when none is pending. */
+    public synchronized long millisUntilRecovery() {
+        return betterSince < 0 ? -1 : Math.max(0, RECOVERY_MS - (clock.getAsLong() - betterSince));
+    }
+
+    @NonNull
+    public synchronized PerformanceLevel level() {
+        return level;
+    }
+
+    @NonNull
+    public synchronized DeviceStatus status() {
+        return status;
+    }
+
+    /** Workers to run where {@code max} would be used at full performance; at least one. */
+    public int parallelism(int max) {
+        switch (level()) {
+            case MINIMAL:
+                return 1;
+            case REDUCED:
+                return Math.max(1, max / 2);
+            default:
+                return Math.max(1, max);
+        }
+    }
+
+    /** Minimum time between analyzed live-camera frames; 0 analyzes every frame. */
+    public long frameIntervalMs() {
+        switch (level()) {
+            case MINIMAL:
+                return 1000;
+            case REDUCED:
+                return 250;
+            default:
+                return 0;
+        }
+    }
+
+    /** The long edge to decode for OCR where {@code fullEdge} would be used at full performance. */
+    public int ocrMaxEdge(int fullEdge) {
+        switch (level()) {
+            case MINIMAL:
+                return fullEdge * 5 / 8;
+            case REDUCED:
+                return fullEdge * 3 / 4;
+            default:
+                return fullEdge;
+        }
+    }
+
+    /** Whether downloads nobody is waiting on should run now. */
+    public boolean allowsBackgroundDownloads() {
+        return level() == PerformanceLevel.FULL;
+    }
+}
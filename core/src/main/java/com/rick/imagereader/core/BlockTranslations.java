@@ -0,0 +1,74 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Chunks a list of OCR blocks for translation and reports each block's full translation as soon
+ * as all of its chunks are in, so a block can be rendered without waiting for the blocks before it.
+ */
+public final class BlockTranslations {
+
+    public interface Listener {
+        void onBlockTranslated(int blockIndex, @NonNull String translation);
+    }
+
+    private final List<TextSegmenter.Segment> segments = new ArrayList<>();
+    // For every segment, the block it came from; segments of a block are contiguous.
+    private final List<Integer> owners = new ArrayList<>();
+    private final int[] firstSegment;
+    private final int[] remaining;
+    private final String[] translated;
+    private final Listener listener;
+
+    public BlockTranslations(@NonNull List<String> blocks, @NonNull Locale locale, @NonNull Listener listener) {
+        this.listener = listener;
+        firstSegment = new int[blocks.size()];
+        remaining = new int[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            firstSegment[i] = segments.size();
+            List<TextSegmenter.Segment> blockChunks = TextChunker.chunk(blocks.get(i), locale);
+            if (!blockChunks.isEmpty()) {
+                int last = blockChunks.size() - 1;
+                String separator = i < blocks.size() - 1 ? "\n\n" : "";
+                blockChunks.set(last, new TextSegmenter.Segment(blockChunks.get(last).text, separator));
+            }
+            for (TextSegmenter.Segment chunk : blockChunks) {
+                segments.add(chunk);
+                owners.add(i);
+            }
+            remaining[i] = blockChunks.size();
+        }
+        translated = new String[segments.size()];
+    }
+
+    /** Every block's chunks in order, joined by blank lines between blocks. */
+    @NonNull
+    public List<TextSegmenter.Segment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    public synchronized void onSegmentTranslated(int segmentIndex, @NonNull String text) {
+        if (translated[segmentIndex] != null) {
+            return;
+        }
+        translated[segmentIndex] = text;
+        int block = owners.get(segmentIndex);
+        if (--remaining[block] > 0) {
+            return;
+        }
+        StringBuilder blockText = new StringBuilder();
+        int end = block + 1 < firstSegment.length ? firstSegment[block + 1] : segments.size();
+        for (int i = firstSegment[block]; i < end; i++) {
+            blockText.append(translated[i]);
+            if (i < end - 1) {
+                blockText.append(segments.get(i).trailing);
+            }
+        }
+        listener.onBlockTranslated(block, blockText.toString());
+    }
+}
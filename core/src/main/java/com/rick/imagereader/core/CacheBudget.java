@@ -0,0 +1,199 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One memory budget shared by every cache that registers with it. Each cache gets a share of
+ * the budget in proportion to its weight, and a {@link Priority} saying how costly its entries
+ * are to rebuild.
+ *
+ * <p>{@link #enforce()} leaves caches alone while the total fits. Past the budget it trims
+ * caches over their share back to it, cheapest to rebuild first, and if that is not enough
+ * (an expensive cache holding entries that are in use, say) takes the rest from the cheapest
+ * caches regardless of share. {@link #shed(Pressure)} trims by priority for system memory
+ * pressure, independent of the budget.
+ *
+ * <p>No lock is held while caches are called, so a cache may call {@link #enforce()} as long
+ * as it does so outside its own lock.
+ */
+public final class CacheBudget {
+
+    /** What a registered cache exposes: its footprint and a way to shrink it. */
+    public interface Cache {
+        /** Bytes currently held, estimated where the memory is not on the Java heap. */
+        long sizeBytes();
+
+        /** Drops entries, least valuable first, until at most {@code bytes} remain or none can go. */
+        void trimToBytes(long bytes);
+    }
+
+    /** How costly a cache's entries are to rebuild, and so how late they are shed. */
+    public enum Priority {
+        CHEAP,
+        MODERATE,
+        EXPENSIVE
+    }
+
+    /** Levels of system memory pressure, each keeping a fraction of every priority's entries. */
+    public enum Pressure {
+        MODERATE(0.5, 1, 1),
+        LOW(0, 0.5, 1),
+        CRITICAL(0, 0, 0.5),
+        COMPLETE(0, 0, 0);
+
+        private final double[] keepFractions;
+
+        Pressure(double cheap, double moderate, double expensive) {
+            keepFractions = new double[]{cheap, moderate, expensive};
+        }
+
+        public double keepFraction(@NonNull Priority priority) {
+            return keepFractions[priority.ordinal()];
+        }
+    }
+
+    /** One cache's footprint against its share of the budget, for reporting. */
+    public static final class Occupancy {
+        @NonNull
+        public final String name;
+        @NonNull
+        public final Priority priority;
+        public final long bytes;
+        public final long shareBytes;
+
+        Occupancy(@NonNull String name, @NonNull Priority priority, long bytes, long shareBytes) {
+            this.name = name;
+            this.priority = priority;
+            this.bytes = bytes;
+            this.shareBytes = shareBytes;
+        }
+    }
+
+    private static final class Registration {
+        final String name;
+        final Cache cache;
+        final int weight;
+        final Priority priority;
+
+        Registration(String name, Cache cache, int weight, Priority priority) {
+            this.name = name;
+            this.cache = cache;
+            this.weight = weight;
+            this.priority = priority;
+        }
+    }
+
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private volatile long budgetBytes;
+
+    public CacheBudget(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public void register(@NonNull String name, @NonNull Cache cache, int weight, @NonNull Priority priority) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight must be at least 1");
+        }
+        registrations.add(new Registration(name, cache, weight, priority));
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        enforce();
+    }
+
+    public long totalBytes() {
+        long total = 0;
+        for (Registration registration : registrations) {
+            total += registration.cache.sizeBytes();
+        }
+        return total;
+    }
+
+    /** Brings the total back within the budget, if it is over. */
+    public void enforce() {
+        long excess = totalBytes() - budgetBytes;
+        if (excess <= 0) {
+            return;
+        }
+        List<Registration> cheapestFirst = cheapestFirst();
+        int totalWeight = totalWeight(cheapestFirst);
+        for (Registration registration : cheapestFirst) {
+            long size = registration.cache.sizeBytes();
+            long share = shareOf(registration, totalWeight);
+            if (size > share) {
+                excess -= trim(registration, Math.max(share, size - excess));
+                if (excess <= 0) {
+                    return;
+                }
+            }
+        }
+        for (Registration registration : cheapestFirst) {
+            long size = registration.cache.sizeBytes();
+            excess -= trim(registration, Math.max(0, size - excess));
+            if (excess <= 0) {
+                return;
+            }
+        }
+    }
+
+    /** Keeps {@link Pressure#keepFraction} of each cache, by its priority. */
+    public void shed(@NonNull Pressure pressure) {
+        for (Registration registration : cheapestFirst()) {
+            double keep = pressure.keepFraction(registration.priority);
+            if (keep < 1) {
+                trim(registration, (long) (registration.cache.sizeBytes() * keep));
+            }
+        }
+    }
+
+    /** Every registered cache's footprint, in registration order. */
+    @NonNull
+    public List<Occupancy> occupancy() {
+        int totalWeight = totalWeight(registrations);
+        List<Occupancy> occupancy = new ArrayList<>(registrations.size());
+        for (Registration registration : registrations) {
+            occupancy.add(new Occupancy(registration.name, registration.priority,
+                    registration.cache.sizeBytes(), shareOf(registration, totalWeight)));
+        }
+        return occupancy;
+    }
+
+    // Returns how many bytes the cache actually gave back.
+    private static long trim(Registration registration, long toBytes) {
+        long before = registration.cache.sizeBytes();
+        if (before <= toBytes) {
+            return 0;
+        }
+        registration.cache.trimToBytes(toBytes);
+        return before - registration.cache.sizeBytes();
+    }
+
+    private List<Registration> cheapestFirst() {
+        List<Registration> sorted = new ArrayList<>(registrations);
+        // Stable, so caches of equal priority keep registration order.
+        Collections.sort(sorted, (a, b) -> a.priority.compareTo(b.priority));
+        return sorted;
+    }
+
+    private static int totalWeight(List<Registration> registrations) {
+        int total = 0;
+        for (Registration registration : registrations) {
+            total += registration.weight;
+        }
+        return total;
+    }
+
+    private long shareOf(Registration registration, int totalWeight) {
+        return totalWeight == 0 ? 0 : budgetBytes * registration.weight / totalWeight;
+    }
+}
@@ -0,0 +1,40 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serves repeated translations from a {@link WeightedLruCache} keyed by
+ * {@link TextNormalizer#cacheKey}, so equivalent OCR output is only translated once.
+ */
+public final class CachingTranslationEngine implements TranslationEngine {
+
+    private final TranslationEngine delegate;
+    private final WeightedLruCache<String, String> cache;
+
+    public CachingTranslationEngine(@NonNull TranslationEngine delegate, @NonNull WeightedLruCache<String, String> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /** A cache bounded by the number of characters held, like the app's memory tier. */
+    @NonNull
+    public static WeightedLruCache<String, String> newCache(long maxChars) {
+        return new WeightedLruCache<>(maxChars, (key, value) -> value.length());
+    }
+
+    @NonNull
+    @Override
+    public CompletableFuture<String> translate(@NonNull String text, @NonNull String sourceLang, @NonNull String targetLang) {
+        String key = TextNormalizer.cacheKey(text, sourceLang, targetLang);
+        String cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return delegate.translate(text, sourceLang, targetLang).thenApply(translated -> {
+            cache.put(key, translated);
+            return translated;
+        });
+    }
+}
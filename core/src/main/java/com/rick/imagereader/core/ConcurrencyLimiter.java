@@ -0,0 +1,112 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Starts asynchronous operations with at most {@code maxConcurrent} of them in flight; the rest
+ * wait in FIFO order. The limit can change while operations run; lowering it lets running ones
+ * finish and holds back new ones until the count drops below it. The app's {@code TaskLimiter}
+ * adapts this to Play services Tasks.
+ */
+public final class ConcurrencyLimiter {
+
+    public interface Operation<T> {
+        @NonNull
+        CompletableFuture<T> start() throws Exception;
+    }
+
+    private int maxConcurrent;
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private int running;
+
+    public ConcurrencyLimiter(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    @NonNull
+    public <T> CompletableFuture<T> submit(@NonNull Operation<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> future;
+            try {
+                future = operation.start();
+            } catch (Exception e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            future.whenComplete((value, error) -> {
+                // Release the slot first so a dependent stage submitted from the callback can start.
+                onFinished();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+
+        boolean startNow;
+        synchronized (this) {
+            startNow = running < maxConcurrent;
+            if (startNow) {
+                running++;
+            } else {
+                queue.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        List<Runnable> toStart = new ArrayList<>();
+        synchronized (this) {
+            this.maxConcurrent = maxConcurrent;
+            while (running < maxConcurrent && !queue.isEmpty()) {
+                running++;
+                toStart.add(queue.poll());
+            }
+        }
+        for (Runnable start : toStart) {
+            start.run();
+        }
+    }
+
+    public synchronized int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    private void onFinished() {
+        Runnable next;
+        synchronized (this) {
+            next = running <= maxConcurrent ? queue.poll() : null;
+            if (next == null) {
+                running--;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A snapshot of the conditions that throttle the device: thermal status, battery charge and
+ * power-save mode. Thermal values follow Android's {@code PowerManager.THERMAL_STATUS_*} scale.
+ */
+public final class DeviceStatus {
+
+    public static final int THERMAL_NONE = 0;
+    public static final int THERMAL_LIGHT = 1;
+    public static final int THERMAL_MODERATE = 2;
+    public static final int THERMAL_SEVERE = 3;
+    public static final int THERMAL_CRITICAL = 4;
+    /** Battery level when the device does not report one. */
+    public static final int BATTERY_UNKNOWN = -1;
+
+    /** A cool, charged device, assumed until the first real reading. */
+    public static final DeviceStatus NOMINAL = new DeviceStatus(THERMAL_NONE, BATTERY_UNKNOWN, true, false);
+
+    public final int thermalStatus;
+    public final int batteryPercent;
+    public final boolean charging;
+    public final boolean powerSave;
+
+    public DeviceStatus(int thermalStatus, int batteryPercent, boolean charging, boolean powerSave) {
+        this.thermalStatus = thermalStatus;
+        this.batteryPercent = batteryPercent;
+        this.charging = charging;
+        this.powerSave = powerSave;
+    }
+
+    /** True when the battery is known, not charging, and at or below {@code percent}. */
+    public boolean isBatteryAtOrBelow(int percent) {
+        return !charging && batteryPercent != BATTERY_UNKNOWN && batteryPercent <= percent;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "thermal=" + thermalStatus + " battery=" + (batteryPercent == BATTERY_UNKNOWN ? "?" : batteryPercent + "%")
+                + (charging ? " charging" : "") + (powerSave ? " power-save" : "");
+    }
+}
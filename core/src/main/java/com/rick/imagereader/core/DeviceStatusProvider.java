@@ -0,0 +1,14 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/** Source of {@link DeviceStatus} readings; the platform one in the app, a fake in tests. */
+public interface DeviceStatusProvider {
+
+    @NonNull
+    DeviceStatus current();
+
+    /** {@code listener} runs whenever the status may have changed; null stops notifications. */
+    void setListener(@Nullable Runnable listener);
+}
@@ -0,0 +1,84 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Image fingerprints for the OCR cache: an exact content hash over every decoded pixel, and a
+ * 64-bit difference hash that stays put across near-identical shots of the same scene.
+ */
+public final class ImageHashes {
+
+    /** The difference hash compares horizontal neighbours on a grid of this size. */
+    public static final int DHASH_WIDTH = 9;
+    public static final int DHASH_HEIGHT = 8;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ImageHashes() {
+    }
+
+    /**
+     * FNV-1a style hash that mixes whole ARGB pixels rather than single bytes: one multiply per
+     * pixel keeps a full-resolution pass well under the cost of running OCR. Not for security.
+     */
+    public static final class ContentHasher {
+        private long hash = FNV_OFFSET;
+
+        public ContentHasher(int width, int height) {
+            mix(width);
+            mix(height);
+        }
+
+        public void update(@NonNull int[] pixels, int offset, int length) {
+            long h = hash;
+            for (int i = offset; i < offset + length; i++) {
+                h = (h ^ (pixels[i] & 0xFFFFFFFFL)) * FNV_PRIME;
+            }
+            hash = h;
+        }
+
+        public long finish() {
+            // Final avalanche so nearby images do not land on nearby hashes.
+            long h = hash;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+
+        private void mix(int value) {
+            hash = (hash ^ (value & 0xFFFFFFFFL)) * FNV_PRIME;
+        }
+    }
+
+    /**
+     * Difference hash of a {@link #DHASH_WIDTH} x {@link #DHASH_HEIGHT} ARGB thumbnail: each bit
+     * says whether a pixel is brighter than its right-hand neighbour.
+     */
+    public static long differenceHash(@NonNull int[] thumbnail) {
+        if (thumbnail.length != DHASH_WIDTH * DHASH_HEIGHT) {
+            throw new IllegalArgumentException("Expected a " + DHASH_WIDTH + "x" + DHASH_HEIGHT + " thumbnail");
+        }
+        long hash = 0;
+        for (int y = 0; y < DHASH_HEIGHT; y++) {
+            for (int x = 0; x < DHASH_WIDTH - 1; x++) {
+                int left = luminance(thumbnail[y * DHASH_WIDTH + x]);
+                int right = luminance(thumbnail[y * DHASH_WIDTH + x + 1]);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    public static int hammingDistance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static int luminance(int argb) {
+        int r = (argb >> 16) & 0xFF;
+        int g = (argb >> 8) & 0xFF;
+        int b = argb & 0xFF;
+        return (r * 299 + g * 587 + b * 114) / 1000;
+    }
+}
@@ -0,0 +1,16 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/** Identifies the language of a piece of text. */
+public interface LanguageIdEngine {
+
+    /** Returned when the language cannot be determined. */
+    String UNDETERMINED = "und";
+
+    /** Resolves to a BCP-47 language code, or {@link #UNDETERMINED}. */
+    @NonNull
+    CompletableFuture<String> identify(@NonNull String text);
+}
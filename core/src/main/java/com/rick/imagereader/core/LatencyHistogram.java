@@ -0,0 +1,95 @@
+package com.rick.imagereader.core;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size latency histogram with log-linear buckets in the style of HdrHistogram: every power
+ * of two is split into 32 linear sub-buckets, so any recorded value is reported within about 3%
+ * while memory stays constant regardless of how many values are recorded. Values are microseconds.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values at or above 2^36 us (about 19 hours) land in the last bucket.
+    private static final int MAX_MAGNITUDE = 36;
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalValue;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+
+    public synchronized void recordValue(long valueMicros) {
+        long value = Math.max(0, valueMicros);
+        counts[indexFor(value)]++;
+        totalCount++;
+        totalValue += value;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    public synchronized long getMinValue() {
+        return totalCount == 0 ? 0 : minValue;
+    }
+
+    public synchronized long getMaxValue() {
+        return maxValue;
+    }
+
+    public synchronized double getMean() {
+        return totalCount == 0 ? 0 : (double) totalValue / totalCount;
+    }
+
+    /** The smallest recorded value (to bucket precision) that {@code percentile}% of values do not exceed. */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(maxValue, highestValueIn(i));
+            }
+        }
+        return maxValue;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalValue = 0;
+        minValue = Long.MAX_VALUE;
+        maxValue = 0;
+    }
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = Math.min(MAX_MAGNITUDE, 63 - Long.numberOfLeadingZeros(value));
+        if (magnitude == MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+        int bucket = magnitude - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return bucket * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int index) {
+        int bucket = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+        if (bucket == 0) {
+            return subBucket;
+        }
+        long width = 1L << (bucket - 1);
+        return (SUB_BUCKETS + subBucket) * width + width - 1;
+    }
+}
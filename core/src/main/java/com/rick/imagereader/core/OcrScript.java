@@ -0,0 +1,15 @@
+package com.rick.imagereader.core;
+
+/**
+ * Writing systems with their own bundled recognizer. Every non-Latin recognizer also reads
+ * Latin text, but the Latin one is the smallest and fastest. Declaration order is the default
+ * probing order: Japanese comes before Chinese because it reads both kana and kanji, so one
+ * probe tells the two apart.
+ */
+public enum OcrScript {
+    LATIN,
+    JAPANESE,
+    CHINESE,
+    KOREAN,
+    DEVANAGARI
+}
@@ -0,0 +1,74 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Joins translated segments back together in input order while they complete out of order,
+ * reporting each time the finished leading run grows. Each segment keeps its original trailing
+ * whitespace, so line breaks survive reassembly.
+ */
+public final class OrderedAssembler {
+
+    public interface Listener {
+        void onPrefix(@NonNull String assembledSoFar, int completed, int total);
+    }
+
+    private final List<TextSegmenter.Segment> segments;
+    private final String[] translated;
+    @Nullable
+    private final Listener listener;
+    private final StringBuilder prefix = new StringBuilder();
+    private int emitted;
+    private int completed;
+
+    public OrderedAssembler(@NonNull List<TextSegmenter.Segment> segments, @Nullable Listener listener) {
+        this.segments = segments;
+        this.translated = new String[segments.size()];
+        this.listener = listener;
+    }
+
+    /** Records a finished segment without emitting; follow with {@link #drain()}. */
+    public synchronized void set(int index, @NonNull String text) {
+        if (translated[index] == null && index >= emitted) {
+            translated[index] = text;
+            completed++;
+        }
+    }
+
+    /** Appends every newly contiguous segment to the prefix. Returns true once all are in. */
+    public synchronized boolean drain() {
+        int before = emitted;
+        while (emitted < translated.length && translated[emitted] != null) {
+            prefix.append(translated[emitted]).append(segments.get(emitted).trailing);
+            // The prefix owns the text now; keep only a marker that the slot is filled.
+            translated[emitted] = "";
+            emitted++;
+        }
+        if (emitted > before && listener != null) {
+            listener.onPrefix(prefix.toString(), completed, translated.length);
+        }
+        return isComplete();
+    }
+
+    /** Shorthand for {@link #set} followed by {@link #drain}. */
+    public synchronized boolean add(int index, @NonNull String text) {
+        set(index, text);
+        return drain();
+    }
+
+    public synchronized boolean isComplete() {
+        return emitted == translated.length;
+    }
+
+    @NonNull
+    public synchronized String getAssembled() {
+        return prefix.toString();
+    }
+
+    public int size() {
+        return translated.length;
+    }
+}
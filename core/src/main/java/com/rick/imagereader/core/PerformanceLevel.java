@@ -0,0 +1,12 @@
+package com.rick.imagereader.core;
+
+/** How hard the app may push the device, from unrestricted to the bare minimum. */
+public enum PerformanceLevel {
+    FULL,
+    REDUCED,
+    MINIMAL;
+
+    public boolean isWorseThan(PerformanceLevel other) {
+        return ordinal() > other.ordinal();
+    }
+}
@@ -0,0 +1,186 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Engine-neutral OCR result: blocks of lines with their bounding boxes in source-image pixels.
+ */
+public final class RecognizedText {
+
+    public static final RecognizedText EMPTY = new RecognizedText(Collections.<Block>emptyList());
+
+    public static final class Box {
+        public final int left;
+        public final int top;
+        public final int right;
+        public final int bottom;
+
+        public Box(int left, int top, int right, int bottom) {
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+
+        public int width() {
+            return right - left;
+        }
+
+        public int height() {
+            return bottom - top;
+        }
+
+        public int centerY() {
+            return (top + bottom) / 2;
+        }
+    }
+
+    public static final class Line {
+        @NonNull
+        public final String text;
+        @Nullable
+        public final Box box;
+
+        public Line(@NonNull String text, @Nullable Box box) {
+            this.text = text;
+            this.box = box;
+        }
+    }
+
+    public static final class Block {
+        @Nullable
+        public final Box box;
+        @NonNull
+        public final List<Line> lines;
+
+        public Block(@Nullable Box box, @NonNull List<Line> lines) {
+            this.box = box;
+            this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+        }
+
+        /** The block's lines joined by line breaks. */
+        @NonNull
+        public String getText() {
+            StringBuilder text = new StringBuilder();
+            for (Line line : lines) {
+                if (text.length() > 0) {
+                    text.append('\n');
+                }
+                text.append(line.text);
+            }
+            return text.toString();
+        }
+    }
+
+    private final List<Block> blocks;
+
+    public RecognizedText(@NonNull List<Block> blocks) {
+        this.blocks = Collections.unmodifiableList(new ArrayList<>(blocks));
+    }
+
+    /** Blocks in the order the engine reported them. */
+    @NonNull
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+    public boolean isEmpty() {
+        return getText().isEmpty();
+    }
+
+    @NonNull
+    public String getText() {
+        StringBuilder text = new StringBuilder();
+        for (Block block : blocks) {
+            String blockText = block.getText();
+            if (blockText.isEmpty()) {
+                continue;
+            }
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(blockText);
+        }
+        return text.toString();
+    }
+
+    /**
+     * A copy with every box scaled by {@code scale} and then moved by ({@code dx}, {@code dy}),
+     * e.g. to map a tile's or a downscaled image's boxes into another image's pixels.
+     */
+    @NonNull
+    public RecognizedText transformed(double scale, int dx, int dy) {
+        List<Block> mapped = new ArrayList<>(blocks.size());
+        for (Block block : blocks) {
+            List<Line> lines = new ArrayList<>(block.lines.size());
+            for (Line line : block.lines) {
+                lines.add(new Line(line.text, transform(line.box, scale, dx, dy)));
+            }
+            mapped.add(new Block(transform(block.box, scale, dx, dy), lines));
+        }
+        return new RecognizedText(mapped);
+    }
+
+    @Nullable
+    private static Box transform(@Nullable Box box, double scale, int dx, int dy) {
+        if (box == null) {
+            return null;
+        }
+        return new Box((int) Math.round(box.left * scale) + dx, (int) Math.round(box.top * scale) + dy,
+                (int) Math.round(box.right * scale) + dx, (int) Math.round(box.bottom * scale) + dy);
+    }
+
+    /**
+     * Non-empty blocks sorted top-to-bottom, then left-to-right within a row. OCR engines report
+     * blocks roughly in detection order, which reads wrongly for multi-column signs.
+     *
+     * <p>Rows are formed in one pass over the blocks sorted by top: a block joins the current row
+     * when it lines up with the row's first block, otherwise it starts a new row. Pairwise "same
+     * row" is not transitive, so it cannot serve as a sort comparator itself.
+     */
+    @NonNull
+    public List<Block> blocksInReadingOrder() {
+        List<Block> boxed = new ArrayList<>(blocks.size());
+        List<Block> unboxed = new ArrayList<>();
+        for (Block block : blocks) {
+            if (block.lines.isEmpty()) {
+                continue;
+            }
+            if (block.box != null) {
+                boxed.add(block);
+            } else {
+                unboxed.add(block);
+            }
+        }
+        Collections.sort(boxed, (b1, b2) -> Integer.compare(b1.box.top, b2.box.top));
+
+        List<Block> sorted = new ArrayList<>(boxed.size() + unboxed.size());
+        List<Block> row = new ArrayList<>();
+        for (Block block : boxed) {
+            if (!row.isEmpty() && !isSameRow(row.get(0).box, block.box)) {
+                appendRow(row, sorted);
+            }
+            row.add(block);
+        }
+        appendRow(row, sorted);
+        // Blocks without a position keep their detection order, after everything placed.
+        sorted.addAll(unboxed);
+        return sorted;
+    }
+
+    private static boolean isSameRow(Box r1, Box r2) {
+        return r1.top < r2.bottom && r2.top < r1.bottom
+                && Math.abs(r1.centerY() - r2.centerY()) < Math.min(r1.height(), r2.height()) / 2;
+    }
+
+    private static void appendRow(List<Block> row, List<Block> out) {
+        Collections.sort(row, (b1, b2) -> Integer.compare(b1.box.left, b2.box.left));
+        out.addAll(row);
+        row.clear();
+    }
+}
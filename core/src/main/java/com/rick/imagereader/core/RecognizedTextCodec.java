@@ -0,0 +1,160 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of {@link RecognizedText}, keeping every block, line and bounding box.
+ *
+ * <p>Layout: the magic bytes {@code OCR}, a version byte, then a varint block count. Each block
+ * is its box followed by a varint line count, and each line is a varint UTF-8 length, the bytes,
+ * and its box. A box is a presence byte and, if present, left, top, width and height as zigzag
+ * varints, so typical coordinates take one or two bytes each.
+ */
+public final class RecognizedTextCodec {
+
+    private static final byte[] MAGIC = {'O', 'C', 'R'};
+    private static final int VERSION = 1;
+
+    private RecognizedTextCodec() {
+    }
+
+    @NonNull
+    public static byte[] encode(@NonNull RecognizedText text) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+        writeVarint(out, text.getBlocks().size());
+        for (RecognizedText.Block block : text.getBlocks()) {
+            writeBox(out, block.box);
+            writeVarint(out, block.lines.size());
+            for (RecognizedText.Line line : block.lines) {
+                byte[] utf8 = line.text.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, utf8.length);
+                out.write(utf8, 0, utf8.length);
+                writeBox(out, line.box);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** Decodes {@code data} from {@code offset}; throws if it is truncated or not in this format. */
+    @NonNull
+    public static RecognizedText decode(@NonNull byte[] data, int offset) throws IOException {
+        Reader in = new Reader(data, offset);
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) {
+                throw new IOException("Not an encoded OCR result");
+            }
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported OCR result version " + version);
+        }
+        int blockCount = in.readCount();
+        List<RecognizedText.Block> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            RecognizedText.Box blockBox = in.readBox();
+            int lineCount = in.readCount();
+            List<RecognizedText.Line> lines = new ArrayList<>(lineCount);
+            for (int j = 0; j < lineCount; j++) {
+                String lineText = in.readString();
+                lines.add(new RecognizedText.Line(lineText, in.readBox()));
+            }
+            blocks.add(new RecognizedText.Block(blockBox, lines));
+        }
+        return new RecognizedText(blocks);
+    }
+
+    private static void writeBox(ByteArrayOutputStream out, @Nullable RecognizedText.Box box) {
+        if (box == null) {
+            out.write(0);
+            return;
+        }
+        out.write(1);
+        writeVarint(out, zigzag(box.left));
+        writeVarint(out, zigzag(box.top));
+        writeVarint(out, zigzag(box.width()));
+        writeVarint(out, zigzag(box.height()));
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        int readByte() throws IOException {
+            if (position >= data.length) {
+                throw new IOException("Truncated OCR result");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        // A count can never exceed the bytes left, which also bounds allocations on corrupt input.
+        int readCount() throws IOException {
+            int count = readVarint();
+            if (count < 0 || count > data.length - position) {
+                throw new IOException("Corrupt OCR result");
+            }
+            return count;
+        }
+
+        int readZigzag() throws IOException {
+            int encoded = readVarint();
+            return (encoded >>> 1) ^ -(encoded & 1);
+        }
+
+        String readString() throws IOException {
+            int length = readCount();
+            String text = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+
+        @Nullable
+        RecognizedText.Box readBox() throws IOException {
+            if (readByte() == 0) {
+                return null;
+            }
+            int left = readZigzag();
+            int top = readZigzag();
+            int width = readZigzag();
+            int height = readZigzag();
+            return new RecognizedText.Box(left, top, left + width, top + height);
+        }
+    }
+}
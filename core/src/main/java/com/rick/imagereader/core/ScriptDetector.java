@@ -0,0 +1,92 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Decides which {@link OcrScript} recognized text is written in, from the Unicode scripts of its
+ * letters. Returns null when there is too little text, or when it looks like what a recognizer
+ * produces from a script it cannot read: mostly stray symbols and one-letter fragments.
+ */
+public final class ScriptDetector {
+
+    private static final int MIN_LETTERS = 4;
+    // Below this share of letters among visible characters the text is treated as noise.
+    private static final double MIN_LETTER_RATIO = 0.5;
+    // Latin words average well over two letters; recognizer noise does not.
+    private static final double MIN_LATIN_WORD_LENGTH = 2.0;
+    private static final double MIN_NON_LATIN_SHARE = 0.1;
+    // Japanese mixes kana into Han text; even a little kana rules out Chinese.
+    private static final double MIN_KANA_SHARE = 0.05;
+
+    private ScriptDetector() {
+    }
+
+    @Nullable
+    public static OcrScript detect(@NonNull String text) {
+        int latin = 0;
+        int han = 0;
+        int kana = 0;
+        int hangul = 0;
+        int devanagari = 0;
+        int letters = 0;
+        int visible = 0;
+        int latinWords = 0;
+        boolean inLatinWord = false;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isWhitespace(codePoint)) {
+                inLatinWord = false;
+                continue;
+            }
+            visible++;
+            Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+            boolean latinLetter = false;
+            switch (script) {
+                case LATIN:
+                    latin++;
+                    latinLetter = true;
+                    break;
+                case HAN:
+                    han++;
+                    break;
+                case HIRAGANA:
+                case KATAKANA:
+                    kana++;
+                    break;
+                case HANGUL:
+                    hangul++;
+                    break;
+                case DEVANAGARI:
+                    devanagari++;
+                    break;
+                default:
+                    break;
+            }
+            if (Character.isLetter(codePoint) || script == Character.UnicodeScript.DEVANAGARI) {
+                letters++;
+            }
+            if (latinLetter && !inLatinWord) {
+                latinWords++;
+            }
+            inLatinWord = latinLetter;
+        }
+        if (letters < MIN_LETTERS || letters < visible * MIN_LETTER_RATIO) {
+            return null;
+        }
+        int cjk = han + kana;
+        int nonLatin = Math.max(cjk, Math.max(hangul, devanagari));
+        // Non-Latin recognizers read Latin too, so any real share of another script decides.
+        if (nonLatin > 0 && nonLatin >= letters * MIN_NON_LATIN_SHARE) {
+            if (nonLatin == hangul) {
+                return OcrScript.KOREAN;
+            }
+            if (nonLatin == devanagari) {
+                return OcrScript.DEVANAGARI;
+            }
+            return kana >= cjk * MIN_KANA_SHARE ? OcrScript.JAPANESE : OcrScript.CHINESE;
+        }
+        return latin >= latinWords * MIN_LATIN_WORD_LENGTH ? OcrScript.LATIN : null;
+    }
+}
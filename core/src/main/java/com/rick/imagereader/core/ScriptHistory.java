@@ -0,0 +1,97 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The scripts of the last few recognized images, most recent first. Ranks scripts for the next
+ * image and says when the history is settled enough to skip detecting the script at all.
+ */
+public final class ScriptHistory {
+
+    public static final int CAPACITY = 8;
+    // The most recent images that must agree before detection is skipped.
+    private static final int SETTLED_RUN = 3;
+
+    private final Deque<OcrScript> recent = new ArrayDeque<>(CAPACITY);
+
+    public synchronized void record(@NonNull OcrScript script) {
+        if (recent.size() == CAPACITY) {
+            recent.removeLast();
+        }
+        recent.addFirst(script);
+    }
+
+    /** Every script, ordered by how often it was seen recently, ties going to the most recent. */
+    @NonNull
+    public synchronized List<OcrScript> ranked() {
+        Map<OcrScript, Integer> counts = new EnumMap<>(OcrScript.class);
+        List<OcrScript> ranked = new ArrayList<>();
+        for (OcrScript script : recent) {
+            if (counts.containsKey(script)) {
+                counts.put(script, counts.get(script) + 1);
+            } else {
+                counts.put(script, 1);
+                ranked.add(script);
+            }
+        }
+        // Stable, so ties keep first-seen (most recent) order.
+        ranked.sort((a, b) -> Integer.compare(counts.get(b), counts.get(a)));
+        for (OcrScript script : OcrScript.values()) {
+            if (!counts.containsKey(script)) {
+                ranked.add(script);
+            }
+        }
+        return ranked;
+    }
+
+    /** True when the last {@link #SETTLED_RUN} images all used {@code script}. */
+    public synchronized boolean isSettledOn(@NonNull OcrScript script) {
+        if (recent.size() < SETTLED_RUN) {
+            return false;
+        }
+        int run = 0;
+        for (OcrScript seen : recent) {
+            if (seen != script || ++run == SETTLED_RUN) {
+                break;
+            }
+        }
+        return run == SETTLED_RUN;
+    }
+
+    /** Comma-separated script names, most recent first. */
+    @NonNull
+    public synchronized String encode() {
+        StringBuilder encoded = new StringBuilder();
+        for (OcrScript script : recent) {
+            if (encoded.length() > 0) {
+                encoded.append(',');
+            }
+            encoded.append(script.name());
+        }
+        return encoded.toString();
+    }
+
+    /** Inverse of {@link #encode()}; unknown names are skipped. */
+    @NonNull
+    public static ScriptHistory decode(@NonNull String encoded) {
+        ScriptHistory history = new ScriptHistory();
+        for (String name : encoded.split(",")) {
+            if (history.recent.size() == CAPACITY) {
+                break;
+            }
+            try {
+                history.recent.addLast(OcrScript.valueOf(name.trim()));
+            } catch (IllegalArgumentException e) {
+                // Written by a build with a different set of scripts.
+            }
+        }
+        return history;
+    }
+}
@@ -0,0 +1,122 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Groups sentences into translation units of bounded size. Units never span a paragraph break,
+ * and sentences longer than the limit are cut at word boundaries for the source language, so
+ * scripts without sentence punctuation (Thai, unpunctuated CJK) still produce bounded units.
+ */
+public final class TextChunker {
+
+    /** Roughly one short paragraph; keeps each translator call well under a second on low-end devices. */
+    public static final int DEFAULT_MAX_CHUNK_CHARS = 400;
+
+    private TextChunker() {
+    }
+
+    @NonNull
+    public static List<TextSegmenter.Segment> chunk(@NonNull String text, @NonNull Locale locale) {
+        return chunk(text, locale, DEFAULT_MAX_CHUNK_CHARS);
+    }
+
+    @NonNull
+    public static List<TextSegmenter.Segment> chunk(@NonNull String text, @NonNull Locale locale, int maxChunkChars) {
+        List<TextSegmenter.Segment> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String pendingTrailing = "";
+        for (TextSegmenter.Segment sentence : TextSegmenter.sentences(text, locale)) {
+            if (sentence.text.isEmpty()) {
+                chunks.add(sentence);
+                continue;
+            }
+            boolean fits = current.length() + pendingTrailing.length() + sentence.text.length() <= maxChunkChars;
+            if (current.length() > 0 && (!fits || isParagraphBreak(pendingTrailing))) {
+                chunks.add(new TextSegmenter.Segment(current.toString(), pendingTrailing));
+                current.setLength(0);
+            }
+            if (sentence.text.length() > maxChunkChars) {
+                splitAtWords(sentence, locale, maxChunkChars, chunks);
+                pendingTrailing = "";
+                continue;
+            }
+            if (current.length() > 0) {
+                current.append(pendingTrailing);
+            }
+            current.append(sentence.text);
+            pendingTrailing = sentence.trailing;
+        }
+        if (current.length() > 0) {
+            chunks.add(new TextSegmenter.Segment(current.toString(), pendingTrailing));
+        }
+        return chunks;
+    }
+
+    /**
+     * Chunks each block separately so no unit spans two blocks, and joins blocks with a blank line.
+     */
+    @NonNull
+    public static List<TextSegmenter.Segment> chunkBlocks(@NonNull List<String> blocks, @NonNull Locale locale) {
+        return chunkBlocks(blocks, locale, DEFAULT_MAX_CHUNK_CHARS);
+    }
+
+    @NonNull
+    public static List<TextSegmenter.Segment> chunkBlocks(@NonNull List<String> blocks, @NonNull Locale locale,
+                                                          int maxChunkChars) {
+        List<TextSegmenter.Segment> chunks = new ArrayList<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            List<TextSegmenter.Segment> blockChunks = chunk(blocks.get(i), locale, maxChunkChars);
+            if (blockChunks.isEmpty()) {
+                continue;
+            }
+            int last = blockChunks.size() - 1;
+            String separator = i < blocks.size() - 1 ? "\n\n" : "";
+            blockChunks.set(last, new TextSegmenter.Segment(blockChunks.get(last).text, separator));
+            chunks.addAll(blockChunks);
+        }
+        return chunks;
+    }
+
+    private static boolean isParagraphBreak(String whitespace) {
+        return whitespace.indexOf('\n') != whitespace.lastIndexOf('\n');
+    }
+
+    private static void splitAtWords(TextSegmenter.Segment sentence, Locale locale, int maxChunkChars,
+                                     List<TextSegmenter.Segment> out) {
+        String text = sentence.text;
+        BreakIterator words = BreakIterator.getWordInstance(locale);
+        words.setText(text);
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.length();
+            if (end - start > maxChunkChars) {
+                end = words.preceding(start + maxChunkChars + 1);
+                if (end == BreakIterator.DONE || end <= start) {
+                    // A single "word" longer than the limit; cut it hard.
+                    end = start + maxChunkChars;
+                    if (Character.isLowSurrogate(text.charAt(end))) {
+                        end--;
+                    }
+                }
+            }
+            int contentEnd = end;
+            while (contentEnd > start && Character.isWhitespace(text.charAt(contentEnd - 1))) {
+                contentEnd--;
+            }
+            int next = end;
+            while (next < text.length() && Character.isWhitespace(text.charAt(next))) {
+                next++;
+            }
+            String trailing = next == text.length() ? sentence.trailing : text.substring(contentEnd, next);
+            if (contentEnd > start) {
+                out.add(new TextSegmenter.Segment(text.substring(start, contentEnd), trailing));
+            }
+            start = next;
+        }
+    }
+}
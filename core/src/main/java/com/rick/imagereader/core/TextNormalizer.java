@@ -0,0 +1,62 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/** Normalization and hashing that make equivalent OCR output map to the same cache entry. */
+public final class TextNormalizer {
+
+    private static final Pattern HORIZONTAL_WHITESPACE = Pattern.compile("[\\t\\x0B\\f\\r ]+");
+
+    private TextNormalizer() {
+    }
+
+    /** NFC text with runs of spaces collapsed, lines trimmed and empty lines dropped. */
+    @NonNull
+    public static String normalize(@NonNull String text) {
+        // OCR output of the same sign varies in spacing, so only line structure is kept.
+        String[] lines = Normalizer.normalize(text, Normalizer.Form.NFC).split("\n");
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (String line : lines) {
+            String collapsed = HORIZONTAL_WHITESPACE.matcher(line).replaceAll(" ").trim();
+            if (!collapsed.isEmpty()) {
+                if (normalized.length() > 0) {
+                    normalized.append('\n');
+                }
+                normalized.append(collapsed);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /** Hash of the normalized text and language pair, safe to use as a file name. */
+    @NonNull
+    public static String cacheKey(@NonNull String text, @NonNull String sourceLang, @NonNull String targetLang) {
+        return sha256Hex(normalize(text) + '\u0000' + sourceLang + '\u0000' + targetLang);
+    }
+
+    @NonNull
+    public static String sha256Hex(@NonNull String material) {
+        return sha256Hex(material.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @NonNull
+    public static String sha256Hex(@NonNull byte[] material) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(material);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/** Finds text in an image. {@code I} is the platform's image type. */
+public interface TextRecognitionEngine<I> {
+
+    @NonNull
+    CompletableFuture<RecognizedText> recognize(@NonNull I image);
+}
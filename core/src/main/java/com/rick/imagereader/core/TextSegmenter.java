@@ -0,0 +1,64 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into sentences without losing the whitespace between them, so translated sentences
+ * can be joined back with the original spacing and line breaks.
+ */
+public final class TextSegmenter {
+
+    public static final class Segment {
+        /** The sentence without surrounding whitespace; empty for leading whitespace. */
+        @NonNull
+        public final String text;
+        /** Whitespace that followed the sentence in the input, including line breaks. */
+        @NonNull
+        public final String trailing;
+
+        public Segment(@NonNull String text, @NonNull String trailing) {
+            this.text = text;
+            this.trailing = trailing;
+        }
+    }
+
+    private TextSegmenter() {
+    }
+
+    @NonNull
+    public static List<Segment> sentences(@NonNull String text, @NonNull Locale locale) {
+        List<Segment> segments = new ArrayList<>();
+        if (text.isEmpty()) {
+            return segments;
+        }
+        int leading = 0;
+        while (leading < text.length() && Character.isWhitespace(text.charAt(leading))) {
+            leading++;
+        }
+        if (leading > 0) {
+            segments.add(new Segment("", text.substring(0, leading)));
+        }
+        if (leading == text.length()) {
+            return segments;
+        }
+        BreakIterator iterator = BreakIterator.getSentenceInstance(locale);
+        iterator.setText(text);
+        int start = leading;
+        int end = iterator.following(start);
+        while (end != BreakIterator.DONE) {
+            int contentEnd = end;
+            while (contentEnd > start && Character.isWhitespace(text.charAt(contentEnd - 1))) {
+                contentEnd--;
+            }
+            segments.add(new Segment(text.substring(start, contentEnd), text.substring(contentEnd, end)));
+            start = end;
+            end = iterator.next();
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,71 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits an image into overlapping tiles for recognition. Neighbouring tiles share
+ * {@code overlap} pixels, so any line shorter than the overlap lies whole inside some tile.
+ */
+public final class TileGrid {
+
+    public static final class Tile {
+        public final int left;
+        public final int top;
+        public final int right;
+        public final int bottom;
+
+        Tile(int left, int top, int right, int bottom) {
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+
+        public int width() {
+            return right - left;
+        }
+
+        public int height() {
+            return bottom - top;
+        }
+    }
+
+    private TileGrid() {
+    }
+
+    /** Tiles covering a {@code width} x {@code height} area, row by row. */
+    @NonNull
+    public static List<Tile> compute(int width, int height, int tileSize, int overlap) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Empty area");
+        }
+        if (overlap < 0 || overlap >= tileSize) {
+            throw new IllegalArgumentException("Overlap must be smaller than the tile size");
+        }
+        List<Integer> columns = starts(width, tileSize, overlap);
+        List<Integer> rows = starts(height, tileSize, overlap);
+        List<Tile> tiles = new ArrayList<>(columns.size() * rows.size());
+        for (int top : rows) {
+            for (int left : columns) {
+                tiles.add(new Tile(left, top, Math.min(width, left + tileSize), Math.min(height, top + tileSize)));
+            }
+        }
+        return tiles;
+    }
+
+    // The last tile is pulled back to end exactly at the edge instead of hanging over it.
+    private static List<Integer> starts(int length, int tileSize, int overlap) {
+        List<Integer> starts = new ArrayList<>();
+        int step = tileSize - overlap;
+        for (int start = 0; ; start += step) {
+            if (start + tileSize >= length) {
+                starts.add(Math.max(0, length - tileSize));
+                return starts;
+            }
+            starts.add(start);
+        }
+    }
+}
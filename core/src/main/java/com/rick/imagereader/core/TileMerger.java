@@ -0,0 +1,94 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Merges per-tile OCR results, already mapped into one coordinate space, into a single result.
+ * A block seen by two overlapping tiles is kept once: the more complete copy, meaning the one
+ * with the larger box, wins over a copy clipped at a tile seam.
+ */
+public final class TileMerger {
+
+    // Share of the smaller box that must overlap, with matching text, to count as the same block.
+    private static final double DUPLICATE_OVERLAP = 0.5;
+    // Above this overlap the boxes are the same block even if clipping garbled the text.
+    private static final double CERTAIN_OVERLAP = 0.85;
+
+    private TileMerger() {
+    }
+
+    @NonNull
+    public static RecognizedText merge(@NonNull List<RecognizedText> tiles) {
+        List<RecognizedText.Block> candidates = new ArrayList<>();
+        for (RecognizedText tile : tiles) {
+            for (RecognizedText.Block block : tile.getBlocks()) {
+                if (!block.lines.isEmpty()) {
+                    candidates.add(block);
+                }
+            }
+        }
+        Collections.sort(candidates, (a, b) -> Long.compare(area(b.box), area(a.box)));
+
+        List<RecognizedText.Block> kept = new ArrayList<>(candidates.size());
+        for (RecognizedText.Block block : candidates) {
+            if (!isDuplicate(block, kept)) {
+                kept.add(block);
+            }
+        }
+        return new RecognizedText(kept);
+    }
+
+    private static boolean isDuplicate(RecognizedText.Block block, List<RecognizedText.Block> kept) {
+        if (block.box == null) {
+            return false;
+        }
+        String text = squash(block.getText());
+        for (RecognizedText.Block other : kept) {
+            if (other.box == null) {
+                continue;
+            }
+            double overlap = overlapOfSmaller(block.box, other.box);
+            if (overlap >= CERTAIN_OVERLAP) {
+                return true;
+            }
+            if (overlap >= DUPLICATE_OVERLAP) {
+                String otherText = squash(other.getText());
+                if (otherText.contains(text) || text.contains(otherText)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static double overlapOfSmaller(RecognizedText.Box a, RecognizedText.Box b) {
+        long width = Math.min(a.right, b.right) - Math.max(a.left, b.left);
+        long height = Math.min(a.bottom, b.bottom) - Math.max(a.top, b.top);
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        long smaller = Math.min(area(a), area(b));
+        return smaller == 0 ? 0 : (double) (width * height) / smaller;
+    }
+
+    private static long area(RecognizedText.Box box) {
+        return box == null ? 0 : (long) Math.max(0, box.width()) * Math.max(0, box.height());
+    }
+
+    // Tiles cut lines at different points, so compare without whitespace or case.
+    private static String squash(String text) {
+        StringBuilder squashed = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                squashed.append(c);
+            }
+        }
+        return squashed.toString().toLowerCase(Locale.ROOT);
+    }
+}
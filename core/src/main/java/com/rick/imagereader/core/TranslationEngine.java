@@ -0,0 +1,12 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/** Translates one unit of text. Implementations must accept concurrent calls. */
+public interface TranslationEngine {
+
+    @NonNull
+    CompletableFuture<String> translate(@NonNull String text, @NonNull String sourceLang, @NonNull String targetLang);
+}
@@ -0,0 +1,238 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Past translations for one language pair, found again by approximate match so that small OCR
+ * differences (spacing, punctuation, case, a misread letter) do not force a new translation.
+ *
+ * <p>Sources are reduced to a fuzzy key, and similarity is the Dice coefficient of the keys'
+ * character trigram sets. A trigram index finds the candidates sharing any trigram with a
+ * query, and a length bound skips those that cannot reach the threshold. Keys shorter than
+ * {@link #MIN_FUZZY_LENGTH} only match exactly, and any digits must match exactly, so "Room 12"
+ * never returns the translation of "Room 13". The least recently used entries are evicted past
+ * the capacity.
+ */
+public final class TranslationMemory {
+
+    /** Below this many characters a single misread letter changes too much of the key. */
+    public static final int MIN_FUZZY_LENGTH = 8;
+
+    public static final class Match {
+        @NonNull
+        public final String source;
+        @NonNull
+        public final String target;
+        public final double similarity;
+
+        Match(@NonNull String source, @NonNull String target, double similarity) {
+            this.source = source;
+            this.target = target;
+            this.similarity = similarity;
+        }
+    }
+
+    private static final class Entry {
+        final int id;
+        final String key;
+        final String source;
+        final String target;
+        final String digits;
+        final Set<String> trigrams;
+
+        Entry(int id, String source, String target, String key) {
+            this.id = id;
+            this.key = key;
+            this.source = source;
+            this.target = target;
+            this.digits = digits(key);
+            this.trigrams = trigrams(key);
+        }
+    }
+
+    private final int capacity;
+    // Access-ordered, so iteration starts at the least recently used entry.
+    private final LinkedHashMap<String, Entry> byKey = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Map<Integer, Entry> byId = new HashMap<>();
+    private int nextId;
+
+    public TranslationMemory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    /** Remembers {@code target} as the translation of {@code source}, replacing an equivalent source. */
+    public synchronized void add(@NonNull String source, @NonNull String target) {
+        String key = fuzzyKey(source);
+        if (key.isEmpty()) {
+            return;
+        }
+        Entry previous = byKey.remove(key);
+        if (previous != null) {
+            unindex(previous);
+        }
+        Entry entry = new Entry(nextId++, source, target, key);
+        byKey.put(key, entry);
+        byId.put(entry.id, entry);
+        for (String trigram : entry.trigrams) {
+            Set<Integer> ids = postings.get(trigram);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(trigram, ids);
+            }
+            ids.add(entry.id);
+        }
+        Iterator<Entry> eldest = byKey.values().iterator();
+        while (byKey.size() > capacity && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted);
+        }
+    }
+
+    /** The most similar remembered source at or above {@code threshold} (0 to 1), or null. */
+    @Nullable
+    public synchronized Match find(@NonNull String text, double threshold) {
+        String key = fuzzyKey(text);
+        if (key.isEmpty()) {
+            return null;
+        }
+        Entry exact = byKey.get(key);
+        if (exact != null) {
+            return new Match(exact.source, exact.target, 1.0);
+        }
+        if (key.codePointCount(0, key.length()) < MIN_FUZZY_LENGTH) {
+            return null;
+        }
+        Set<String> query = trigrams(key);
+        String queryDigits = digits(key);
+        Map<Integer, int[]> shared = new HashMap<>();
+        for (String trigram : query) {
+            Set<Integer> ids = postings.get(trigram);
+            if (ids == null) {
+                continue;
+            }
+            for (Integer id : ids) {
+                int[] count = shared.get(id);
+                if (count == null) {
+                    shared.put(id, new int[]{1});
+                } else {
+                    count[0]++;
+                }
+            }
+        }
+        // Dice >= t needs the candidate's trigram count within [q*t/(2-t), q*(2-t)/t].
+        int minSize = (int) Math.ceil(query.size() * threshold / (2 - threshold));
+        int maxSize = threshold > 0 ? (int) Math.floor(query.size() * (2 - threshold) / threshold) : Integer.MAX_VALUE;
+        Entry best = null;
+        double bestSimilarity = threshold;
+        for (Map.Entry<Integer, int[]> candidate : shared.entrySet()) {
+            Entry entry = byId.get(candidate.getKey());
+            int size = entry.trigrams.size();
+            if (size < minSize || size > maxSize) {
+                continue;
+            }
+            double similarity = 2.0 * candidate.getValue()[0] / (query.size() + size);
+            if (similarity >= bestSimilarity && entry.digits.equals(queryDigits)
+                    && (best == null || similarity > bestSimilarity)) {
+                best = entry;
+                bestSimilarity = similarity;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        // Touch the entry so it counts as recently used.
+        byKey.get(best.key);
+        return new Match(best.source, best.target, bestSimilarity);
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    /** Every entry as {source, target}, least recently used first, for persisting. */
+    @NonNull
+    public synchronized List<String[]> entries() {
+        List<String[]> entries = new ArrayList<>(byKey.size());
+        for (Entry entry : byKey.values()) {
+            entries.add(new String[]{entry.source, entry.target});
+        }
+        return entries;
+    }
+
+    /** Case-folded NFKC letters and digits, with every other run of characters made one space. */
+    @NonNull
+    static String fuzzyKey(@NonNull String text) {
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); ) {
+            int codePoint = folded.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint) || Character.getType(codePoint) == Character.NON_SPACING_MARK
+                    || Character.getType(codePoint) == Character.COMBINING_SPACING_MARK) {
+                if (pendingSpace && key.length() > 0) {
+                    key.append(' ');
+                }
+                pendingSpace = false;
+                key.appendCodePoint(codePoint);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return key.toString();
+    }
+
+    // Padded with spaces so the first and last characters weigh as much as the middle ones.
+    private static Set<String> trigrams(String key) {
+        String padded = "  " + key + " ";
+        Set<String> trigrams = new HashSet<>();
+        int[] codePoints = padded.codePoints().toArray();
+        for (int i = 0; i + 3 <= codePoints.length; i++) {
+            trigrams.add(new String(codePoints, i, 3));
+        }
+        return trigrams;
+    }
+
+    private static String digits(String key) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isDigit(c)) {
+                digits.append(c);
+            } else if (digits.length() > 0 && digits.charAt(digits.length() - 1) != ' ') {
+                digits.append(' ');
+            }
+        }
+        return digits.toString().trim();
+    }
+
+    private void unindex(Entry entry) {
+        byId.remove(entry.id);
+        for (String trigram : entry.trigrams) {
+            Set<Integer> ids = postings.get(trigram);
+            if (ids != null) {
+                ids.remove(entry.id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+}
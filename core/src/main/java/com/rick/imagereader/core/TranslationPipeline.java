@@ -0,0 +1,172 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The image-to-OCR-to-language-ID-to-translation pipeline, independent of any platform. Text is
+ * split into bounded chunks that translate concurrently under one shared limit and are
+ * reassembled in order as they finish.
+ *
+ * <p>Callbacks run on whichever thread completed the engine call; callers that touch UI must
+ * hop threads themselves.
+ */
+public final class TranslationPipeline<I> {
+
+    public interface Listener {
+        default void onRecognized(@NonNull RecognizedText text) {
+        }
+
+        default void onLanguageIdentified(@NonNull String languageCode) {
+        }
+
+        default void onPartialTranslation(@NonNull String translatedSoFar, int completed, int total) {
+        }
+
+        /** Called for every segment as it finishes, in completion order, including reused ones. */
+        default void onSegmentTranslated(int index, @NonNull String source, @NonNull String translated) {
+        }
+    }
+
+    public static final class Result {
+        @NonNull
+        public final RecognizedText recognizedText;
+        /** The detected source language, or {@link LanguageIdEngine#UNDETERMINED}. */
+        @NonNull
+        public final String sourceLanguage;
+        /** Empty when there was no text or its language could not be determined. */
+        @NonNull
+        public final String translatedText;
+
+        public Result(@NonNull RecognizedText recognizedText, @NonNull String sourceLanguage,
+                      @NonNull String translatedText) {
+            this.recognizedText = recognizedText;
+            this.sourceLanguage = sourceLanguage;
+            this.translatedText = translatedText;
+        }
+    }
+
+    private final TextRecognitionEngine<I> recognitionEngine;
+    private final LanguageIdEngine languageIdEngine;
+    private final TranslationEngine translationEngine;
+    private final ConcurrencyLimiter translateLimiter;
+    private final int maxChunkChars;
+
+    public TranslationPipeline(@NonNull TextRecognitionEngine<I> recognitionEngine,
+                               @NonNull LanguageIdEngine languageIdEngine,
+                               @NonNull TranslationEngine translationEngine,
+                               int parallelism, int maxChunkChars) {
+        this.recognitionEngine = recognitionEngine;
+        this.languageIdEngine = languageIdEngine;
+        this.translationEngine = translationEngine;
+        this.translateLimiter = new ConcurrencyLimiter(parallelism);
+        this.maxChunkChars = maxChunkChars;
+    }
+
+    @NonNull
+    public CompletableFuture<Result> process(@NonNull I image, @NonNull String targetLang,
+                                             @Nullable Listener listener) {
+        return recognitionEngine.recognize(image).thenCompose(recognized -> {
+            if (listener != null) {
+                listener.onRecognized(recognized);
+            }
+            String text = recognized.getText();
+            if (text.isEmpty()) {
+                return CompletableFuture.completedFuture(new Result(recognized, LanguageIdEngine.UNDETERMINED, ""));
+            }
+            return languageIdEngine.identify(text).thenCompose(sourceLang -> {
+                if (listener != null) {
+                    listener.onLanguageIdentified(sourceLang);
+                }
+                if (LanguageIdEngine.UNDETERMINED.equals(sourceLang)) {
+                    return CompletableFuture.completedFuture(new Result(recognized, sourceLang, ""));
+                }
+                List<String> blocks = new ArrayList<>();
+                for (RecognizedText.Block block : recognized.blocksInReadingOrder()) {
+                    blocks.add(block.getText());
+                }
+                List<TextSegmenter.Segment> chunks =
+                        TextChunker.chunkBlocks(blocks, new Locale(sourceLang), maxChunkChars);
+                return translateSegments(chunks, sourceLang, targetLang, listener)
+                        .thenApply(translated -> new Result(recognized, sourceLang, translated));
+            });
+        });
+    }
+
+    /** Translates free text, chunked and reassembled with its original whitespace. */
+    @NonNull
+    public CompletableFuture<String> translate(@NonNull String text, @NonNull String sourceLang,
+                                               @NonNull String targetLang, @Nullable Listener listener) {
+        List<TextSegmenter.Segment> chunks = TextChunker.chunk(text, new Locale(sourceLang), maxChunkChars);
+        return translateSegments(chunks, sourceLang, targetLang, listener);
+    }
+
+    @NonNull
+    public CompletableFuture<String> translateSegments(@NonNull List<TextSegmenter.Segment> segments,
+                                                       @NonNull String sourceLang, @NonNull String targetLang,
+                                                       @Nullable Listener listener) {
+        return translateSegments(segments, sourceLang, targetLang, null, translateLimiter, translationEngine,
+                listener);
+    }
+
+    /**
+     * Translates {@code segments} through {@code engine} with at most the limiter's limit in
+     * flight and joins them with their own trailing whitespace. Segments found in
+     * {@code knownTranslations}, empty segments and same-language pairs are reused as-is without
+     * touching the engine. The first failure fails the result; later completions are ignored.
+     */
+    @NonNull
+    public static CompletableFuture<String> translateSegments(@NonNull List<TextSegmenter.Segment> segments,
+                                                              @NonNull String sourceLang, @NonNull String targetLang,
+                                                              @Nullable Map<String, String> knownTranslations,
+                                                              @NonNull ConcurrencyLimiter limiter,
+                                                              @NonNull TranslationEngine engine,
+                                                              @Nullable Listener listener) {
+        if (segments.isEmpty()) {
+            return CompletableFuture.completedFuture("");
+        }
+        CompletableFuture<String> result = new CompletableFuture<>();
+        OrderedAssembler assembler = new OrderedAssembler(segments, listener == null ? null
+                : listener::onPartialTranslation);
+        for (int i = 0; i < segments.size(); i++) {
+            final int index = i;
+            String segment = segments.get(i).text;
+            String known = segment.isEmpty() || sourceLang.equals(targetLang) ? segment
+                    : knownTranslations != null ? knownTranslations.get(segment) : null;
+            if (known != null) {
+                if (listener != null) {
+                    listener.onSegmentTranslated(index, segment, known);
+                }
+                assembler.set(index, known);
+                continue;
+            }
+            limiter.submit(() -> engine.translate(segment, sourceLang, targetLang))
+                    .whenComplete((translated, error) -> {
+                        if (result.isDone()) {
+                            return;
+                        }
+                        if (error != null) {
+                            result.completeExceptionally(error);
+                            return;
+                        }
+                        if (listener != null) {
+                            listener.onSegmentTranslated(index, segment, translated);
+                        }
+                        if (assembler.add(index, translated)) {
+                            result.complete(assembler.getAssembled());
+                        }
+                    });
+        }
+        // Reused segments are emitted together rather than one partial result each.
+        if (assembler.drain()) {
+            result.complete(assembler.getAssembled());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe LRU map bounded by the total weight of its values rather than their count.
+ * A plain-Java counterpart of {@code android.util.LruCache} that runs on the JVM.
+ */
+public final class WeightedLruCache<K, V> {
+
+    public interface Weigher<K, V> {
+        int weigh(@NonNull K key, @NonNull V value);
+    }
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Weigher<K, V> weigher;
+    private long maxWeight;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public WeightedLruCache(long maxWeight, @NonNull Weigher<K, V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    @Nullable
+    public synchronized V get(@NonNull K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(@NonNull K key, @NonNull V value) {
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigher.weigh(key, previous);
+        }
+        weight += weigher.weigh(key, value);
+        trimTo(maxWeight);
+    }
+
+    @Nullable
+    public synchronized V remove(@NonNull K key) {
+        V previous = entries.remove(key);
+        if (previous != null) {
+            weight -= weigher.weigh(key, previous);
+        }
+        return previous;
+    }
+
+    /** Evicts least recently used entries until the total weight is at most {@code targetWeight}. */
+    public synchronized void trimTo(long targetWeight) {
+        Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while (weight > targetWeight && iterator.hasNext()) {
+            Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigher.weigh(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        trimTo(maxWeight);
+    }
+
+    public synchronized void clear() {
+        trimTo(-1);
+    }
+
+    public synchronized long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+}
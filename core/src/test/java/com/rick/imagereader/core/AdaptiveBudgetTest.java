@@ -0,0 +1,129 @@
+package com.rick.imagereader.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveBudgetTest {
+
+    private static final DeviceStatus COOL = new DeviceStatus(DeviceStatus.THERMAL_NONE, 80, false, false);
+    private static final DeviceStatus WARM = new DeviceStatus(DeviceStatus.THERMAL_LIGHT, 80, false, false);
+    private static final DeviceStatus HOT = new DeviceStatus(DeviceStatus.THERMAL_SEVERE, 80, false, false);
+
+    private final FakeDeviceStatusProvider provider = new FakeDeviceStatusProvider();
+    private final long[] now = {1_000};
+    private final List<PerformanceLevel> changes = new ArrayList<>();
+    private AdaptiveBudget budget;
+
+    @Before
+    public void setUp() {
+        provider.set(COOL);
+        budget = new AdaptiveBudget(provider, () -> now[0]);
+        budget.addListener((previous, current, status) -> changes.add(current));
+        // The owner wires the provider to refresh, as PowerAwareScheduler does.
+        provider.setListener(budget::refresh);
+    }
+
+    @Test
+    public void mapsConditionsToLevels() {
+        assertEquals(PerformanceLevel.FULL, AdaptiveBudget.levelFor(COOL));
+        assertEquals(PerformanceLevel.REDUCED, AdaptiveBudget.levelFor(WARM));
+        assertEquals(PerformanceLevel.REDUCED,
+                AdaptiveBudget.levelFor(new DeviceStatus(DeviceStatus.THERMAL_NONE, 80, false, true)));
+        assertEquals(PerformanceLevel.REDUCED,
+                AdaptiveBudget.levelFor(new DeviceStatus(DeviceStatus.THERMAL_NONE, 15, false, false)));
+        assertEquals(PerformanceLevel.FULL,
+                AdaptiveBudget.levelFor(new DeviceStatus(DeviceStatus.THERMAL_NONE, 15, true, false)));
+        assertEquals(PerformanceLevel.MINIMAL, AdaptiveBudget.levelFor(HOT));
+        assertEquals(PerformanceLevel.MINIMAL,
+                AdaptiveBudget.levelFor(new DeviceStatus(DeviceStatus.THERMAL_NONE, 4, false, false)));
+    }
+
+    @Test
+    public void worseLevelAppliesImmediately() {
+        provider.set(WARM);
+        assertEquals(PerformanceLevel.REDUCED, budget.level());
+        provider.set(HOT);
+        assertEquals(PerformanceLevel.MINIMAL, budget.level());
+        assertEquals(-1, budget.millisUntilRecovery());
+        assertEquals(1, budget.parallelism(4));
+        assertFalse(budget.allowsBackgroundDownloads());
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    public void recoveryWaitsForTheHysteresis() {
+        provider.set(HOT);
+        provider.set(COOL);
+        assertEquals(PerformanceLevel.MINIMAL, budget.level());
+        assertEquals(AdaptiveBudget.RECOVERY_MS, budget.millisUntilRecovery());
+
+        now[0] += AdaptiveBudget.RECOVERY_MS - 1;
+        budget.refresh();
+        assertEquals(PerformanceLevel.MINIMAL, budget.level());
+        assertEquals(1, budget.millisUntilRecovery());
+
+        now[0] += 1;
+        budget.refresh();
+        assertEquals(PerformanceLevel.FULL, budget.level());
+        assertEquals(-1, budget.millisUntilRecovery());
+        assertTrue(budget.allowsBackgroundDownloads());
+        assertEquals(4, budget.parallelism(4));
+    }
+
+    @Test
+    public void regressionCancelsAPendingRecovery() {
+        provider.set(WARM);
+        provider.set(COOL);
+        now[0] += AdaptiveBudget.RECOVERY_MS / 2;
+        provider.set(WARM);
+        assertEquals(-1, budget.millisUntilRecovery());
+
+        // The clock restarts from the next improvement, not the first one.
+        provider.set(COOL);
+        now[0] += AdaptiveBudget.RECOVERY_MS / 2;
+        budget.refresh();
+        assertEquals(PerformanceLevel.REDUCED, budget.level());
+
+        now[0] += AdaptiveBudget.RECOVERY_MS / 2;
+        budget.refresh();
+        assertEquals(PerformanceLevel.FULL, budget.level());
+    }
+
+    @Test
+    public void aDifferentBetterTargetRestartsTheRecovery() {
+        provider.set(HOT);
+        provider.set(WARM);
+        now[0] += AdaptiveBudget.RECOVERY_MS - 1;
+        budget.refresh();
+        assertEquals(PerformanceLevel.MINIMAL, budget.level());
+
+        // Conditions improve further just before REDUCED would apply; FULL waits its own period.
+        provider.set(COOL);
+        assertEquals(PerformanceLevel.MINIMAL, budget.level());
+        assertEquals(AdaptiveBudget.RECOVERY_MS, budget.millisUntilRecovery());
+
+        now[0] += AdaptiveBudget.RECOVERY_MS - 1;
+        budget.refresh();
+        assertEquals(PerformanceLevel.MINIMAL, budget.level());
+
+        now[0] += 1;
+        budget.refresh();
+        assertEquals(PerformanceLevel.FULL, budget.level());
+    }
+
+    @Test
+    public void worseningDuringARecoveryAppliesAtOnce() {
+        provider.set(WARM);
+        provider.set(COOL);
+        provider.set(HOT);
+        assertEquals(PerformanceLevel.MINIMAL, budget.level());
+        assertEquals(-1, budget.millisUntilRecovery());
+    }
+}
@@ -0,0 +1,118 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CacheBudgetTest {
+
+    /** A cache of fixed-size entries; {@code pinned} bytes are in use and cannot be trimmed. */
+    private static final class FakeCache implements CacheBudget.Cache {
+        long bytes;
+        long pinned;
+
+        FakeCache(long bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long sizeBytes() {
+            return bytes;
+        }
+
+        @Override
+        public void trimToBytes(long target) {
+            bytes = Math.max(pinned, Math.min(bytes, target));
+        }
+    }
+
+    @Test
+    public void leavesCachesAloneWithinBudget() {
+        CacheBudget budget = new CacheBudget(100);
+        FakeCache cheap = new FakeCache(80);
+        FakeCache expensive = new FakeCache(20);
+        budget.register("cheap", cheap, 1, CacheBudget.Priority.CHEAP);
+        budget.register("expensive", expensive, 1, CacheBudget.Priority.EXPENSIVE);
+        budget.enforce();
+        assertEquals(80, cheap.bytes);
+        assertEquals(20, expensive.bytes);
+    }
+
+    @Test
+    public void trimsCachesOverTheirShareCheapestFirst() {
+        CacheBudget budget = new CacheBudget(100);
+        FakeCache cheap = new FakeCache(60);
+        FakeCache expensive = new FakeCache(60);
+        budget.register("expensive", expensive, 1, CacheBudget.Priority.EXPENSIVE);
+        budget.register("cheap", cheap, 1, CacheBudget.Priority.CHEAP);
+        budget.enforce();
+        // 20 over: the cheap cache gives back its 10 over share first, the expensive one the rest.
+        assertEquals(50, cheap.bytes);
+        assertEquals(50, expensive.bytes);
+    }
+
+    @Test
+    public void takesTheRestFromCheapCachesWhenExpensiveEntriesArePinned() {
+        CacheBudget budget = new CacheBudget(100);
+        FakeCache cheap = new FakeCache(40);
+        FakeCache expensive = new FakeCache(90);
+        expensive.pinned = 90;
+        budget.register("cheap", cheap, 1, CacheBudget.Priority.CHEAP);
+        budget.register("expensive", expensive, 3, CacheBudget.Priority.EXPENSIVE);
+        budget.enforce();
+        assertEquals(90, expensive.bytes);
+        assertEquals(10, cheap.bytes);
+    }
+
+    @Test
+    public void shrinkingTheBudgetEnforcesIt() {
+        CacheBudget budget = new CacheBudget(100);
+        FakeCache cache = new FakeCache(100);
+        budget.register("cache", cache, 1, CacheBudget.Priority.MODERATE);
+        budget.setBudgetBytes(40);
+        assertEquals(40, cache.bytes);
+    }
+
+    @Test
+    public void shedKeepsAFractionByPriority() {
+        CacheBudget budget = new CacheBudget(1000);
+        FakeCache cheap = new FakeCache(100);
+        FakeCache moderate = new FakeCache(100);
+        FakeCache expensive = new FakeCache(100);
+        budget.register("cheap", cheap, 1, CacheBudget.Priority.CHEAP);
+        budget.register("moderate", moderate, 1, CacheBudget.Priority.MODERATE);
+        budget.register("expensive", expensive, 1, CacheBudget.Priority.EXPENSIVE);
+
+        budget.shed(CacheBudget.Pressure.MODERATE);
+        assertEquals(50, cheap.bytes);
+        assertEquals(100, moderate.bytes);
+        assertEquals(100, expensive.bytes);
+
+        budget.shed(CacheBudget.Pressure.CRITICAL);
+        assertEquals(0, cheap.bytes);
+        assertEquals(0, moderate.bytes);
+        assertEquals(50, expensive.bytes);
+
+        budget.shed(CacheBudget.Pressure.COMPLETE);
+        assertEquals(0, budget.totalBytes());
+    }
+
+    @Test
+    public void reportsSharesByWeight() {
+        CacheBudget budget = new CacheBudget(90);
+        budget.register("a", new FakeCache(5), 1, CacheBudget.Priority.CHEAP);
+        budget.register("b", new FakeCache(7), 2, CacheBudget.Priority.EXPENSIVE);
+        List<CacheBudget.Occupancy> occupancy = budget.occupancy();
+        assertEquals("a", occupancy.get(0).name);
+        assertEquals(30, occupancy.get(0).shareBytes);
+        assertEquals(60, occupancy.get(1).shareBytes);
+        assertEquals(7, occupancy.get(1).bytes);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroWeight() {
+        new CacheBudget(100).register("a", new FakeCache(0), 0, CacheBudget.Priority.CHEAP);
+    }
+}
@@ -0,0 +1,82 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrencyLimiterTest {
+
+    private final List<CompletableFuture<String>> started = new ArrayList<>();
+
+    private CompletableFuture<String> submit(ConcurrencyLimiter limiter) {
+        return limiter.submit(() -> {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            started.add(future);
+            return future;
+        });
+    }
+
+    @Test
+    public void queuesBeyondTheLimitInOrder() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+        CompletableFuture<String> first = submit(limiter);
+        submit(limiter);
+        CompletableFuture<String> third = submit(limiter);
+        assertEquals(2, started.size());
+        assertEquals(1, limiter.getQueued());
+
+        started.get(0).complete("one");
+        assertEquals("one", first.join());
+        assertEquals(3, started.size());
+        started.get(2).complete("three");
+        assertEquals("three", third.join());
+        assertEquals(1, limiter.getRunning());
+    }
+
+    @Test
+    public void failuresReleaseTheirSlot() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        CompletableFuture<String> failing = limiter.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        assertTrue(failing.isCompletedExceptionally());
+        submit(limiter);
+        assertEquals(1, started.size());
+    }
+
+    @Test
+    public void raisingTheLimitStartsQueuedWork() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        submit(limiter);
+        submit(limiter);
+        submit(limiter);
+        assertEquals(1, started.size());
+
+        limiter.setMaxConcurrent(3);
+        assertEquals(3, started.size());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void loweringTheLimitHoldsNewWorkUntilRunningDropsBelowIt() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(3);
+        submit(limiter);
+        submit(limiter);
+        submit(limiter);
+        CompletableFuture<String> waiting = submit(limiter);
+        limiter.setMaxConcurrent(1);
+
+        started.get(0).complete("");
+        started.get(1).complete("");
+        assertEquals(3, started.size());
+        assertFalse(waiting.isDone());
+        started.get(2).complete("");
+        assertEquals(4, started.size());
+    }
+}
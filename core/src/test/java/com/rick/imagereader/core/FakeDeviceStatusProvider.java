@@ -0,0 +1,30 @@
+package com.rick.imagereader.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/** A {@link DeviceStatusProvider} whose readings the test sets. */
+final class FakeDeviceStatusProvider implements DeviceStatusProvider {
+
+    private DeviceStatus status = DeviceStatus.NOMINAL;
+    @Nullable
+    private Runnable listener;
+
+    void set(@NonNull DeviceStatus status) {
+        this.status = status;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    @NonNull
+    @Override
+    public DeviceStatus current() {
+        return status;
+    }
+
+    @Override
+    public void setListener(@Nullable Runnable listener) {
+        this.listener = listener;
+    }
+}
@@ -0,0 +1,61 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OrderedAssemblerTest {
+
+    private static final List<TextSegmenter.Segment> SEGMENTS = Arrays.asList(
+            new TextSegmenter.Segment("a", " "),
+            new TextSegmenter.Segment("b", "\n"),
+            new TextSegmenter.Segment("c", ""));
+
+    @Test
+    public void emitsOnlyTheContiguousPrefix() {
+        List<String> prefixes = new ArrayList<>();
+        OrderedAssembler assembler = new OrderedAssembler(SEGMENTS,
+                (assembled, completed, total) -> prefixes.add(assembled));
+
+        assertFalse(assembler.add(2, "C"));
+        assertTrue(prefixes.isEmpty());
+        assertFalse(assembler.add(0, "A"));
+        assertTrue(assembler.add(1, "B"));
+
+        assertEquals(Arrays.asList("A ", "A B\nC"), prefixes);
+        assertEquals("A B\nC", assembler.getAssembled());
+        assertTrue(assembler.isComplete());
+    }
+
+    @Test
+    public void ignoresDuplicateResults() {
+        OrderedAssembler assembler = new OrderedAssembler(SEGMENTS, null);
+        assembler.add(0, "A");
+        assembler.add(0, "again");
+        assembler.set(1, "B");
+        assembler.set(1, "again");
+        assembler.add(2, "C");
+        assertEquals("A B\nC", assembler.getAssembled());
+    }
+
+    @Test
+    public void setDefersTheListenerUntilDrain() {
+        int[] calls = {0};
+        OrderedAssembler assembler = new OrderedAssembler(SEGMENTS, (assembled, completed, total) -> {
+            calls[0]++;
+            assertEquals(2, completed);
+            assertEquals(3, total);
+        });
+        assembler.set(0, "A");
+        assembler.set(1, "B");
+        assertEquals(0, calls[0]);
+        assertFalse(assembler.drain());
+        assertEquals(1, calls[0]);
+    }
+}
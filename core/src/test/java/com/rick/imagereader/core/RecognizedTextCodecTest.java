@@ -0,0 +1,77 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class RecognizedTextCodecTest {
+
+    @Test
+    public void roundTripsBlocksLinesAndBoxes() throws IOException {
+        RecognizedText text = new RecognizedText(Arrays.asList(
+                new RecognizedText.Block(new RecognizedText.Box(-4, 10, 3000, 90), Arrays.asList(
+                        new RecognizedText.Line("Ausgang", new RecognizedText.Box(0, 10, 120, 40)),
+                        new RecognizedText.Line("出口 → 🚪", null))),
+                new RecognizedText.Block(null, Collections.singletonList(
+                        new RecognizedText.Line("", new RecognizedText.Box(5, 5, 5, 5))))));
+
+        RecognizedText decoded = RecognizedTextCodec.decode(RecognizedTextCodec.encode(text), 0);
+
+        assertEquals(2, decoded.getBlocks().size());
+        RecognizedText.Block first = decoded.getBlocks().get(0);
+        assertBox(-4, 10, 3000, 90, first.box);
+        assertEquals("Ausgang", first.lines.get(0).text);
+        assertBox(0, 10, 120, 40, first.lines.get(0).box);
+        assertEquals("出口 → 🚪", first.lines.get(1).text);
+        assertNull(first.lines.get(1).box);
+        RecognizedText.Block second = decoded.getBlocks().get(1);
+        assertNull(second.box);
+        assertBox(5, 5, 5, 5, second.lines.get(0).box);
+        assertEquals(text.getText(), decoded.getText());
+    }
+
+    @Test
+    public void decodesFromAnOffset() throws IOException {
+        byte[] encoded = RecognizedTextCodec.encode(RecognizedText.EMPTY);
+        byte[] prefixed = new byte[encoded.length + 3];
+        System.arraycopy(encoded, 0, prefixed, 3, encoded.length);
+        RecognizedText decoded = RecognizedTextCodec.decode(prefixed, 3);
+        assertEquals(0, decoded.getBlocks().size());
+        assertArrayEquals(encoded, RecognizedTextCodec.encode(decoded));
+    }
+
+    @Test
+    public void rejectsTruncatedData() {
+        RecognizedText text = new RecognizedText(Collections.singletonList(
+                new RecognizedText.Block(null, Collections.singletonList(new RecognizedText.Line("hello", null)))));
+        byte[] encoded = RecognizedTextCodec.encode(text);
+        try {
+            RecognizedTextCodec.decode(Arrays.copyOf(encoded, encoded.length - 2), 0);
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void rejectsForeignData() {
+        try {
+            RecognizedTextCodec.decode(new byte[] {'P', 'N', 'G', 1, 0}, 0);
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+
+    private static void assertBox(int left, int top, int right, int bottom, RecognizedText.Box box) {
+        assertEquals(left, box.left);
+        assertEquals(top, box.top);
+        assertEquals(right, box.right);
+        assertEquals(bottom, box.bottom);
+    }
+}
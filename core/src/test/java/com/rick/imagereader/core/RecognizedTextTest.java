@@ -0,0 +1,52 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecognizedTextTest {
+
+    @Test
+    public void readsRowsTopToBottomAndLeftToRight() {
+        RecognizedText text = new RecognizedText(Arrays.asList(
+                block("right", 200, 12, 300, 40),
+                block("below", 0, 60, 100, 90),
+                block("unplaced", -1, 0, 0, 0),
+                block("left", 0, 10, 100, 42)));
+        assertEquals(Arrays.asList("left", "right", "below", "unplaced"), texts(text.blocksInReadingOrder()));
+    }
+
+    @Test
+    public void handlesDenseOverlappingLayouts() {
+        // Pairwise "same row" is not transitive; a comparator built on it throws on layouts like these.
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<RecognizedText.Block> blocks = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int left = random.nextInt(1000);
+                int top = random.nextInt(1000);
+                blocks.add(block("b" + i, left, top, left + 10 + random.nextInt(200), top + 5 + random.nextInt(60)));
+            }
+            assertEquals(blocks.size(), new RecognizedText(blocks).blocksInReadingOrder().size());
+        }
+    }
+
+    private static RecognizedText.Block block(String text, int left, int top, int right, int bottom) {
+        RecognizedText.Box box = left < 0 ? null : new RecognizedText.Box(left, top, right, bottom);
+        return new RecognizedText.Block(box, Collections.singletonList(new RecognizedText.Line(text, box)));
+    }
+
+    private static List<String> texts(List<RecognizedText.Block> blocks) {
+        List<String> texts = new ArrayList<>();
+        for (RecognizedText.Block block : blocks) {
+            texts.add(block.getText());
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,71 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ScriptDetectorTest {
+
+    @Test
+    public void latinText() {
+        assertEquals(OcrScript.LATIN, ScriptDetector.detect("The quick brown fox jumps"));
+    }
+
+    @Test
+    public void tooFewLettersIsUndecided() {
+        assertNull(ScriptDetector.detect("abc"));
+        assertNull(ScriptDetector.detect("   "));
+    }
+
+    @Test
+    public void mostlySymbolsIsNoise() {
+        assertNull(ScriptDetector.detect("#= ab |~ %@ cd ;: ^^"));
+    }
+
+    @Test
+    public void oneLetterFragmentsAreNoise() {
+        // Five letters in five words is below MIN_LATIN_WORD_LENGTH.
+        assertNull(ScriptDetector.detect("a i o e u"));
+        assertEquals(OcrScript.LATIN, ScriptDetector.detect("an it on eu"));
+    }
+
+    @Test
+    public void hanWithALittleKanaIsJapanese() {
+        // One kana in twenty CJK characters is exactly MIN_KANA_SHARE.
+        assertEquals(OcrScript.JAPANESE, ScriptDetector.detect(repeat("漢", 19) + "の"));
+        assertEquals(OcrScript.JAPANESE, ScriptDetector.detect("東京駅はどこですか"));
+    }
+
+    @Test
+    public void hanWithoutEnoughKanaIsChinese() {
+        assertEquals(OcrScript.CHINESE, ScriptDetector.detect("北京欢迎你的到来"));
+        assertEquals(OcrScript.CHINESE, ScriptDetector.detect(repeat("漢", 39) + "の"));
+    }
+
+    @Test
+    public void hangulIsKorean() {
+        assertEquals(OcrScript.KOREAN, ScriptDetector.detect("안녕하세요 세계"));
+    }
+
+    @Test
+    public void devanagariIncludingVowelSigns() {
+        assertEquals(OcrScript.DEVANAGARI, ScriptDetector.detect("नमस्ते दुनिया"));
+    }
+
+    @Test
+    public void nonLatinShareDecidesMixedText() {
+        // Two Hangul letters among fifteen reach MIN_NON_LATIN_SHARE.
+        assertEquals(OcrScript.KOREAN, ScriptDetector.detect("Menu 메뉴 price list"));
+        // One stray Han character among twenty-one letters does not.
+        assertEquals(OcrScript.LATIN, ScriptDetector.detect("Welcome to the station 駅"));
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            repeated.append(text);
+        }
+        return repeated.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScriptHistoryTest {
+
+    @Test
+    public void emptyHistoryRanksInDeclarationOrder() {
+        assertEquals(Arrays.asList(OcrScript.values()), new ScriptHistory().ranked());
+    }
+
+    @Test
+    public void ranksByCountThenRecency() {
+        ScriptHistory history = new ScriptHistory();
+        history.record(OcrScript.KOREAN);
+        history.record(OcrScript.KOREAN);
+        history.record(OcrScript.LATIN);
+        assertEquals(Arrays.asList(OcrScript.KOREAN, OcrScript.LATIN, OcrScript.JAPANESE, OcrScript.CHINESE,
+                OcrScript.DEVANAGARI), history.ranked());
+
+        // Now tied at two each; the most recent wins.
+        history.record(OcrScript.LATIN);
+        assertEquals(OcrScript.LATIN, history.ranked().get(0));
+        assertEquals(OcrScript.KOREAN, history.ranked().get(1));
+    }
+
+    @Test
+    public void settlesAfterARunOfThree() {
+        ScriptHistory history = new ScriptHistory();
+        history.record(OcrScript.LATIN);
+        history.record(OcrScript.LATIN);
+        assertFalse(history.isSettledOn(OcrScript.LATIN));
+        history.record(OcrScript.LATIN);
+        assertTrue(history.isSettledOn(OcrScript.LATIN));
+        assertFalse(history.isSettledOn(OcrScript.JAPANESE));
+
+        // One different image breaks the run, however long the earlier one was.
+        history.record(OcrScript.JAPANESE);
+        assertFalse(history.isSettledOn(OcrScript.LATIN));
+        assertFalse(history.isSettledOn(OcrScript.JAPANESE));
+    }
+
+    @Test
+    public void keepsOnlyTheMostRecentCapacity() {
+        ScriptHistory history = new ScriptHistory();
+        history.record(OcrScript.DEVANAGARI);
+        for (int i = 0; i < ScriptHistory.CAPACITY; i++) {
+            history.record(OcrScript.LATIN);
+        }
+        assertFalse(history.encode().contains(OcrScript.DEVANAGARI.name()));
+    }
+
+    @Test
+    public void encodeDecodeRoundTrip() {
+        ScriptHistory history = new ScriptHistory();
+        history.record(OcrScript.CHINESE);
+        history.record(OcrScript.LATIN);
+        history.record(OcrScript.LATIN);
+        assertEquals("LATIN,LATIN,CHINESE", history.encode());
+
+        ScriptHistory decoded = ScriptHistory.decode(history.encode());
+        assertEquals(history.encode(), decoded.encode());
+        assertEquals(history.ranked(), decoded.ranked());
+    }
+
+    @Test
+    public void decodeSkipsUnknownNamesAndEmptyInput() {
+        assertEquals("LATIN,KOREAN", ScriptHistory.decode("LATIN, THAI ,KOREAN").encode());
+        assertEquals("", ScriptHistory.decode("").encode());
+    }
+
+    @Test
+    public void decodeStopsAtCapacity() {
+        StringBuilder encoded = new StringBuilder("KOREAN");
+        for (int i = 0; i < ScriptHistory.CAPACITY; i++) {
+            encoded.append(",LATIN");
+        }
+        ScriptHistory decoded = ScriptHistory.decode(encoded.toString());
+        assertEquals(ScriptHistory.CAPACITY, decoded.encode().split(",").length);
+        assertEquals(OcrScript.KOREAN, decoded.ranked().get(1));
+    }
+}
@@ -0,0 +1,71 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TextChunkerTest {
+
+    @Test
+    public void reassemblesToTheOriginalText() {
+        String text = "  First sentence. Second one!\nThird line here.\n\nNew paragraph?  ";
+        List<TextSegmenter.Segment> chunks = TextChunker.chunk(text, Locale.ENGLISH, 20);
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void keepsShortSentencesTogether() {
+        List<TextSegmenter.Segment> chunks = TextChunker.chunk("One. Two. Three.", Locale.ENGLISH);
+        assertEquals(1, chunks.size());
+        assertEquals("One. Two. Three.", chunks.get(0).text);
+    }
+
+    @Test
+    public void neverSpansAParagraphBreak() {
+        List<TextSegmenter.Segment> chunks = TextChunker.chunk("One.\n\nTwo.", Locale.ENGLISH);
+        assertEquals(2, chunks.size());
+        assertEquals("One.", chunks.get(0).text);
+        assertEquals("\n\n", chunks.get(0).trailing);
+        assertEquals("Two.", chunks.get(1).text);
+    }
+
+    @Test
+    public void cutsLongSentencesAtWordBoundaries() {
+        String text = "alpha beta gamma delta epsilon zeta eta theta iota kappa";
+        List<TextSegmenter.Segment> chunks = TextChunker.chunk(text, Locale.ENGLISH, 12);
+        for (TextSegmenter.Segment chunk : chunks) {
+            assertTrue(chunk.text, chunk.text.length() <= 12);
+            assertTrue(chunk.text, !chunk.text.startsWith(" ") && !chunk.text.endsWith(" "));
+        }
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void cutsAnOverlongWordHard() {
+        List<TextSegmenter.Segment> chunks = TextChunker.chunk("abcdefghijklmnopqrstuvwxyz", Locale.ENGLISH, 10);
+        assertEquals(3, chunks.size());
+        assertEquals("abcdefghij", chunks.get(0).text);
+        assertEquals("uvwxyz", chunks.get(2).text);
+    }
+
+    @Test
+    public void chunkBlocksSeparatesBlocksWithABlankLine() {
+        List<TextSegmenter.Segment> chunks =
+                TextChunker.chunkBlocks(Arrays.asList("Exit", "", "Push to open"), Locale.ENGLISH);
+        assertEquals("Exit\n\nPush to open", join(chunks));
+        assertEquals("", chunks.get(chunks.size() - 1).trailing);
+    }
+
+    private static String join(List<TextSegmenter.Segment> segments) {
+        StringBuilder out = new StringBuilder();
+        for (TextSegmenter.Segment segment : segments) {
+            out.append(segment.text).append(segment.trailing);
+        }
+        return out.toString();
+    }
+}
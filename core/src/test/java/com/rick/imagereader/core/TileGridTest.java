@@ -0,0 +1,50 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TileGridTest {
+
+    @Test
+    public void smallAreaIsOneTile() {
+        List<TileGrid.Tile> tiles = TileGrid.compute(800, 600, 1000, 100);
+        assertEquals(1, tiles.size());
+        assertEquals(800, tiles.get(0).width());
+        assertEquals(600, tiles.get(0).height());
+    }
+
+    @Test
+    public void tilesCoverTheAreaWithOverlapAndStayInside() {
+        int width = 2500;
+        int height = 1800;
+        List<TileGrid.Tile> tiles = TileGrid.compute(width, height, 1000, 100);
+        assertEquals(3 * 2, tiles.size());
+        boolean[][] covered = new boolean[height][width];
+        for (TileGrid.Tile tile : tiles) {
+            assertTrue(tile.left >= 0 && tile.top >= 0 && tile.right <= width && tile.bottom <= height);
+            assertEquals(1000, tile.width());
+            for (int y = tile.top; y < tile.bottom; y++) {
+                for (int x = tile.left; x < tile.right; x++) {
+                    covered[y][x] = true;
+                }
+            }
+        }
+        for (boolean[] row : covered) {
+            for (boolean pixel : row) {
+                assertTrue(pixel);
+            }
+        }
+        // Neighbours in a row share at least the overlap.
+        assertTrue(tiles.get(0).right - tiles.get(1).left >= 100);
+        assertEquals(width, tiles.get(2).right);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOverlapAsLargeAsTheTile() {
+        TileGrid.compute(100, 100, 50, 50);
+    }
+}
@@ -0,0 +1,47 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class TileMergerTest {
+
+    @Test
+    public void keepsTheUnclippedCopyOfASeamBlock() {
+        RecognizedText left = text(block("Grand Opening", 900, 100, 1200, 140),
+                block("menu", 100, 100, 300, 140));
+        RecognizedText right = text(block("Opening", 1000, 100, 1200, 140));
+
+        RecognizedText merged = TileMerger.merge(Arrays.asList(left, right));
+
+        assertEquals(2, merged.getBlocks().size());
+        assertEquals("Grand Opening", merged.getBlocks().get(0).getText());
+        assertEquals("menu", merged.getBlocks().get(1).getText());
+    }
+
+    @Test
+    public void keepsDifferentTextThatOnlyPartlyOverlaps() {
+        RecognizedText first = text(block("Exit", 0, 0, 100, 40));
+        RecognizedText second = text(block("Entrance", 40, 0, 140, 40));
+        assertEquals(2, TileMerger.merge(Arrays.asList(first, second)).getBlocks().size());
+    }
+
+    @Test
+    public void dropsNearlyIdenticalBoxesEvenWhenTheTextDiffers() {
+        RecognizedText first = text(block("Exit", 0, 0, 100, 40));
+        RecognizedText second = text(block("Ex1t", 2, 0, 100, 40));
+        assertEquals(1, TileMerger.merge(Arrays.asList(first, second)).getBlocks().size());
+    }
+
+    private static RecognizedText text(RecognizedText.Block... blocks) {
+        return new RecognizedText(Arrays.asList(blocks));
+    }
+
+    private static RecognizedText.Block block(String text, int left, int top, int right, int bottom) {
+        RecognizedText.Box box = new RecognizedText.Box(left, top, right, bottom);
+        return new RecognizedText.Block(box, Collections.singletonList(new RecognizedText.Line(text, box)));
+    }
+}
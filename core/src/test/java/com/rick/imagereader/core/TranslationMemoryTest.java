@@ -0,0 +1,59 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TranslationMemoryTest {
+
+    private final TranslationMemory memory = new TranslationMemory(100);
+
+    @Test
+    public void matchesIgnoringCaseSpacingAndPunctuation() {
+        memory.add("Please keep the door closed.", "Bitte Tür geschlossen halten.");
+        TranslationMemory.Match match = memory.find("please keep  the door closed", 0.8);
+        assertNotNull(match);
+        assertEquals(1.0, match.similarity, 0);
+        assertEquals("Bitte Tür geschlossen halten.", match.target);
+    }
+
+    @Test
+    public void findsAMisreadLetterAboveTheThreshold() {
+        memory.add("Please keep the door closed", "Bitte Tür geschlossen halten");
+        TranslationMemory.Match match = memory.find("Please keep the d00r closed", 0.6);
+        assertNull(match);
+        match = memory.find("Please keep the dor closed", 0.6);
+        assertNotNull(match);
+        assertTrue(match.similarity < 1.0);
+        assertNull(memory.find("Please keep the dor closed", 0.99));
+    }
+
+    @Test
+    public void digitsMustMatchExactly() {
+        memory.add("Conference room 12", "Konferenzraum 12");
+        assertNull(memory.find("Conference room 13", 0.5));
+        assertNotNull(memory.find("Conference rooom 12", 0.5));
+    }
+
+    @Test
+    public void shortTextOnlyMatchesExactly() {
+        memory.add("Exit", "Ausgang");
+        assertNotNull(memory.find("EXIT!", 0.5));
+        assertNull(memory.find("Exif", 0.1));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedPastCapacity() {
+        TranslationMemory small = new TranslationMemory(2);
+        small.add("first entry here", "1");
+        small.add("second entry here", "2");
+        small.find("first entry here", 0.9);
+        small.add("third entry here", "3");
+        assertEquals(2, small.size());
+        assertNotNull(small.find("first entry here", 0.99));
+        assertNull(small.find("second entry here", 0.99));
+    }
+}
@@ -0,0 +1,58 @@
+package com.rick.imagereader.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WeightedLruCacheTest {
+
+    private final WeightedLruCache<String, String> cache =
+            new WeightedLruCache<>(10, (key, value) -> value.length());
+
+    @Test
+    public void evictsLeastRecentlyUsedOverWeight() {
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+        cache.put("c", "cccc");
+
+        assertNull(cache.get("b"));
+        assertEquals("aaaa", cache.get("a"));
+        assertEquals("cccc", cache.get("c"));
+        assertEquals(8, cache.getWeight());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void replacingAnEntryUpdatesTheWeight() {
+        cache.put("a", "aaaa");
+        cache.put("a", "aa");
+        assertEquals(2, cache.getWeight());
+        assertEquals(1, cache.size());
+        assertEquals("aa", cache.remove("a"));
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void trimAndShrinkEvictOldestFirst() {
+        cache.put("a", "aaa");
+        cache.put("b", "bbb");
+        cache.put("c", "ccc");
+        cache.trimTo(6);
+        assertNull(cache.get("a"));
+        cache.setMaxWeight(3);
+        assertNull(cache.get("b"));
+        assertEquals("ccc", cache.get("c"));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        cache.put("a", "a");
+        cache.get("a");
+        cache.get("a");
+        cache.get("z");
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
@@ -15,3 +15,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Image Reader"
 include(":app")
+include(":core")
+include(":benchmarks")